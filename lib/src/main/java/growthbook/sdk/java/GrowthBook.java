@@ -19,6 +19,7 @@ import growthbook.sdk.java.model.ExperimentResult;
 import growthbook.sdk.java.model.FeatureResult;
 import growthbook.sdk.java.model.GBContext;
 import growthbook.sdk.java.model.RequestBodyForRemoteEval;
+import growthbook.sdk.java.plan.FeaturePlan;
 import growthbook.sdk.java.remoteeval.RemoteEvalCache;
 import growthbook.sdk.java.remoteeval.RemoteEvalCacheKey;
 import growthbook.sdk.java.remoteeval.RemoteEvalOptionsValidator;
@@ -63,6 +64,7 @@ public class GrowthBook implements IGrowthBook {
     private final Map<String, AssignedExperiment> assigned;
     private RemoteEvalService remoteEvalService;
     private RemoteEvalCache remoteEvalCache;
+    private FeaturePlan featurePlan;
 
     @Getter private Map<String, Object> forcedFeatureValues;
     /**
@@ -166,6 +168,7 @@ public class GrowthBook implements IGrowthBook {
 
         GlobalContext globalContext = GlobalContext.builder()
                 .features(features)
+                .featurePlan(getFeaturePlan(features))
                 .savedGroups(savedGroups)
                 .forcedFeatureValues(this.forcedFeatureValues)
                 .forcedVariations(this.context.getForcedVariationsMap())
@@ -184,6 +187,14 @@ public class GrowthBook implements IGrowthBook {
                 new EvaluationContext.StackContext(), options);
     }
 
+    private FeaturePlan getFeaturePlan(Map<String, growthbook.sdk.java.model.Feature<?>> features) {
+        // Rebuilding the evaluation context (e.g. on new attributes) reuses the plan while the features are unchanged
+        if (this.featurePlan == null || !this.featurePlan.isCompiledFrom(features)) {
+            this.featurePlan = FeaturePlan.compile(features);
+        }
+        return this.featurePlan;
+    }
+
     private RemoteEvalResponse getRemoteEvalResponse() throws FeatureFetchException {
         String url = RemoteEvalRequestBuilder.normalizeUrl(this.context.getUrl());
         String cacheKey = RemoteEvalCacheKey.fromContext(
@@ -372,7 +383,7 @@ public class GrowthBook implements IGrowthBook {
      */
     @Override
     public Boolean isOn(String featureKey) {
-        return this.featureEvaluator.evaluateFeature(featureKey, getEvaluationContext(), Object.class).isOn();
+        return this.featureEvaluator.evaluateFeatureShared(featureKey, getEvaluationContext(), Object.class).isOn();
     }
 
     /**
@@ -391,7 +402,7 @@ public class GrowthBook implements IGrowthBook {
      */
     @Override
     public Boolean isOff(String featureKey) {
-        return this.featureEvaluator.evaluateFeature(featureKey, getEvaluationContext(), Object.class).isOff();
+        return this.featureEvaluator.evaluateFeatureShared(featureKey, getEvaluationContext(), Object.class).isOff();
     }
 
     /**
@@ -405,7 +416,7 @@ public class GrowthBook implements IGrowthBook {
     public Boolean getFeatureValue(String featureKey, Boolean defaultValue) {
         try {
             Boolean maybeValue = (Boolean) this.featureEvaluator
-                    .evaluateFeature(featureKey, getEvaluationContext(), Boolean.class).getValue();
+                    .evaluateFeatureShared(featureKey, getEvaluationContext(), Boolean.class).getValue();
             return maybeValue == null ? defaultValue : maybeValue;
         } catch (Exception e) {
             log.error(e.getMessage(), e);
@@ -424,7 +435,7 @@ public class GrowthBook implements IGrowthBook {
     public String getFeatureValue(String featureKey, String defaultValue) {
         try {
             String maybeValue = (String) this.featureEvaluator
-                    .evaluateFeature(featureKey, getEvaluationContext(), String.class).getValue();
+                    .evaluateFeatureShared(featureKey, getEvaluationContext(), String.class).getValue();
             return maybeValue == null ? defaultValue : maybeValue;
         } catch (Exception e) {
             log.error(e.getMessage(), e);
@@ -444,7 +455,7 @@ public class GrowthBook implements IGrowthBook {
         try {
             // Type erasure occurs so a Double ends up being returned
             Object maybeValue = this.featureEvaluator
-                    .evaluateFeature(featureKey, getEvaluationContext(), Object.class).getValue();
+                    .evaluateFeatureShared(featureKey, getEvaluationContext(), Object.class).getValue();
 
             if (maybeValue == null) {
                 return defaultValue;
@@ -474,7 +485,7 @@ public class GrowthBook implements IGrowthBook {
     public Integer getFeatureValue(String featureKey, Integer defaultValue) {
         try {
             Object maybeValue = this.featureEvaluator
-                    .evaluateFeature(featureKey, getEvaluationContext(), Object.class).getValue();
+                    .evaluateFeatureShared(featureKey, getEvaluationContext(), Object.class).getValue();
 
             if (maybeValue == null) {
                 return defaultValue;
@@ -504,7 +515,7 @@ public class GrowthBook implements IGrowthBook {
     public Object getFeatureValue(String featureKey, Object defaultValue) {
         try {
             Object maybeValue = this.featureEvaluator
-                    .evaluateFeature(featureKey, getEvaluationContext(), defaultValue.getClass()).getValue();
+                    .evaluateFeatureShared(featureKey, getEvaluationContext(), defaultValue.getClass()).getValue();
             return maybeValue == null ? defaultValue : maybeValue;
         } catch (Exception e) {
             log.error(e.getMessage(), e);
@@ -515,6 +526,8 @@ public class GrowthBook implements IGrowthBook {
     /**
      * Get the feature value as a Gson-deserializable.
      * If your class requires a custom deserializer, use {@link #getFeatureValue(String, Object)} instead and deserialize it with your own Gson instance.
+     * A new instance is returned on every call unless {@code copyFeatureValues} is set to false in the {@link GBContext},
+     * in which case the instance is shared between calls and must not be changed.
      *
      * @param featureKey              feature identifier
      * @param defaultValue            default generic class
@@ -525,15 +538,15 @@ public class GrowthBook implements IGrowthBook {
     @Override
     public <ValueType> ValueType getFeatureValue(String featureKey, ValueType defaultValue, Class<ValueType> gsonDeserializableClass) {
         try {
+            EvaluationContext evaluationContext = getEvaluationContext();
             Object maybeValue = this.featureEvaluator
-                    .evaluateFeature(featureKey, getEvaluationContext(), gsonDeserializableClass).getValue();
+                    .evaluateFeatureShared(featureKey, evaluationContext, gsonDeserializableClass).getValue();
             if (maybeValue == null) {
                 return defaultValue;
             }
 
-            String stringValue = jsonUtils.gson.toJson(maybeValue);
-
-            return jsonUtils.gson.fromJson(stringValue, gsonDeserializableClass);
+            return evaluationContext.getGlobal().getFeaturePlan().decodeValue(featureKey, maybeValue,
+                    gsonDeserializableClass, this.context.getCopyFeatureValues());
         } catch (Exception e) {
             log.error(e.getMessage(), e);
             return defaultValue;
@@ -581,7 +594,7 @@ public class GrowthBook implements IGrowthBook {
     public Double getFeatureValue(String featureKey, Double defaultValue) {
         try {
             Object maybeValue = this.featureEvaluator
-                    .evaluateFeature(featureKey, getEvaluationContext(), Object.class).getValue();
+                    .evaluateFeatureShared(featureKey, getEvaluationContext(), Object.class).getValue();
 
             if (maybeValue == null) {
                 return defaultValue;
@@ -2,6 +2,8 @@ package growthbook.sdk.java.callback;
 
 import growthbook.sdk.java.repository.GBFeaturesRepository;
 
+import java.util.Set;
+
 /**
  * See {@link GBFeaturesRepository#onFeaturesRefresh(FeatureRefreshCallback)}
  */
@@ -14,6 +16,15 @@ public interface FeatureRefreshCallback {
      */
     void onRefresh(String featuresJson);
 
+    /**
+     * Called after {@link #onRefresh(String)} with the keys of the features that the refresh added, changed or removed.
+     * The set is empty when the features have not changed.
+     *
+     * @param changedFeatureKeys Keys of the changed features
+     */
+    default void onFeaturesChanged(Set<String> changedFeatureKeys) {
+    }
+
     /**
      * See {@link GBFeaturesRepository#onFeaturesRefresh(FeatureRefreshCallback)}
      *
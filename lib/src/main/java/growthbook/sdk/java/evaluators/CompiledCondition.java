@@ -0,0 +1,48 @@
+package growthbook.sdk.java.evaluators;
+
+import com.google.gson.JsonObject;
+import growthbook.sdk.java.model.UserAttributes;
+import growthbook.sdk.java.multiusermode.configurations.UserContext;
+
+import javax.annotation.Nullable;
+
+/**
+ * <b>INTERNAL</b>: A targeting condition compiled by {@link ConditionCompiler}.
+ * Instances are immutable and can be shared between threads.
+ */
+public interface CompiledCondition {
+
+    /**
+     * Evaluate the condition for a set of user attributes.
+     * Behaves exactly like {@link ConditionEvaluator#evaluateCondition(JsonObject, JsonObject, JsonObject)}
+     * for the condition it was compiled from.
+     *
+     * @param attributes  A JsonObject of the user attributes to evaluate
+     * @param savedGroups Saved groups referenced by {@code $inGroup} / {@code $notInGroup}
+     * @return Whether the condition should be true for the user
+     */
+    boolean matches(@Nullable JsonObject attributes, @Nullable JsonObject savedGroups);
+
+    /**
+     * Same as {@link #matches(JsonObject, JsonObject)}, with attribute paths looked up in the flat store
+     *
+     * @param attributes  User attributes to evaluate
+     * @param savedGroups Saved groups referenced by {@code $inGroup} / {@code $notInGroup}
+     * @return Whether the condition should be true for the user
+     */
+    boolean matches(UserAttributes attributes, @Nullable JsonObject savedGroups);
+
+    /**
+     * Evaluate the condition for the attributes of a user, in whichever form the user context holds them
+     *
+     * @param user        User context
+     * @param savedGroups Saved groups referenced by {@code $inGroup} / {@code $notInGroup}
+     * @return Whether the condition should be true for the user
+     */
+    default boolean matches(UserContext user, @Nullable JsonObject savedGroups) {
+        UserAttributes userAttributes = user.getUserAttributes();
+        return userAttributes != null
+                ? matches(userAttributes, savedGroups)
+                : matches(user.getAttributes(), savedGroups);
+    }
+}
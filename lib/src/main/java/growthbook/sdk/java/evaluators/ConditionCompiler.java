@@ -0,0 +1,547 @@
+package growthbook.sdk.java.evaluators;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import growthbook.sdk.java.model.DataType;
+import growthbook.sdk.java.model.Operator;
+import growthbook.sdk.java.model.UserAttributes;
+import growthbook.sdk.java.util.GrowthBookJsonUtils;
+import growthbook.sdk.java.util.JsonValueSet;
+import growthbook.sdk.java.util.StringUtils;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * <b>INTERNAL</b>: Compiles targeting condition JSON into a tree of predicates.
+ * Operators are resolved, attribute paths split and literals typed once, when the payload is loaded,
+ * instead of on every evaluation. Conditions with a shape the compiler does not handle
+ * are evaluated by {@link ConditionEvaluator}, so the result is always the same as the interpreter's.
+ */
+@Slf4j
+public final class ConditionCompiler {
+    private static final ConditionEvaluator INTERPRETER = new ConditionEvaluator();
+    private static final GrowthBookJsonUtils JSON_UTILS = GrowthBookJsonUtils.getInstance();
+
+    private ConditionCompiler() {
+    }
+
+    /**
+     * Compile a condition
+     *
+     * @param conditionJson A JsonObject of the condition
+     * @return the compiled condition
+     */
+    public static CompiledCondition compile(JsonObject conditionJson) {
+        try {
+            return compileObject(conditionJson);
+        } catch (RuntimeException e) {
+            log.debug("Condition will be interpreted, it could not be compiled: {}", e.getMessage());
+            return new InterpretedCondition(conditionJson);
+        }
+    }
+
+    // region Compilation
+
+    private static ObjectCondition compileObject(JsonObject conditionJson) {
+        List<Entry> entries = new ArrayList<>(conditionJson.size());
+        for (Map.Entry<String, JsonElement> entry : conditionJson.entrySet()) {
+            String key = entry.getKey();
+            JsonElement value = entry.getValue();
+
+            switch (key) {
+                case "$or":
+                    ObjectCondition[] orItems = compileArray(value);
+                    entries.add((attributes, flat, savedGroups) -> evalOr(orItems, attributes, flat, savedGroups));
+                    break;
+                case "$nor":
+                    ObjectCondition[] norItems = compileArray(value);
+                    entries.add((attributes, flat, savedGroups) -> !evalOr(norItems, attributes, flat, savedGroups));
+                    break;
+                case "$and":
+                    ObjectCondition[] andItems = compileArray(value);
+                    entries.add((attributes, flat, savedGroups) -> evalAnd(andItems, attributes, flat, savedGroups));
+                    break;
+                case "$not":
+                    ObjectCondition notCondition = compileObject(requireObject(value));
+                    entries.add((attributes, flat, savedGroups) -> !notCondition.matches(attributes, flat, savedGroups));
+                    break;
+                default:
+                    String[] path = splitPath(key);
+                    String flatPath = path != null ? String.join(".", path) : null;
+                    ValueMatcher matcher = compileValue(value);
+                    entries.add((attributes, flat, savedGroups) -> matcher.test(
+                            flat != null ? getPath(flat, path, flatPath) : getPath(attributes, path),
+                            savedGroups
+                    ));
+                    break;
+            }
+        }
+        return new ObjectCondition(entries.toArray(new Entry[0]));
+    }
+
+    private static ObjectCondition[] compileArray(JsonElement value) {
+        if (!value.isJsonArray()) {
+            throw new IllegalStateException("Expected an array of conditions: " + value);
+        }
+        JsonArray items = value.getAsJsonArray();
+        ObjectCondition[] compiled = new ObjectCondition[items.size()];
+        for (int i = 0; i < items.size(); i++) {
+            compiled[i] = compileObject(requireObject(items.get(i)));
+        }
+        return compiled;
+    }
+
+    private static JsonObject requireObject(JsonElement value) {
+        if (value == null || !value.isJsonObject()) {
+            throw new IllegalStateException("Expected a condition object: " + value);
+        }
+        return value.getAsJsonObject();
+    }
+
+    /**
+     * Mirrors {@link ConditionEvaluator#evalConditionValue(JsonElement, JsonElement, JsonObject, boolean)}
+     */
+    private static ValueMatcher compileValue(JsonElement conditionValue) {
+        switch (GrowthBookJsonUtils.getElementType(conditionValue)) {
+            case STRING:
+                JsonPrimitive expectedPrimitive = conditionValue.getAsJsonPrimitive();
+                return (actual, savedGroups) -> actual != null
+                        && actual.isJsonPrimitive()
+                        && expectedPrimitive.equals(actual.getAsJsonPrimitive());
+
+            case NUMBER:
+                Double expectedNumber = conditionValue.getAsDouble();
+                return (actual, savedGroups) -> actual != null
+                        && actual.isJsonPrimitive()
+                        && expectedNumber.equals(actual.getAsJsonPrimitive().getAsDouble());
+
+            case BOOLEAN:
+                Boolean expectedBoolean = conditionValue.getAsBoolean();
+                return (actual, savedGroups) -> actual != null
+                        && actual.isJsonPrimitive()
+                        && expectedBoolean.equals(actual.getAsJsonPrimitive().getAsBoolean());
+
+            case ARRAY:
+                String expectedArrayJson = JSON_UTILS.gson.toJson(conditionValue);
+                return (actual, savedGroups) -> actual != null
+                        && actual.isJsonArray()
+                        && expectedArrayJson.equals(JSON_UTILS.gson.toJson(actual));
+
+            case OBJECT:
+                JsonObject conditionObject = conditionValue.getAsJsonObject();
+                if (INTERPRETER.isOperatorObject(conditionObject)) {
+                    List<ValueMatcher> operators = new ArrayList<>(conditionObject.size());
+                    for (Map.Entry<String, JsonElement> entry : conditionObject.entrySet()) {
+                        operators.add(compileOperator(entry.getKey(), entry.getValue()));
+                    }
+                    ValueMatcher[] operatorMatchers = operators.toArray(new ValueMatcher[0]);
+                    return (actual, savedGroups) -> {
+                        for (ValueMatcher operatorMatcher : operatorMatchers) {
+                            if (!operatorMatcher.test(actual, savedGroups)) {
+                                return false;
+                            }
+                        }
+                        return true;
+                    };
+                }
+                String expectedObjectJson = JSON_UTILS.gson.toJson(conditionValue);
+                return (actual, savedGroups) -> actual != null
+                        && actual.isJsonObject()
+                        && expectedObjectJson.equals(JSON_UTILS.gson.toJson(actual));
+
+            case NULL:
+                return (actual, savedGroups) -> actual == null || actual.isJsonNull();
+
+            default:
+                throw new IllegalStateException("Unsupported condition value: " + conditionValue);
+        }
+    }
+
+    /**
+     * Case-insensitive variant used by {@code $alli}: strings are compared ignoring case,
+     * everything else like {@link #compileValue(JsonElement)}.
+     */
+    private static ValueMatcher compileValueIgnoringCase(JsonElement conditionValue) {
+        ValueMatcher matcher = compileValue(conditionValue);
+        if (GrowthBookJsonUtils.getElementType(conditionValue) != DataType.STRING) {
+            return matcher;
+        }
+        String expected = conditionValue.getAsString();
+        return (actual, savedGroups) -> {
+            if (actual != null && GrowthBookJsonUtils.getElementType(actual) == DataType.STRING) {
+                return expected.equalsIgnoreCase(actual.getAsString());
+            }
+            return matcher.test(actual, savedGroups);
+        };
+    }
+
+    /**
+     * Mirrors {@link ConditionEvaluator#evalOperatorCondition(String, JsonElement, JsonElement, JsonObject)}.
+     * Operators whose expected value holds nested conditions are compiled recursively,
+     * the rest are evaluated by the interpreter with the operator already resolved.
+     */
+    private static ValueMatcher compileOperator(String operatorString, JsonElement expected) {
+        Operator operator = Operator.fromString(operatorString);
+        if (operator == null) {
+            return (actual, savedGroups) -> false;
+        }
+
+        switch (operator) {
+            case NOT:
+                ValueMatcher negated = compileValue(expected);
+                return (actual, savedGroups) -> !negated.test(actual, savedGroups);
+
+            case SIZE:
+                ValueMatcher sizeMatcher = compileValue(expected);
+                return (actual, savedGroups) -> actual != null
+                        && actual.isJsonArray()
+                        && sizeMatcher.test(new JsonPrimitive(actual.getAsJsonArray().size()), savedGroups);
+
+            case ELEMENT_MATCH:
+                return compileElemMatch(expected);
+
+            case ALL:
+            case ALLI:
+                return compileAll(expected, operator == Operator.ALLI);
+
+            case REGEX:
+            case REGEX_I:
+            case NOT_REGEX:
+            case NOT_REGEX_I:
+                return compileRegex(
+                        expected,
+                        operator == Operator.REGEX_I || operator == Operator.NOT_REGEX_I,
+                        operator == Operator.NOT_REGEX || operator == Operator.NOT_REGEX_I
+                );
+
+            case VERSION_GT:
+            case VERSION_GTE:
+            case VERSION_LT:
+            case VERSION_LTE:
+            case VERSION_NE:
+            case VERSION_EQ:
+                ValueMatcher versionMatcher = compileVersion(operator, expected);
+                if (versionMatcher != null) {
+                    return versionMatcher;
+                }
+                return (actual, savedGroups) -> INTERPRETER.evalOperatorCondition(operator, actual, expected, savedGroups);
+
+            case IN:
+            case NIN:
+            case INI:
+            case NINI:
+                if (!expected.isJsonArray()) {
+                    return (actual, savedGroups) -> false;
+                }
+                boolean ignoreCase = operator == Operator.INI || operator == Operator.NINI;
+                boolean negateIn = operator == Operator.NIN || operator == Operator.NINI;
+                JsonValueSet values = ignoreCase
+                        ? JsonValueSet.ignoringCase(expected.getAsJsonArray())
+                        : new JsonValueSet(expected.getAsJsonArray());
+                return (actual, savedGroups) -> actual != null && negateIn != values.containsAny(actual);
+
+            case IN_GROUP:
+            case NOT_IN_GROUP:
+                ValueMatcher groupMatcher = compileInGroup(expected, operator == Operator.NOT_IN_GROUP);
+                if (groupMatcher != null) {
+                    return groupMatcher;
+                }
+                return (actual, savedGroups) -> INTERPRETER.evalOperatorCondition(operator, actual, expected, savedGroups);
+
+            default:
+                return (actual, savedGroups) -> INTERPRETER.evalOperatorCondition(operator, actual, expected, savedGroups);
+        }
+    }
+
+    /**
+     * The condition side version is padded once, the attribute side goes through
+     * {@link ConditionEvaluator#paddedVersion(String)}.
+     *
+     * @return the matcher, or null when the expected version can't be read as a string
+     */
+    @Nullable
+    private static ValueMatcher compileVersion(Operator operator, JsonElement expected) {
+        String expectedVersion;
+        try {
+            expectedVersion = StringUtils.paddedVersionString(expected.getAsString());
+        } catch (RuntimeException e) {
+            return null;
+        }
+
+        return (actual, savedGroups) -> {
+            if (actual == null || actual.isJsonNull()) {
+                return false;
+            }
+            int comparison = ConditionEvaluator.paddedVersion(actual.getAsString()).compareTo(expectedVersion);
+            switch (operator) {
+                case VERSION_GT:
+                    return comparison > 0;
+                case VERSION_GTE:
+                    return comparison >= 0;
+                case VERSION_LT:
+                    return comparison < 0;
+                case VERSION_LTE:
+                    return comparison <= 0;
+                case VERSION_NE:
+                    return comparison != 0;
+                default:
+                    return comparison == 0;
+            }
+        };
+    }
+
+    /**
+     * The group id is read once, membership is looked up in the {@link growthbook.sdk.java.util.SavedGroupsIndex}
+     * of the saved groups passed to each evaluation.
+     *
+     * @return the matcher, or null when the group id can't be read as a string
+     */
+    @Nullable
+    private static ValueMatcher compileInGroup(JsonElement expected, boolean negate) {
+        String groupId;
+        try {
+            groupId = expected.getAsString();
+        } catch (RuntimeException e) {
+            return null;
+        }
+
+        return (actual, savedGroups) -> actual != null
+                && negate != ConditionEvaluator.isInGroup(actual, savedGroups, groupId);
+    }
+
+    private static ValueMatcher compileElemMatch(JsonElement expected) {
+        if (INTERPRETER.isOperatorObject(expected)) {
+            ValueMatcher elementMatcher = compileValue(expected);
+            return (actual, savedGroups) -> {
+                if (actual == null || !actual.isJsonArray()) {
+                    return false;
+                }
+                for (JsonElement actualElement : actual.getAsJsonArray()) {
+                    if (elementMatcher.test(actualElement, savedGroups)) {
+                        return true;
+                    }
+                }
+                return false;
+            };
+        }
+
+        ObjectCondition elementCondition = compileObject(requireObject(expected));
+        return (actual, savedGroups) -> {
+            if (actual == null || !actual.isJsonArray()) {
+                return false;
+            }
+            for (JsonElement actualElement : actual.getAsJsonArray()) {
+                // like the interpreter, an element that is not an object fails the enclosing condition
+                if (elementCondition.matches(actualElement.getAsJsonObject(), savedGroups)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    private static ValueMatcher compileRegex(JsonElement expected, boolean caseInsensitive, boolean negate) {
+        Pattern pattern;
+        try {
+            pattern = ConditionEvaluator.compilePattern(expected.getAsString(), caseInsensitive);
+        } catch (RuntimeException e) {
+            pattern = null;
+        }
+
+        // an invalid pattern never matches
+        if (pattern == null) {
+            return (actual, savedGroups) -> negate;
+        }
+
+        Pattern compiled = pattern;
+        return (actual, savedGroups) -> {
+            if (actual == null || actual.isJsonNull()) {
+                return negate;
+            }
+            try {
+                return negate != compiled.matcher(actual.getAsString()).find();
+            } catch (RuntimeException e) {
+                return negate;
+            }
+        };
+    }
+
+    private static ValueMatcher compileAll(JsonElement expected, boolean ignoreCase) {
+        if (!expected.isJsonArray()) {
+            return (actual, savedGroups) -> false;
+        }
+
+        JsonArray expectedItems = expected.getAsJsonArray();
+        ValueMatcher[] itemMatchers = new ValueMatcher[expectedItems.size()];
+        for (int i = 0; i < expectedItems.size(); i++) {
+            itemMatchers[i] = ignoreCase
+                    ? compileValueIgnoringCase(expectedItems.get(i))
+                    : compileValue(expectedItems.get(i));
+        }
+
+        return (actual, savedGroups) -> {
+            if (actual == null || !actual.isJsonArray()) {
+                return false;
+            }
+            JsonArray actualItems = actual.getAsJsonArray();
+            for (ValueMatcher itemMatcher : itemMatchers) {
+                boolean passed = false;
+                for (JsonElement actualItem : actualItems) {
+                    if (itemMatcher.test(actualItem, savedGroups)) {
+                        passed = true;
+                        break;
+                    }
+                }
+                if (!passed) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+
+    @Nullable
+    private static String[] splitPath(String path) {
+        if (path.isEmpty()) {
+            return null;
+        }
+        return path.contains(".") ? path.split("\\.") : new String[]{path};
+    }
+
+    // endregion Compilation
+
+    // region Evaluation
+
+    @Nullable
+    private static JsonElement getPath(@Nullable JsonElement attributes, @Nullable String[] path) {
+        if (path == null) {
+            return null;
+        }
+
+        JsonElement element = attributes;
+        for (String segment : path) {
+            if (!(element instanceof JsonObject)) {
+                return null;
+            }
+            element = ((JsonObject) element).get(segment);
+        }
+        return element;
+    }
+
+    /**
+     * Same as {@link #getPath(JsonElement, String[])} on the flat store, the flattened path is the joined path segments
+     */
+    @Nullable
+    private static JsonElement getPath(UserAttributes attributes, @Nullable String[] path, @Nullable String flatPath) {
+        if (path == null) {
+            return null;
+        }
+        // a path made of dots only has no segments, it is the attributes object itself
+        return path.length == 0 ? attributes.toJsonObject() : attributes.getPath(flatPath);
+    }
+
+    private static boolean evalOr(
+            ObjectCondition[] conditions,
+            @Nullable JsonObject attributes,
+            @Nullable UserAttributes flat,
+            @Nullable JsonObject savedGroups
+    ) {
+        if (conditions.length == 0) {
+            return true;
+        }
+        for (ObjectCondition condition : conditions) {
+            if (condition.matches(attributes, flat, savedGroups)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean evalAnd(
+            ObjectCondition[] conditions,
+            @Nullable JsonObject attributes,
+            @Nullable UserAttributes flat,
+            @Nullable JsonObject savedGroups
+    ) {
+        for (ObjectCondition condition : conditions) {
+            if (!condition.matches(attributes, flat, savedGroups)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // endregion Evaluation
+
+    /**
+     * One entry of a condition object. Attributes are given either as JSON or, when not null, as the flat store.
+     */
+    private interface Entry {
+        boolean test(@Nullable JsonObject attributes, @Nullable UserAttributes flat, @Nullable JsonObject savedGroups);
+    }
+
+    private interface ValueMatcher {
+        boolean test(@Nullable JsonElement actual, @Nullable JsonObject savedGroups);
+    }
+
+    /**
+     * A condition object: every entry must match. Like the interpreter, any failure
+     * while evaluating the object makes the whole object evaluate to false.
+     */
+    private static final class ObjectCondition implements CompiledCondition {
+        private final Entry[] entries;
+
+        private ObjectCondition(Entry[] entries) {
+            this.entries = entries;
+        }
+
+        @Override
+        public boolean matches(@Nullable JsonObject attributes, @Nullable JsonObject savedGroups) {
+            return matches(attributes, null, savedGroups);
+        }
+
+        @Override
+        public boolean matches(UserAttributes attributes, @Nullable JsonObject savedGroups) {
+            return matches(null, attributes, savedGroups);
+        }
+
+        private boolean matches(@Nullable JsonObject attributes, @Nullable UserAttributes flat, @Nullable JsonObject savedGroups) {
+            try {
+                for (Entry entry : entries) {
+                    if (!entry.test(attributes, flat, savedGroups)) {
+                        return false;
+                    }
+                }
+                return true;
+            } catch (Exception exception) {
+                log.error(exception.getMessage(), exception);
+                return false;
+            }
+        }
+    }
+
+    private static final class InterpretedCondition implements CompiledCondition {
+        private final JsonObject conditionJson;
+
+        private InterpretedCondition(JsonObject conditionJson) {
+            this.conditionJson = conditionJson;
+        }
+
+        @Override
+        public boolean matches(@Nullable JsonObject attributes, @Nullable JsonObject savedGroups) {
+            return INTERPRETER.evaluateCondition(attributes, conditionJson, savedGroups);
+        }
+
+        @Override
+        public boolean matches(UserAttributes attributes, @Nullable JsonObject savedGroups) {
+            return INTERPRETER.evaluateCondition(attributes, conditionJson, savedGroups);
+        }
+    }
+}
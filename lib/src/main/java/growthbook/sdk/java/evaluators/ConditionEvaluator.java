@@ -1,12 +1,17 @@
 package growthbook.sdk.java.evaluators;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
 import com.google.gson.JsonSyntaxException;
 import growthbook.sdk.java.util.GrowthBookJsonUtils;
+import growthbook.sdk.java.util.JsonValueSet;
+import growthbook.sdk.java.util.SavedGroupsIndex;
 import growthbook.sdk.java.model.Operator;
+import growthbook.sdk.java.model.UserAttributes;
 import growthbook.sdk.java.util.StringUtils;
 import growthbook.sdk.java.model.DataType;
 import lombok.extern.slf4j.Slf4j;
@@ -16,6 +21,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.regex.Matcher;
@@ -28,6 +34,19 @@ import java.util.regex.PatternSyntaxException;
 @Slf4j
 public class ConditionEvaluator implements IConditionEvaluator {
 
+    private static final int MAX_CACHED_PATTERNS = 1000;
+    private static final Cache<String, Optional<Pattern>> PATTERNS = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_PATTERNS)
+            .build();
+    private static final Cache<String, Optional<Pattern>> CASE_INSENSITIVE_PATTERNS = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_PATTERNS)
+            .build();
+
+    private static final int MAX_CACHED_VERSIONS = 1000;
+    private static final Cache<String, String> PADDED_VERSIONS = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_VERSIONS)
+            .build();
+
     private final GrowthBookJsonUtils jsonUtils = GrowthBookJsonUtils.getInstance();
 
     /**
@@ -41,6 +60,28 @@ public class ConditionEvaluator implements IConditionEvaluator {
      */
     @Override
     public Boolean evaluateCondition(JsonObject attributes, JsonObject conditionJson, @Nullable JsonObject savedGroups) {
+        return evaluateCondition(attributes, null, conditionJson, savedGroups);
+    }
+
+    /**
+     * Same as {@link #evaluateCondition(JsonObject, JsonObject, JsonObject)}, with attribute paths
+     * looked up in the flat {@link UserAttributes} store instead of walking a JSON tree.
+     *
+     * @param attributes    User attributes to evaluate
+     * @param conditionJson A JsonObject of the condition
+     * @param savedGroups   Saved groups referenced by {@code $inGroup} / {@code $notInGroup}
+     * @return Whether the condition should be true for the user
+     */
+    public Boolean evaluateCondition(UserAttributes attributes, JsonObject conditionJson, @Nullable JsonObject savedGroups) {
+        return evaluateCondition(null, attributes, conditionJson, savedGroups);
+    }
+
+    private Boolean evaluateCondition(
+            @Nullable JsonObject attributes,
+            @Nullable UserAttributes flatAttributes,
+            JsonObject conditionJson,
+            @Nullable JsonObject savedGroups
+    ) {
         try {
             // Loop through the conditionObj key/value pairs
             for (Map.Entry<String, JsonElement> entry : conditionJson.entrySet()) {
@@ -52,7 +93,7 @@ public class ConditionEvaluator implements IConditionEvaluator {
                         // If conditionObj has a key $or, return evalOr(attributes, condition["$or"])
                         JsonArray orTargetItems = value.getAsJsonArray();
                         if (orTargetItems != null) {
-                            if (!evalOr(attributes, orTargetItems, savedGroups)) {
+                            if (!evalOr(attributes, flatAttributes, orTargetItems, savedGroups)) {
                                 return false;
                             }
                         }
@@ -61,7 +102,7 @@ public class ConditionEvaluator implements IConditionEvaluator {
                         // If conditionObj has a key $nor, return !evalOr(attributes, condition["$nor"])
                         JsonArray norTargetItems = value.getAsJsonArray();
                         if (norTargetItems != null) {
-                            if (evalOr(attributes, norTargetItems, savedGroups)) {
+                            if (evalOr(attributes, flatAttributes, norTargetItems, savedGroups)) {
                                 return false;
                             }
                         }
@@ -70,7 +111,7 @@ public class ConditionEvaluator implements IConditionEvaluator {
                         // If conditionObj has a key $and, return !evalAnd(attributes, condition["$and"])
                         JsonArray andTargetItems = value.getAsJsonArray();
                         if (andTargetItems != null) {
-                            if (!evalAnd(attributes, andTargetItems, savedGroups)) {
+                            if (!evalAnd(attributes, flatAttributes, andTargetItems, savedGroups)) {
                                 return false;
                             }
                         }
@@ -78,13 +119,15 @@ public class ConditionEvaluator implements IConditionEvaluator {
                     case "$not":
                         // If conditionObj has a key $not, return !evalCondition(attributes, condition["$not"])
                         if (value != null) {
-                            if (evaluateCondition(attributes, value.getAsJsonObject(), savedGroups)) {
+                            if (evaluateCondition(attributes, flatAttributes, value.getAsJsonObject(), savedGroups)) {
                                 return false;
                             }
                         }
                         break;
                     default:
-                        JsonElement element = (JsonElement) getPath(attributes, key);
+                        JsonElement element = flatAttributes != null
+                                ? getPath(flatAttributes, key)
+                                : (JsonElement) getPath(attributes, key);
                         // If evalConditionValue(value, getPath(attributes, key)) is false,
                         // break out of loop and return false
                         if (!evalConditionValue(value, element, savedGroups)) {
@@ -170,6 +213,26 @@ public class ConditionEvaluator implements IConditionEvaluator {
     }
 
 
+    @Nullable
+    private static JsonObject asObject(@Nullable JsonElement attributes) {
+        return attributes != null ? attributes.getAsJsonObject() : null;
+    }
+
+    /**
+     * Same as {@link #getPath(JsonElement, String)} on the flat store
+     */
+    @Nullable
+    private JsonElement getPath(UserAttributes attributes, String path) {
+        if (Objects.equals(path, "")) return null;
+        if (path.indexOf('.') < 0) return attributes.getPath(path);
+
+        String[] segments = path.split("\\.");
+        // the flat store is keyed by the joined segments ("a." is walked like "a")
+        return segments.length == 0
+                ? attributes.toJsonObject()
+                : attributes.getPath(String.join(".", segments));
+    }
+
     /**
      * Evaluates the condition using the operator. For example, if you provide the following condition:
      *
@@ -226,6 +289,14 @@ public class ConditionEvaluator implements IConditionEvaluator {
         Operator operator = Operator.fromString(operatorString);
         if (operator == null) return false;
 
+        return evalOperatorCondition(operator, actual, expected, savedGroups);
+    }
+
+    /**
+     * Same as {@link #evalOperatorCondition(String, JsonElement, JsonElement, JsonObject)}
+     * for an operator that has already been resolved.
+     */
+    Boolean evalOperatorCondition(Operator operator, @Nullable JsonElement actual, JsonElement expected, @Nullable JsonObject savedGroups) {
         DataType attributeDataType = GrowthBookJsonUtils.getElementType(actual);
 
         switch (operator) {
@@ -365,59 +436,51 @@ public class ConditionEvaluator implements IConditionEvaluator {
                 if (actual == null || expected == null || DataType.NULL.equals(attributeDataType))
                     return false;
 
-                return StringUtils.paddedVersionString(actual.getAsString())
-                        .compareTo(StringUtils.paddedVersionString(expected.getAsString())) > 0;
+                return paddedVersion(actual.getAsString())
+                        .compareTo(paddedVersion(expected.getAsString())) > 0;
 
             case VERSION_GTE:
                 if (actual == null || expected == null || DataType.NULL.equals(attributeDataType))
                     return false;
 
-                return StringUtils.paddedVersionString(actual.getAsString())
-                        .compareTo(StringUtils.paddedVersionString(expected.getAsString())) >= 0;
+                return paddedVersion(actual.getAsString())
+                        .compareTo(paddedVersion(expected.getAsString())) >= 0;
 
             case VERSION_LT:
                 if (actual == null || expected == null || DataType.NULL.equals(attributeDataType))
                     return false;
 
-                return StringUtils.paddedVersionString(actual.getAsString())
-                        .compareTo(StringUtils.paddedVersionString(expected.getAsString())) < 0;
+                return paddedVersion(actual.getAsString())
+                        .compareTo(paddedVersion(expected.getAsString())) < 0;
 
             case VERSION_LTE:
                 if (actual == null || expected == null || DataType.NULL.equals(attributeDataType))
                     return false;
 
-                return StringUtils.paddedVersionString(actual.getAsString())
-                        .compareTo(StringUtils.paddedVersionString(expected.getAsString())) <= 0;
+                return paddedVersion(actual.getAsString())
+                        .compareTo(paddedVersion(expected.getAsString())) <= 0;
 
             case VERSION_NE:
                 if (actual == null || expected == null || DataType.NULL.equals(attributeDataType))
                     return false;
 
-                return StringUtils.paddedVersionString(actual.getAsString())
-                        .compareTo(StringUtils.paddedVersionString(expected.getAsString())) != 0;
+                return paddedVersion(actual.getAsString())
+                        .compareTo(paddedVersion(expected.getAsString())) != 0;
 
             case VERSION_EQ:
                 if (actual == null || expected == null || DataType.NULL.equals(attributeDataType))
                     return false;
 
-                return StringUtils.paddedVersionString(actual.getAsString())
-                        .compareTo(StringUtils.paddedVersionString(expected.getAsString())) == 0;
+                return paddedVersion(actual.getAsString())
+                        .compareTo(paddedVersion(expected.getAsString())) == 0;
 
             case IN_GROUP:
                 if (actual != null && expected != null) {
-                    JsonElement jsonElement = savedGroups != null ? savedGroups.get(expected.getAsString()) : null;
-                    if (jsonElement != null) {
-                        return isIn(actual, jsonElement.getAsJsonArray(), false);
-                    }
-                    return isIn(actual, new JsonArray(), false);
+                    return isInGroup(actual, savedGroups, expected.getAsString());
                 }
             case NOT_IN_GROUP:
                 if (actual != null && expected != null) {
-                    JsonElement jsonElement = savedGroups != null ? savedGroups.get(expected.getAsString()) : null;
-                    if (jsonElement != null) {
-                        return !isIn(actual, jsonElement.getAsJsonArray(), false);
-                    }
-                    return !isIn(actual, new JsonArray(), false);
+                    return !isInGroup(actual, savedGroups, expected.getAsString());
                 }
             default:
                 return false;
@@ -553,13 +616,22 @@ public class ConditionEvaluator implements IConditionEvaluator {
      * @return if matches
      */
     Boolean evalOr(JsonElement attributes, JsonArray conditions, @Nullable JsonObject savedGroups) {
+        return evalOr(attributes, null, conditions, savedGroups);
+    }
+
+    private Boolean evalOr(
+            @Nullable JsonElement attributes,
+            @Nullable UserAttributes flatAttributes,
+            JsonArray conditions,
+            @Nullable JsonObject savedGroups
+    ) {
         if (conditions.isEmpty()) {
             return true;
         }
 
         for (JsonElement condition : conditions) {
-            JsonObject attributesObj = (null == attributes) ? new JsonObject() : attributes.getAsJsonObject();
-            Boolean matches = evaluateCondition(attributesObj, condition.getAsJsonObject(), savedGroups);
+            JsonObject attributesObj = (null == attributes && null == flatAttributes) ? new JsonObject() : asObject(attributes);
+            Boolean matches = evaluateCondition(attributesObj, flatAttributes, condition.getAsJsonObject(), savedGroups);
 
             if (matches) {
                 return true;
@@ -575,9 +647,18 @@ public class ConditionEvaluator implements IConditionEvaluator {
      * @return if matches
      */
     Boolean evalAnd(JsonElement attributes, JsonArray conditions, @Nullable JsonObject savedGroups) {
+        return evalAnd(attributes, null, conditions, savedGroups);
+    }
+
+    private Boolean evalAnd(
+            @Nullable JsonElement attributes,
+            @Nullable UserAttributes flatAttributes,
+            JsonArray conditions,
+            @Nullable JsonObject savedGroups
+    ) {
         for (JsonElement condition : conditions) {
-            JsonObject attributesObj = (null == attributes) ? new JsonObject() : attributes.getAsJsonObject();
-            Boolean matches = evaluateCondition(attributesObj, condition.getAsJsonObject(), savedGroups);
+            JsonObject attributesObj = (null == attributes && null == flatAttributes) ? new JsonObject() : asObject(attributes);
+            Boolean matches = evaluateCondition(attributesObj, flatAttributes, condition.getAsJsonObject(), savedGroups);
 
             if (!matches) {
                 return false;
@@ -587,6 +668,20 @@ public class ConditionEvaluator implements IConditionEvaluator {
         return true;
     }
 
+    /**
+     * Checks the attribute value against the members of a saved group, using the
+     * hashed {@link SavedGroupsIndex} of the saved groups instead of scanning the group.
+     *
+     * @param actual      the attribute value, an array matches if any of its items is a member
+     * @param savedGroups saved groups, keyed by group id
+     * @param groupId     saved group id
+     * @return true if the value is a member of the group. Missing groups have no members.
+     */
+    static boolean isInGroup(JsonElement actual, @Nullable JsonObject savedGroups, String groupId) {
+        JsonValueSet members = savedGroups != null ? SavedGroupsIndex.getGroup(savedGroups, groupId) : null;
+        return members != null && members.containsAny(actual);
+    }
+
     private Boolean isIn(JsonElement actual, JsonArray expected, boolean inSensitive) {
         if (actual == null) return false;
 
@@ -668,10 +763,11 @@ public class ConditionEvaluator implements IConditionEvaluator {
                                               boolean negate) {
         if (actual == null || DataType.NULL.equals(attributeDataType)) return negate;
 
-        int flags = caseInsensitive ? Pattern.CASE_INSENSITIVE : 0;
-
         try {
-            Pattern pattern = Pattern.compile(expected.getAsString(), flags);
+            Pattern pattern = compilePattern(expected.getAsString(), caseInsensitive);
+            if (pattern == null) {
+                return negate;
+            }
             Matcher matcher = pattern.matcher(actual.getAsString());
             boolean matches = matcher.find();
             return negate != matches;
@@ -680,6 +776,47 @@ public class ConditionEvaluator implements IConditionEvaluator {
         }
     }
 
+    /**
+     * Compiles a regex used by the {@code $regex} family of operators.
+     * Patterns are cached by pattern and flags; an invalid pattern is cached as well,
+     * so it is only ever compiled once.
+     *
+     * @param regex           the regular expression
+     * @param caseInsensitive compile with {@link Pattern#CASE_INSENSITIVE}
+     * @return the pattern, or null when the regular expression is invalid
+     */
+    @Nullable
+    static Pattern compilePattern(String regex, boolean caseInsensitive) {
+        Cache<String, Optional<Pattern>> cache = caseInsensitive ? CASE_INSENSITIVE_PATTERNS : PATTERNS;
+        Optional<Pattern> pattern = cache.getIfPresent(regex);
+        if (pattern == null) {
+            try {
+                pattern = Optional.of(Pattern.compile(regex, caseInsensitive ? Pattern.CASE_INSENSITIVE : 0));
+            } catch (PatternSyntaxException e) {
+                pattern = Optional.empty();
+            }
+            cache.put(regex, pattern);
+        }
+        return pattern.orElse(null);
+    }
+
+    /**
+     * Memoized {@link StringUtils#paddedVersionString(String)} used by the version operators.
+     * Attribute versions (e.g. app versions) have very few distinct values, so a small bounded cache
+     * avoids re-padding the same version on every evaluation.
+     *
+     * @param version version string
+     * @return the padded, comparable version string
+     */
+    static String paddedVersion(String version) {
+        String padded = PADDED_VERSIONS.getIfPresent(version);
+        if (padded == null) {
+            padded = StringUtils.paddedVersionString(version);
+            PADDED_VERSIONS.put(version, padded);
+        }
+        return padded;
+    }
+
     /**
      * Folds a JsonElement to lowercase if it's a string and inSensitive is true.
      * Used where you need a folded value rather than a comparison.
@@ -3,22 +3,26 @@ package growthbook.sdk.java.evaluators;
 import com.google.gson.JsonObject;
 import growthbook.sdk.java.model.GeneratedStickyBucketAssignmentDocModel;
 import growthbook.sdk.java.multiusermode.ExperimentTracker;
+import growthbook.sdk.java.multiusermode.usage.ExposureDeduplicator;
 import growthbook.sdk.java.util.GrowthBookJsonUtils;
 import growthbook.sdk.java.util.GrowthBookUtils;
+import growthbook.sdk.java.util.UrlOverrides;
 import growthbook.sdk.java.model.HashAttributeAndHashValue;
 import growthbook.sdk.java.model.Namespace;
 import growthbook.sdk.java.model.ParentCondition;
-import growthbook.sdk.java.model.BucketRange;
 import growthbook.sdk.java.model.Experiment;
 import growthbook.sdk.java.model.ExperimentResult;
 import growthbook.sdk.java.model.FeatureResult;
 import growthbook.sdk.java.model.FeatureResultSource;
 import growthbook.sdk.java.model.Filter;
 import growthbook.sdk.java.model.StickyBucketVariation;
+import growthbook.sdk.java.model.UserAttributes;
 import growthbook.sdk.java.model.TrackData;
 import growthbook.sdk.java.model.VariationMeta;
 import growthbook.sdk.java.multiusermode.configurations.EvaluationContext;
 import growthbook.sdk.java.multiusermode.usage.TrackingCallbackWithUser;
+import growthbook.sdk.java.plan.BucketRanges;
+import growthbook.sdk.java.plan.CompiledRule;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.annotation.Nullable;
@@ -33,6 +37,18 @@ public class ExperimentEvaluator implements IExperimentEvaluator {
     private final ConditionEvaluator conditionEvaluator = new ConditionEvaluator();
     private final GrowthBookJsonUtils jsonUtils = GrowthBookJsonUtils.getInstance();
     private final ExperimentTracker experimentTracker = new ExperimentTracker();
+    private final FeatureEvaluator featureEvaluator;
+
+    public ExperimentEvaluator() {
+        this.featureEvaluator = new FeatureEvaluator(this);
+    }
+
+    /**
+     * @param featureEvaluator the feature evaluator this evaluator belongs to, used for prerequisites
+     */
+    ExperimentEvaluator(FeatureEvaluator featureEvaluator) {
+        this.featureEvaluator = featureEvaluator;
+    }
 
 
     /**
@@ -47,6 +63,61 @@ public class ExperimentEvaluator implements IExperimentEvaluator {
     public <ValueType> ExperimentResult<ValueType> evaluateExperiment(Experiment<ValueType> experiment,
                                                                       EvaluationContext context,
                                                                       @Nullable String featureId) {
+        return evaluateExperiment(experiment, null, null, context, featureId, false);
+    }
+
+    /**
+     * Takes Context, Experiment and returns Experiment Result.
+     * Used for experiment rules of a compiled feature plan, whose condition is already compiled.
+     *
+     * @param experiment        Experiment
+     * @param compiledCondition the compiled {@code experiment.conditionJson}, or null to interpret it
+     * @param context           EvaluationContext
+     * @param featureId         String(can be null)
+     * @return ExperimentResult
+     */
+    public <ValueType> ExperimentResult<ValueType> evaluateExperiment(Experiment<ValueType> experiment,
+                                                                      @Nullable CompiledCondition compiledCondition,
+                                                                      EvaluationContext context,
+                                                                      @Nullable String featureId) {
+        return evaluateExperiment(experiment, compiledCondition, null, context, featureId);
+    }
+
+    /**
+     * Takes Context, Experiment and returns Experiment Result.
+     * Used for experiment rules of a compiled feature plan, whose condition and bucket ranges are precomputed.
+     * The experiment is shared between evaluations, so the tracking callback gets a copy of it.
+     *
+     * @param experiment        Experiment
+     * @param compiledCondition the compiled {@code experiment.conditionJson}, or null to interpret it
+     * @param bucketRanges      the experiment's bucket ranges, or null to compute them
+     * @param context           EvaluationContext
+     * @param featureId         String(can be null)
+     * @return ExperimentResult
+     */
+    public <ValueType> ExperimentResult<ValueType> evaluateExperiment(Experiment<ValueType> experiment,
+                                                                      @Nullable CompiledCondition compiledCondition,
+                                                                      @Nullable BucketRanges bucketRanges,
+                                                                      EvaluationContext context,
+                                                                      @Nullable String featureId) {
+        return evaluateExperiment(experiment, compiledCondition, bucketRanges, context, featureId, true);
+    }
+
+    private <ValueType> ExperimentResult<ValueType> evaluateExperiment(Experiment<ValueType> experiment,
+                                                                       @Nullable CompiledCondition compiledCondition,
+                                                                       @Nullable BucketRanges bucketRanges,
+                                                                       EvaluationContext context,
+                                                                       @Nullable String featureId,
+                                                                       boolean compiledExperiment) {
+        boolean stickyBucketingEnabled = isStickyBucketingEnabledForExperiment(context, experiment);
+
+        // Get the user hash attribute and value
+        // (context.attributes[experiment.hashAttribute || "id"]) once for every result below
+        HashAttributeAndHashValue hashAttribute = GrowthBookUtils.getHashAttribute(
+                experiment.getHashAttribute(),
+                stickyBucketingEnabled ? experiment.getFallbackAttribute() : null,
+                context.getUser()
+        );
 
         // If less than 2 variations, return immediately (not in experiment, variation 0)
         ArrayList<ValueType> experimentVariations = experiment.getVariations();
@@ -57,13 +128,16 @@ public class ExperimentEvaluator implements IExperimentEvaluator {
         // If not enabled, return immediately (not in experiment, variation 0)
         Boolean isEnabled = Optional.ofNullable(context.getOptions().getEnabled()).orElse(Boolean.FALSE);
         if (!isEnabled || experimentVariations.size() < 2) {
-            return getExperimentResult(context, experiment, -1, false, featureId, null, null);
+            return getExperimentResult(experiment, hashAttribute, -1, false, featureId, null, null);
         }
 
         // Query string overrides
-        Integer override = GrowthBookUtils.getQueryStringOverride(experiment.getKey(), context.getOptions().getUrl(), experimentVariations.size());
+        UrlOverrides urlOverrides = context.getUrlOverrides();
+        Integer override = urlOverrides.isEmpty()
+                ? null
+                : urlOverrides.getVariationOverride(experiment.getKey(), experimentVariations.size());
         if (override != null) {
-            return getExperimentResult(context, experiment, override, false, featureId, null, null);
+            return getExperimentResult(experiment, hashAttribute, override, false, featureId, null, null);
         }
 
         // If no forced variation, not in experiment, variation 0
@@ -71,38 +145,24 @@ public class ExperimentEvaluator implements IExperimentEvaluator {
         // return immediately (not in experiment, forced variation)
         Integer forcedVariation = getForcedVariation(experiment.getKey(), context);
         if (forcedVariation != null) {
-            return getExperimentResult(context, experiment, forcedVariation, false, featureId, null, null);
+            return getExperimentResult(experiment, hashAttribute, forcedVariation, false, featureId, null, null);
         }
 
         // If experiment is not active, not in experiment, variation 0
         if (experiment.getIsActive() != null && !experiment.getIsActive()) {
-            return getExperimentResult(context, experiment, -1, false, featureId, null, null);
-        }
-
-        String fallBack = null;
-        if (isStickyBucketingEnabledForExperiment(context, experiment)) {
-            fallBack = experiment.getFallbackAttribute();
+            return getExperimentResult(experiment, hashAttribute, -1, false, featureId, null, null);
         }
 
-        // Get the user hash attribute and value
-        // (context.attributes[experiment.hashAttribute || "id"])
-        // and if empty, return immediately (not in experiment, variationId 0)
-        HashAttributeAndHashValue hashAttribute = GrowthBookUtils.getHashAttribute(
-                experiment.getHashAttribute(),
-                fallBack,
-                context.getUser().getAttributes()
-        );
-
         // Skip because missing hashAttribute
         if (hashAttribute.getHashValue().isEmpty() || hashAttribute.getHashValue().equals("null")) {
-            return getExperimentResult(context, experiment, -1, false, featureId, null, null);
+            return getExperimentResult(experiment, hashAttribute, -1, false, featureId, null, null);
         }
 
         int assigned = -1;
         boolean foundStickyBucket = false;
         boolean stickyBucketVersionIsBlocked = false;
 
-        if (isStickyBucketingEnabledForExperiment(context, experiment)) {
+        if (stickyBucketingEnabled) {
             int bucketVersion = experiment.getBucketVersion() != null ? experiment.getBucketVersion() : 0;
             int minBucketVersion = experiment.getMinBucketVersion() != null ? experiment.getMinBucketVersion() : 0;
             List<VariationMeta> meta = experiment.getMeta() != null ? experiment.getMeta() : new ArrayList<>();
@@ -131,16 +191,16 @@ public class ExperimentEvaluator implements IExperimentEvaluator {
             if (filters != null) {
 
                 // Exclude if user is filtered out (used to be called "namespace")
-                if (GrowthBookUtils.isFilteredOut(filters, context.getUser().getAttributes())) {
-                    return getExperimentResult(context, experiment, -1, false, featureId, null, null);
+                if (GrowthBookUtils.isFilteredOut(filters, context)) {
+                    return getExperimentResult(experiment, hashAttribute, -1, false, featureId, null, null);
                 }
             } else if (namespace != null) {
 
                 // If experiment namespace is set, check if the hash value is included in the range, and if not
                 // user is not in the experiment, variation 0.
-                Boolean isInNamespace = GrowthBookUtils.inNameSpace(hashAttribute.getHashValue(), namespace);
+                Boolean isInNamespace = GrowthBookUtils.inNameSpace(hashAttribute.getHashValue(), namespace, context);
                 if (!isInNamespace) {
-                    return getExperimentResult(context, experiment, -1, false, featureId, null, null);
+                    return getExperimentResult(experiment, hashAttribute, -1, false, featureId, null, null);
                 }
             }
 
@@ -148,24 +208,28 @@ public class ExperimentEvaluator implements IExperimentEvaluator {
             // can it be instead JsonObject
             JsonObject conditionJson = experiment.getConditionJson();
             if (conditionJson != null) {
-                Boolean shouldEvaluate = conditionEvaluator.evaluateCondition(context.getUser().getAttributes(), conditionJson, context.getGlobal().getSavedGroups());
+                UserAttributes userAttributes = context.getUser().getUserAttributes();
+                Boolean shouldEvaluate;
+                if (compiledCondition != null) {
+                    shouldEvaluate = compiledCondition.matches(context.getUser(), context.getGlobal().getSavedGroups());
+                } else if (userAttributes != null) {
+                    shouldEvaluate = conditionEvaluator.evaluateCondition(userAttributes, conditionJson, context.getGlobal().getSavedGroups());
+                } else {
+                    shouldEvaluate = conditionEvaluator.evaluateCondition(context.getUser().getAttributes(), conditionJson, context.getGlobal().getSavedGroups());
+                }
 
                 // If experiment.condition is set and the condition evaluates to false,
                 // return immediately (not in experiment, variationId 0)
                 if (!shouldEvaluate) {
-                    return getExperimentResult(context, experiment, -1, false, featureId, null, null);
+                    return getExperimentResult(experiment, hashAttribute, -1, false, featureId, null, null);
                 }
             }
 
             // 10. Exclude if prerequisites are not met
             List<ParentCondition> parenConditions = experiment.getParentConditions();
             if (parenConditions != null) {
-                final Set<String> evaluatedFeatures = new HashSet<>(context.getStack().getEvaluatedFeatures());
-
                 for (ParentCondition parentCondition : parenConditions) {
-                    context.getStack().setEvaluatedFeatures(new HashSet<>(evaluatedFeatures));
-
-                    FeatureResult<ValueType> parentResult = new FeatureEvaluator().evaluateFeature(
+                    FeatureResult<ValueType> parentResult = featureEvaluator.evaluateFeatureShared(
                             parentCondition.getId(),
                             context,
                             null
@@ -173,26 +237,21 @@ public class ExperimentEvaluator implements IExperimentEvaluator {
 
                     if (parentResult.getSource() != null) {
                         if (parentResult.getSource().equals(FeatureResultSource.CYCLIC_PREREQUISITE)) {
-                            return getExperimentResult(context, experiment, -1, false, featureId, null, null);
+                            return getExperimentResult(experiment, hashAttribute, -1, false, featureId, null, null);
                         }
                     }
 
-                    Map<String, Object> evalObj = new HashMap<>();
-                    if (parentResult.getValue() != null) {
-                        evalObj.put("value", parentResult.getValue());
-                    }
-                    JsonObject attributesJson = GrowthBookJsonUtils.getInstance().gson.toJsonTree(evalObj).getAsJsonObject();
-
-                    boolean evalCondition = conditionEvaluator.evaluateCondition(
-                            attributesJson,
-                            parentCondition.getCondition(),
+                    boolean evalCondition = PrerequisiteEvaluator.matches(
+                            conditionEvaluator,
+                            parentCondition,
+                            parentResult,
                             context.getGlobal().getSavedGroups()
                     );
 
                     // blocking prerequisite eval failed: feature evaluation fails
                     if (!evalCondition) {
                         log.info("Feature blocked by prerequisite");
-                        return getExperimentResult(context, experiment, -1, false, featureId, null, null);
+                        return getExperimentResult(experiment, hashAttribute, -1, false, featureId, null, null);
                     }
                 }
             }
@@ -207,70 +266,51 @@ public class ExperimentEvaluator implements IExperimentEvaluator {
         if (hashVersion == null) {
             hashVersion = 1;
         }
-        Float hash = GrowthBookUtils.hash(hashAttribute.getHashValue(), hashVersion, seed);
+        Float hash = context.hash(hashAttribute.getHashValue(), hashVersion, seed);
 
         // Get the variation from the sticky bucket or get bucket ranges and choose variation
         if (hash == null) {
-            return getExperimentResult(context, experiment, -1, false, featureId, null, null);
+            return getExperimentResult(experiment, hashAttribute, -1, false, featureId, null, null);
         }
 
         if (!foundStickyBucket) {
-            // Set default variation weights and coverage if not set
-            // Weights
-            ArrayList<Float> weights = experiment.getWeights();
-            if (weights == null) {
-                weights = GrowthBookUtils.getEqualWeights(experiment.getVariations().size());
-            }
-
-            // Coverage
-            Float coverage = experiment.getCoverage();
-            if (coverage == null) {
-                coverage = 1.0f;
-            }
-
-            // Bucket ranges
-            ArrayList<BucketRange> bucketRanges = experiment.getRanges();
+            // Bucket ranges, defaulting to equal weights and full coverage
             if (bucketRanges == null) {
-                bucketRanges = GrowthBookUtils.getBucketRanges(
-                        experiment.getVariations().size(),
-                        coverage,
-                        weights
-                );
+                bucketRanges = BucketRanges.forExperiment(experiment);
             }
 
-            assigned = GrowthBookUtils.chooseVariation(hash, bucketRanges);
-
+            assigned = bucketRanges.chooseVariation(hash);
         }
 
         // Unenroll if any prior sticky buckets are blocked by version
         if (stickyBucketVersionIsBlocked) {
-            return getExperimentResult(context, experiment, -1, false, featureId, null, true);
+            return getExperimentResult(experiment, hashAttribute, -1, false, featureId, null, true);
         }
 
         // Assigned variations
         // If not assigned a variation (-1), not in experiment, variation 0
         if (assigned < 0) {
             // NOTE: While a hash is used to determine if the user is assigned a variation, since they aren't, hash passed is null
-            return getExperimentResult(context, experiment, -1, false, featureId, null, null);
+            return getExperimentResult(experiment, hashAttribute, -1, false, featureId, null, null);
         }
 
         // If experiment has a forced index, not in experiment, variation is the forced experiment
         Integer force = experiment.getForce();
         if (force != null) {
-            return getExperimentResult(context, experiment, force, false, featureId, null, null);
+            return getExperimentResult(experiment, hashAttribute, force, false, featureId, null, null);
         }
 
         // If QA mode is enabled, not in experiment, variation 0
         if (Boolean.TRUE.equals(context.getOptions().getIsQaMode())) {
-            return getExperimentResult(context, experiment, -1, false, featureId, null, null);
+            return getExperimentResult(experiment, hashAttribute, -1, false, featureId, null, null);
         }
 
         // User is in an experiment.
         // Call the tracking callback with the result.
-        ExperimentResult<ValueType> result = getExperimentResult(context, experiment, assigned, true, featureId, hash, foundStickyBucket);
+        ExperimentResult<ValueType> result = getExperimentResult(experiment, hashAttribute, assigned, true, featureId, hash, foundStickyBucket);
 
         // Persist sticky bucket
-        if (isStickyBucketingEnabledForExperiment(context, experiment)) {
+        if (stickyBucketingEnabled) {
 
             Map<String, String> assignments = new HashMap<>();
             assignments.put(
@@ -307,11 +347,19 @@ public class ExperimentEvaluator implements IExperimentEvaluator {
 
         // Fire context.trackingClosure if set and the combination of hashAttribute,
         // hashValue, experiment.key, and variationId has not been tracked before
-        if (!isExperimentTracked(experiment, result)) {
+        ExposureDeduplicator deduplicator = context.getOptions().getExposureDeduplicator();
+        boolean firstExposure = deduplicator == null
+                ? !isExperimentTracked(experiment, result)
+                : deduplicator.markTracked(trackingKey(experiment, result));
+        if (firstExposure) {
             TrackingCallbackWithUser trackingCallBackWithUser = context.getOptions().getTrackingCallBackWithUser();
 
             if (trackingCallBackWithUser != null) {
-                trackingCallBackWithUser.onTrack(experiment, result, context.getUser());
+                trackingCallBackWithUser.onTrack(
+                        compiledExperiment ? CompiledRule.copyExperiment(experiment) : experiment,
+                        result,
+                        context.getUser()
+                );
             }
         }
 
@@ -320,8 +368,8 @@ public class ExperimentEvaluator implements IExperimentEvaluator {
     }
 
     private <ValueType> ExperimentResult<ValueType> getExperimentResult(
-            EvaluationContext context,
             Experiment<ValueType> experiment,
+            HashAttributeAndHashValue hashAttribute,
             Integer variationIndex,
             Boolean hashUsed,
             String featureId,
@@ -331,10 +379,9 @@ public class ExperimentEvaluator implements IExperimentEvaluator {
         boolean inExperiment = true;
         Integer targetVariationIndex = variationIndex;
 
-        ArrayList<ValueType> experimentVariations = experiment.getVariations();
-        if (experimentVariations == null) {
-            experimentVariations = new ArrayList<>();
-        }
+        List<ValueType> experimentVariations = experiment.getVariations() != null
+                ? experiment.getVariations()
+                : Collections.emptyList();
 
         // If assigned variation is not valid, use the baseline
         // and mark the user as not in the experiment
@@ -344,20 +391,9 @@ public class ExperimentEvaluator implements IExperimentEvaluator {
             inExperiment = false;
         }
 
-        String fallBack = null;
-        if (isStickyBucketingEnabledForExperiment(context, experiment)) {
-            fallBack = experiment.getFallbackAttribute();
-        }
-        HashAttributeAndHashValue hashAttribute = GrowthBookUtils.getHashAttribute(
-                experiment.getHashAttribute(),
-                fallBack,
-                context.getUser().getAttributes());
-
-        List<VariationMeta> experimentMeta = new ArrayList<>();
-
-        if (experiment.getMeta() != null) {
-            experimentMeta = experiment.getMeta();
-        }
+        List<VariationMeta> experimentMeta = experiment.getMeta() != null
+                ? experiment.getMeta()
+                : Collections.emptyList();
 
         VariationMeta meta = null;
         if (experimentMeta.size() > targetVariationIndex) {
@@ -405,8 +441,8 @@ public class ExperimentEvaluator implements IExperimentEvaluator {
     /**
      * Fires tracking callbacks for experiments that were evaluated remotely (a feature rule's
      * {@code tracks}). De-duplicates per {@code (hashAttribute, hashValue, experimentKey, variationId)}
-     * using the same {@link ExperimentTracker} as local evaluation, so reusing a cached remote-eval
-     * response does not re-fire exposure events.
+     * using the same {@link ExposureDeduplicator} as local evaluation (an {@link ExperimentTracker} unless
+     * one is configured), so reusing a cached remote-eval response does not re-fire exposure events.
      */
     public <ValueType> void fireRemoteEvaluationTracks(
             @Nullable List<TrackData<ValueType>> tracks,
@@ -419,6 +455,9 @@ public class ExperimentEvaluator implements IExperimentEvaluator {
         if (trackingCallBackWithUser == null) {
             return;
         }
+        ExposureDeduplicator deduplicator = context.getOptions().getExposureDeduplicator() != null
+                ? context.getOptions().getExposureDeduplicator()
+                : experimentTracker;
 
         for (TrackData<ValueType> track : tracks) {
             if (track == null
@@ -429,7 +468,7 @@ public class ExperimentEvaluator implements IExperimentEvaluator {
                 log.debug("Skipping malformed remote evaluation tracking payload.");
                 continue;
             }
-            if (alreadyTracked(track.getExperiment(), track.getResult())) {
+            if (!deduplicator.markTracked(trackingKey(track.getExperiment(), track.getResult()))) {
                 continue;
             }
             try {
@@ -440,19 +479,11 @@ public class ExperimentEvaluator implements IExperimentEvaluator {
         }
     }
 
-    private <ValueType> boolean alreadyTracked(Experiment<ValueType> experiment, ExperimentResult<ValueType> result) {
-        String key = trackingKey(experiment, result);
-        if (experimentTracker.isExperimentTracked(key)) {
-            return true;
-        }
-        experimentTracker.trackExperiment(key);
-        return false;
-    }
-
     private <ValueType> String trackingKey(Experiment<ValueType> experiment, ExperimentResult<ValueType> result) {
+        // separated, so that e.g. hash values "1" + experiment "23" and "12" + "3" don't collide
         return (result.getHashAttribute() != null ? result.getHashAttribute() : "")
-                + (result.getHashValue() != null ? result.getHashValue() : "")
-                + experiment.getKey() + result.getVariationId();
+                + '\u0000' + (result.getHashValue() != null ? result.getHashValue() : "")
+                + '\u0000' + experiment.getKey() + '\u0000' + result.getVariationId();
     }
 
     private <ValueType> boolean isStickyBucketingEnabledForExperiment(EvaluationContext context,
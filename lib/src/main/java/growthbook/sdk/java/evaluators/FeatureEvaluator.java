@@ -1,22 +1,21 @@
 package growthbook.sdk.java.evaluators;
 
-import com.google.gson.JsonObject;
 import growthbook.sdk.java.util.GrowthBookJsonUtils;
 import growthbook.sdk.java.util.GrowthBookUtils;
-import growthbook.sdk.java.model.ParentCondition;
+import growthbook.sdk.java.util.UrlOverrides;
 import growthbook.sdk.java.model.Experiment;
 import growthbook.sdk.java.model.ExperimentResult;
-import growthbook.sdk.java.model.Feature;
 import growthbook.sdk.java.model.FeatureResult;
 import growthbook.sdk.java.model.FeatureResultSource;
-import growthbook.sdk.java.model.FeatureRule;
-import growthbook.sdk.java.model.Filter;
 import growthbook.sdk.java.multiusermode.configurations.EvaluationContext;
 import growthbook.sdk.java.multiusermode.usage.FeatureUsageCallbackWithUser;
+import growthbook.sdk.java.plan.CompiledFeature;
+import growthbook.sdk.java.plan.CompiledParentCondition;
+import growthbook.sdk.java.plan.CompiledRule;
+import growthbook.sdk.java.plan.ConstantFeatureResult;
+import growthbook.sdk.java.plan.FeaturePlan;
 import lombok.extern.slf4j.Slf4j;
 import javax.annotation.Nullable;
-import java.net.MalformedURLException;
-import java.net.URL;
 import java.util.*;
 
 /**
@@ -29,8 +28,18 @@ public class FeatureEvaluator implements IFeatureEvaluator {
     private static final Object NO_FORCED_FEATURE_VALUE = new Object();
 
     private final GrowthBookJsonUtils jsonUtils = GrowthBookJsonUtils.getInstance();
-    private final ConditionEvaluator conditionEvaluator = new ConditionEvaluator();
-    private final ExperimentEvaluator experimentEvaluator = new ExperimentEvaluator();
+    private final ExperimentEvaluator experimentEvaluator;
+
+    public FeatureEvaluator() {
+        this.experimentEvaluator = new ExperimentEvaluator(this);
+    }
+
+    /**
+     * @param experimentEvaluator the experiment evaluator this evaluator belongs to
+     */
+    FeatureEvaluator(ExperimentEvaluator experimentEvaluator) {
+        this.experimentEvaluator = experimentEvaluator;
+    }
 
     // Takes Context and Feature Key
     // Returns Calculated Feature Result against that key
@@ -39,17 +48,31 @@ public class FeatureEvaluator implements IFeatureEvaluator {
             String key,
             EvaluationContext context,
             Class<ValueType> valueTypeClass
+    ) throws ClassCastException {
+        return ConstantFeatureResult.unshared(evaluateFeatureShared(key, context, valueTypeClass));
+    }
+
+    /**
+     * <b>INTERNAL</b>: Like {@link #evaluateFeature(String, EvaluationContext, Class)}, but outcomes that are
+     * the same for every user are returned as one shared {@link ConstantFeatureResult} that can't be changed.
+     * For callers that only read the result, e.g. its value.
+     *
+     * @param key            feature key
+     * @param context        evaluation context
+     * @param valueTypeClass value type for the feature
+     * @param <ValueType>    value type for the feature
+     * @return the result, possibly shared
+     */
+    public <ValueType> FeatureResult<ValueType> evaluateFeatureShared(
+            String key,
+            EvaluationContext context,
+            Class<ValueType> valueTypeClass
     ) throws ClassCastException {
         // This callback serves for listening for feature usage events
         FeatureUsageCallbackWithUser featureUsageCallbackWithUser = context.getOptions()
                 .getFeatureUsageCallbackWithUser();
 
-        FeatureResult<ValueType> unknownFeatureResult = FeatureResult
-                .<ValueType>builder()
-                .value(null)
-                .source(FeatureResultSource.UNKNOWN_FEATURE)
-                .build();
-
+        boolean onEvaluationPath = false;
         try {
             if (context.getStack().getEvaluatedFeatures().contains(key)) {
                 // block that handles recursion
@@ -59,13 +82,9 @@ public class FeatureEvaluator implements IFeatureEvaluator {
                         context.getStack().getId(), key
                 );
 
-                FeatureResult<ValueType> featureResultWhenCircularDependencyDetected = FeatureResult
-                        .<ValueType>builder()
-                        .value(null)
-                        .source(FeatureResultSource.CYCLIC_PREREQUISITE)
-                        .build();
+                FeatureResult<ValueType> featureResultWhenCircularDependencyDetected = ConstantFeatureResult.cyclicPrerequisite();
                 if (featureUsageCallbackWithUser != null) {
-                    featureUsageCallbackWithUser.onFeatureUsage(key, featureResultWhenCircularDependencyDetected, context.getUser());
+                    featureUsageCallbackWithUser.onFeatureUsage(key, ConstantFeatureResult.unshared(featureResultWhenCircularDependencyDetected), context.getUser());
                 }
 
                 leaveCircularLoop(context);
@@ -78,7 +97,8 @@ public class FeatureEvaluator implements IFeatureEvaluator {
             }
 
             // Add the current feature being evaluated to the stack
-            addFeatureToEvalStack(key, context);
+            FeaturePlan featurePlan = getFeaturePlan(context);
+            onEvaluationPath = addFeatureToEvalStack(key, featurePlan, context);
 
             // Global override
             Object forcedFeatureValue = getForcedFeatureValue(key, context);
@@ -96,7 +116,10 @@ public class FeatureEvaluator implements IFeatureEvaluator {
 
             // Check for feature values forced by URL
             if (context.getOptions().getAllowUrlOverrides()) {
-                ValueType forcedValue = evaluateForcedFeatureValueFromUrl(key, context.getOptions().getUrl(), valueTypeClass);
+                UrlOverrides urlOverrides = context.getUrlOverrides();
+                ValueType forcedValue = urlOverrides.hasForcedFeatureValues()
+                        ? urlOverrides.getForcedFeatureValue(key, valueTypeClass, jsonUtils.gson)
+                        : null;
                 if (forcedValue != null) {
                     FeatureResult<ValueType> urlFeatureResult = FeatureResult
                             .<ValueType>builder()
@@ -113,57 +136,33 @@ public class FeatureEvaluator implements IFeatureEvaluator {
             }
 
             // Unknown key, return empty feature
-            Map<String, Feature<?>> features = context.getGlobal().getFeatures();
-            if (features == null || features.isEmpty() || !features.containsKey(key)) {
+            CompiledFeature<ValueType> feature = (CompiledFeature<ValueType>) featurePlan.getFeature(key);
+            if (feature == null) {
+                FeatureResult<ValueType> unknownFeatureResult = ConstantFeatureResult.unknownFeature();
                 if (featureUsageCallbackWithUser != null) {
-                    featureUsageCallbackWithUser.onFeatureUsage(key, unknownFeatureResult, context.getUser());
+                    featureUsageCallbackWithUser.onFeatureUsage(key, ConstantFeatureResult.unshared(unknownFeatureResult), context.getUser());
                 }
 
                 return cacheResult(key, unknownFeatureResult, context);
             }
 
-            // The key exists
-            Feature<ValueType> feature = (Feature<ValueType>) features.get(key);
-            FeatureResult<ValueType> defaultValueFeature = FeatureResult
-                    .<ValueType>builder()
-                    .value(null)
-                    .source(FeatureResultSource.DEFAULT_VALUE)
-                    .build();
-
-            if (feature == null) {
-                // When key exists but there is no value, should be default value with null value
-                if (featureUsageCallbackWithUser != null) {
-                    featureUsageCallbackWithUser.onFeatureUsage(key, defaultValueFeature, context.getUser());
-                }
-                return cacheResult(key, defaultValueFeature, context);
-            }
-
-            // If empty rule set, use the default value
-            if (feature.getRules() == null || feature.getRules().isEmpty()) {
-                ValueType value = (ValueType) GrowthBookJsonUtils.unwrap(feature.getDefaultValue());
-                FeatureResult<ValueType> defaultValueFeatureForRules = FeatureResult
-                        .<ValueType>builder()
-                        .source(FeatureResultSource.DEFAULT_VALUE)
-                        .value(value)
-                        .build();
+            // The key exists. When there is no value (the default result has a null value)
+            // or the rule set is empty, use the default value
+            if (feature.getSource() == null || feature.getRules().isEmpty()) {
+                FeatureResult<ValueType> defaultValueFeatureForRules = feature.getDefaultResult();
                 if (featureUsageCallbackWithUser != null) {
-                    featureUsageCallbackWithUser.onFeatureUsage(key, defaultValueFeatureForRules, context.getUser());
+                    featureUsageCallbackWithUser.onFeatureUsage(key, ConstantFeatureResult.unshared(defaultValueFeatureForRules), context.getUser());
                 }
                 return cacheResult(key, defaultValueFeatureForRules, context);
             }
 
-            // Loop through the feature rules (if any)
-            List<FeatureRule<ValueType>> featureRules = feature.getRules();
-            final Set<String> evaluatedFeatures = new HashSet<>(context.getStack().getEvaluatedFeatures());
-
+            // Loop through the compiled feature rules
             outer:
-            for (FeatureRule<ValueType> rule : featureRules) {
+            for (CompiledRule<ValueType> rule : feature.getRules()) {
                 // If there are prerequisite flag(s), evaluate them
                 if (rule.getParentConditions() != null) {
-                    for (ParentCondition parentCondition : rule.getParentConditions()) {
-                        context.getStack().setEvaluatedFeatures(new HashSet<>(evaluatedFeatures));
-                        //enterCircularLoop(key, context);
-                        FeatureResult<ValueType> parentResult = evaluateFeature(
+                    for (CompiledParentCondition parentCondition : rule.getParentConditions()) {
+                        FeatureResult<ValueType> parentResult = evaluateFeatureShared(
                                 parentCondition.getId(),
                                 context,
                                 valueTypeClass);
@@ -171,48 +170,34 @@ public class FeatureEvaluator implements IFeatureEvaluator {
                         // break out for cyclic prerequisites
                         if (FeatureResultSource.CYCLIC_PREREQUISITE.equals(parentResult.getSource())) {
                             FeatureResult<ValueType> featureResultWhenCircularDependencyDetected =
-                                    FeatureResult
-                                            .<ValueType>builder()
-                                            .value(null)
-                                            .source(FeatureResultSource.CYCLIC_PREREQUISITE)
-                                            .build();
+                                    ConstantFeatureResult.cyclicPrerequisite();
 
                             if (featureUsageCallbackWithUser != null) {
                                 featureUsageCallbackWithUser.onFeatureUsage(key,
-                                        featureResultWhenCircularDependencyDetected,
+                                        ConstantFeatureResult.unshared(featureResultWhenCircularDependencyDetected),
                                         context.getUser());
                             }
                             return cacheResult(key, featureResultWhenCircularDependencyDetected, context);
                         }
 
-                        Map<String, Object> evalObj = new HashMap<>();
-                        if (parentResult.getValue() != null) {
-                            evalObj.put("value", parentResult.getValue());
-                        }
-                        JsonObject parentAttributesJson = GrowthBookJsonUtils.getInstance().gson.toJsonTree(evalObj).getAsJsonObject();
-
-                        boolean evalCondition = conditionEvaluator.evaluateCondition(
-                                parentAttributesJson,
-                                parentCondition.getCondition(),
+                        boolean evalCondition = PrerequisiteEvaluator.matches(
+                                parentCondition,
+                                parentResult,
                                 context.getGlobal().getSavedGroups()
                         );
 
                         // blocking prerequisite eval failed: feature evaluation fails
                         if (!evalCondition) {
                             // blocking prerequisite eval failed: feature evaluation fails
-                            if (Boolean.TRUE.equals(parentCondition.getGate())) {
+                            if (parentCondition.isGate()) {
                                 log.info("Feature blocked by prerequisite");
 
                                 FeatureResult<ValueType> featureResultWhenBlockedByPrerequisite =
-                                        FeatureResult
-                                                .<ValueType>builder()
-                                                .value(null)
-                                                .source(FeatureResultSource.PREREQUISITE)
-                                                .build();
+                                        ConstantFeatureResult.prerequisite();
 
                                 if (featureUsageCallbackWithUser != null) {
                                     featureUsageCallbackWithUser.onFeatureUsage(key,
-                                            featureResultWhenBlockedByPrerequisite,
+                                            ConstantFeatureResult.unshared(featureResultWhenBlockedByPrerequisite),
                                             context.getUser());
                                 }
                                 return cacheResult(key, featureResultWhenBlockedByPrerequisite, context);
@@ -225,49 +210,35 @@ public class FeatureEvaluator implements IFeatureEvaluator {
                 }
 
                 // If there are filters for who is included (e.g. namespaces)
-                List<Filter> filters = rule.getFilters();
-                if (GrowthBookUtils.isFilteredOut(filters, context.getUser().getAttributes())) {
+                if (GrowthBookUtils.isFilteredOut(rule.getFilters(), context)) {
 
                     // Skip rule because of filters
                     continue;
                 }
 
                 // Feature value is being forced
-                if (rule.getForce() != null && rule.getForce().isPresent()) {
+                if (rule.isForce()) {
 
                     // If the rule has a condition, and it evaluates to false, skip this rule and continue to the next one
-                    if (rule.getCondition() != null) {
-                        if (!conditionEvaluator.evaluateCondition(context.getUser().getAttributes(),
-                                rule.getCondition(), context.getGlobal().getSavedGroups())) {
+                    if (rule.getCompiledCondition() != null) {
+                        if (!rule.getCompiledCondition().matches(context.getUser(), context.getGlobal().getSavedGroups())) {
 
                             // Skip rule because of condition
                             continue;
                         }
                     }
 
-                    boolean gate1 = context.getOptions().getStickyBucketService() != null;
-                    boolean gate2 = !Boolean.TRUE.equals(rule.getDisableStickyBucketing());
-                    boolean shouldFallbackAttributeBePassed = gate1 && gate2;
-
                     // Pass fallback attribute if sticky bucketing is enabled.
+                    boolean shouldFallbackAttributeBePassed = context.getOptions().getStickyBucketService() != null
+                            && !rule.isStickyBucketingDisabled();
                     String fallback = shouldFallbackAttributeBePassed ? rule.getFallbackAttribute() : null;
 
-                    String ruleKey = rule.getHashAttribute();
-                    if (ruleKey == null) {
-                        ruleKey = "id";
-                    }
-
-                    String seed = rule.getSeed();
-                    if (seed == null) {
-                        seed = key;
-                    }
-
                     // If this is a percentage rollout, skip if not included
                     if (
                             !GrowthBookUtils.isIncludedInRollout(
-                                    context.getUser().getAttributes(),
-                                    seed,
-                                    ruleKey,
+                                    context,
+                                    rule.getSeed(),
+                                    rule.getHashAttribute(),
                                     fallback,
                                     rule.getRange(),
                                     rule.getCoverage(),
@@ -283,93 +254,55 @@ public class FeatureEvaluator implements IFeatureEvaluator {
                     // assignment so repeated cached evaluations don't re-fire exposures.
                     experimentEvaluator.fireRemoteEvaluationTracks(rule.getTracks(), context);
 
-                    ValueType value = (ValueType) GrowthBookJsonUtils.unwrap(rule.getForce().getValue());
-
                     // Apply the force rule
-                    FeatureResult<ValueType> forcedRuleFeatureValue = FeatureResult
-                            .<ValueType>builder()
-                            .value(value) // TODO: Check this. - This is not right
-                            .source(FeatureResultSource.FORCE)
-                            .ruleId(rule.getId())
-                            .build();
+                    FeatureResult<ValueType> forcedRuleFeatureValue = rule.getForceResult();
 
                     if (featureUsageCallbackWithUser != null) {
-                        featureUsageCallbackWithUser.onFeatureUsage(key, forcedRuleFeatureValue, context.getUser());
+                        featureUsageCallbackWithUser.onFeatureUsage(key, ConstantFeatureResult.unshared(forcedRuleFeatureValue), context.getUser());
                     }
 
                     return cacheResult(key, forcedRuleFeatureValue, context);
-                } else {
+                }
 
-                    ArrayList<ValueType> variations = rule.getVariations();
-                    if (variations != null) {
+                // For experiment rules, run the experiment compiled with the rule
+                Experiment<ValueType> experiment = rule.getExperiment();
+                if (experiment == null) {
+                    continue;
+                }
 
-                        // Experiment rule
-                        String experimentKey = rule.getKey();
-                        if (experimentKey == null) {
-                            experimentKey = key;
-                        }
+                // Only return a value if the user is part of the experiment
+                ExperimentResult<ValueType> result = experimentEvaluator.evaluateExperiment(
+                        experiment,
+                        rule.getCompiledCondition(),
+                        rule.getBucketRanges(),
+                        context,
+                        key
+                );
+                if (result.getInExperiment() && (result.getPassThrough() == null || !result.getPassThrough())) {
+                    ValueType value = (ValueType) GrowthBookJsonUtils.unwrap(result.getValue());
 
-                        // For experiment rules, run an experiment
-                        Experiment<ValueType> experiment = Experiment
-                                .<ValueType>builder()
-                                .key(experimentKey)
-                                .variations(variations)
-                                .coverage(rule.getCoverage())
-                                .weights(rule.getWeights())
-                                .hashAttribute(rule.getHashAttribute())
-                                .fallbackAttribute(rule.getFallbackAttribute())
-                                .disableStickyBucketing(rule.getDisableStickyBucketing())
-                                .bucketVersion(rule.getBucketVersion())
-                                .minBucketVersion(rule.getMinBucketVersion())
-                                .namespace(rule.getNamespace())
-                                .meta(rule.getMeta())
-                                .ranges(rule.getRanges())
-                                .name(rule.getName())
-                                .phase(rule.getPhase())
-                                .seed(rule.getSeed())
-                                .hashVersion(rule.getHashVersion())
-                                .filters(rule.getFilters())
-                                .conditionJson(rule.getCondition())
-                                .customFields(rule.getCustomFields())
-                                .build();
-
-                        // Only return a value if the user is part of the experiment
-                        ExperimentResult<ValueType> result = experimentEvaluator.evaluateExperiment(experiment, context, key);
-                        if (result.getInExperiment() && (result.getPassThrough() == null || !result.getPassThrough())) {
-                            ValueType value = (ValueType) GrowthBookJsonUtils.unwrap(result.getValue());
-
-                            FeatureResult<ValueType> experimentFeatureResult = FeatureResult
-                                    .<ValueType>builder()
-                                    .value(value)
-                                    .ruleId(rule.getId())
-                                    .source(FeatureResultSource.EXPERIMENT)
-                                    .experiment(experiment)
-                                    .experimentResult(result)
-                                    .build();
+                    FeatureResult<ValueType> experimentFeatureResult = FeatureResult
+                            .<ValueType>builder()
+                            .value(value)
+                            .ruleId(rule.getId())
+                            .source(FeatureResultSource.EXPERIMENT)
+                            .experiment(experiment)
+                            .experimentResult(result)
+                            .build();
 
-                            if (featureUsageCallbackWithUser != null) {
-                                featureUsageCallbackWithUser.onFeatureUsage(key, experimentFeatureResult, context.getUser());
-                            }
-                            return cacheResult(key, experimentFeatureResult, context);
-                        }
-                    } else {
-                        continue;
+                    if (featureUsageCallbackWithUser != null) {
+                        featureUsageCallbackWithUser.onFeatureUsage(key, ConstantFeatureResult.unshared(experimentFeatureResult), context.getUser());
                     }
+                    return cacheResult(key, experimentFeatureResult, context);
                 }
             }
 
             // endregion Rules
 
-            ValueType value = (ValueType) GrowthBookJsonUtils.unwrap(feature.getDefaultValue());
-
-            FeatureResult<ValueType> defaultValueFeatureResult = FeatureResult
-                    .<ValueType>builder()
-                    .source(FeatureResultSource.DEFAULT_VALUE)
-                    .value(value)
-                    .build();
+            FeatureResult<ValueType> defaultValueFeatureResult = feature.getDefaultResult();
 
             if (featureUsageCallbackWithUser != null) {
-                featureUsageCallbackWithUser.onFeatureUsage(key, defaultValueFeatureResult, context.getUser());
+                featureUsageCallbackWithUser.onFeatureUsage(key, ConstantFeatureResult.unshared(defaultValueFeatureResult), context.getUser());
             }
 
             // Return (value = defaultValue or null, source = defaultValue)
@@ -379,41 +312,61 @@ public class FeatureEvaluator implements IFeatureEvaluator {
 
             // If the key doesn't exist in context.features, return immediately
             // (value = null, source = unknownFeature).
-            return cacheResult(key, unknownFeatureResult, context);
+            return cacheResult(key, ConstantFeatureResult.<ValueType>unknownFeature(), context);
+        } finally {
+            if (onEvaluationPath) {
+                context.getStack().getEvaluatedFeatures().remove(key);
+            }
         }
     }
 
-    private @Nullable <ValueType> ValueType evaluateForcedFeatureValueFromUrl(String key, @Nullable String urlString, Class<ValueType> valueTypeClass) {
-        if (urlString == null) return null;
-
-        try {
-            URL url = new URL(urlString);
-
-            if (valueTypeClass.equals(Boolean.class)) {
-                return (ValueType) GrowthBookUtils.getForcedBooleanValueFromUrl(key, url);
-            }
-
-            if (valueTypeClass.equals(String.class)) {
-                return (ValueType) GrowthBookUtils.getForcedStringValueFromUrl(key, url);
-            }
-
-            if (valueTypeClass.equals(Integer.class)) {
-                return (ValueType) GrowthBookUtils.getForcedIntegerValueFromUrl(key, url);
-            }
-
-            if (valueTypeClass.equals(Float.class)) {
-                return (ValueType) GrowthBookUtils.getForcedFloatValueFromUrl(key, url);
+    /**
+     * Evaluate every feature of the context for its user, e.g. to hydrate a client.
+     * Features are evaluated in dependency order on one evaluation stack, so each prerequisite
+     * is evaluated once and its memoized result is reused by the features that depend on it.
+     *
+     * @param context GrowthBook context
+     * @return feature results keyed by feature key, in evaluation order
+     */
+    public Map<String, FeatureResult<Object>> evaluateAllFeatures(EvaluationContext context) {
+        FeaturePlan featurePlan = getFeaturePlan(context);
+        Map<String, FeatureResult<Object>> results = new LinkedHashMap<>(featurePlan.getFeatures().size() * 4 / 3 + 1);
+
+        for (String key : featurePlan.getEvaluationOrder()) {
+            if (featurePlan.getFeatures().containsKey(key)) {
+                results.put(key, evaluateFeature(key, context, Object.class));
             }
-
-            if (valueTypeClass.equals(Double.class)) {
-                return (ValueType) GrowthBookUtils.getForcedDoubleValueFromUrl(key, url);
+        }
+        // features added to the map in place after the plan was compiled
+        if (results.size() < featurePlan.getFeatures().size()) {
+            for (String key : featurePlan.getFeatures().keySet()) {
+                if (!results.containsKey(key)) {
+                    results.put(key, evaluateFeature(key, context, Object.class));
+                }
             }
+        }
+        return results;
+    }
 
-            return GrowthBookUtils.getForcedSerializableValueFromUrl(key, url, valueTypeClass, jsonUtils.gson);
-        } catch (MalformedURLException | ClassCastException e) {
-            log.error(e.getMessage(), e);
-            return null;
+    /**
+     * Evaluate the given features for the context's user on one evaluation stack,
+     * so the prerequisites they share are evaluated once.
+     *
+     * @param keys    feature keys
+     * @param context GrowthBook context
+     * @return feature results keyed by feature key, in the order of the keys
+     */
+    public Map<String, FeatureResult<Object>> evaluateFeatures(Collection<String> keys, EvaluationContext context) {
+        Map<String, FeatureResult<Object>> results = new LinkedHashMap<>(keys.size() * 4 / 3 + 1);
+        for (String key : keys) {
+            results.put(key, evaluateFeature(key, context, Object.class));
         }
+        return results;
+    }
+
+    private FeaturePlan getFeaturePlan(EvaluationContext context) {
+        FeaturePlan featurePlan = context.getGlobal().getFeaturePlan();
+        return featurePlan != null ? featurePlan : FeaturePlan.compile(context.getGlobal().getFeatures());
     }
 
     private void leaveCircularLoop(EvaluationContext context) {
@@ -422,9 +375,18 @@ public class FeatureEvaluator implements IFeatureEvaluator {
         context.getStack().getMemoizedResults().clear();
     }
 
-    private void addFeatureToEvalStack(String featureKey, EvaluationContext context) {
+    /**
+     * Only features on a prerequisite cycle (see {@link FeaturePlan#mayBeOnPrerequisiteCycle(String)})
+     * can be evaluated again while they are being evaluated, so only they are tracked on the evaluation path.
+     *
+     * @return true when the feature was added to the evaluation path and must be removed when it's done
+     */
+    private boolean addFeatureToEvalStack(String featureKey, FeaturePlan featurePlan, EvaluationContext context) {
         context.getStack().setId(featureKey);
-        context.getStack().getEvaluatedFeatures().add(featureKey);
+        if (!featurePlan.mayBeOnPrerequisiteCycle(featureKey)) {
+            return false;
+        }
+        return context.getStack().getEvaluatedFeatures().add(featureKey);
     }
 
     private <ValueType> FeatureResult<ValueType> cacheResult(String key, FeatureResult<ValueType> result, EvaluationContext context) {
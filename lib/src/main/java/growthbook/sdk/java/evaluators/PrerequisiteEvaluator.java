@@ -0,0 +1,81 @@
+package growthbook.sdk.java.evaluators;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import growthbook.sdk.java.model.FeatureResult;
+import growthbook.sdk.java.model.ParentCondition;
+import growthbook.sdk.java.plan.CompiledParentCondition;
+import growthbook.sdk.java.util.GrowthBookJsonUtils;
+
+import javax.annotation.Nullable;
+
+/**
+ * <b>INTERNAL</b>: Matches prerequisite conditions against the evaluated value of the parent feature.
+ * The condition sees the parent as a {@code value} attribute, which is built from the value
+ * directly instead of serializing a map of it.
+ */
+final class PrerequisiteEvaluator {
+    private static final String VALUE_ATTRIBUTE = "value";
+
+    private PrerequisiteEvaluator() {
+    }
+
+    /**
+     * @param parentCondition the compiled prerequisite
+     * @param parentResult    the evaluated parent feature
+     * @param savedGroups     saved groups for {@code $inGroup} conditions
+     * @return true when the parent's value meets the prerequisite
+     */
+    static boolean matches(CompiledParentCondition parentCondition,
+                           FeatureResult<?> parentResult,
+                           @Nullable JsonObject savedGroups) {
+        return parentCondition.getCondition().matches(toAttributes(parentResult.getValue()), savedGroups);
+    }
+
+    /**
+     * @param conditionEvaluator evaluator for the prerequisite's condition
+     * @param parentCondition    the prerequisite
+     * @param parentResult       the evaluated parent feature
+     * @param savedGroups        saved groups for {@code $inGroup} conditions
+     * @return true when the parent's value meets the prerequisite
+     */
+    static boolean matches(ConditionEvaluator conditionEvaluator,
+                           ParentCondition parentCondition,
+                           FeatureResult<?> parentResult,
+                           @Nullable JsonObject savedGroups) {
+        return conditionEvaluator.evaluateCondition(
+                toAttributes(parentResult.getValue()),
+                parentCondition.getCondition(),
+                savedGroups
+        );
+    }
+
+    /**
+     * @param value the parent's value
+     * @return attributes with the value as {@code value}, or no attributes when the value is null
+     */
+    static JsonObject toAttributes(@Nullable Object value) {
+        JsonObject attributes = new JsonObject();
+        if (value != null) {
+            attributes.add(VALUE_ATTRIBUTE, toJsonElement(value));
+        }
+        return attributes;
+    }
+
+    private static JsonElement toJsonElement(Object value) {
+        if (value instanceof JsonElement) {
+            return (JsonElement) value;
+        }
+        if (value instanceof String) {
+            return new JsonPrimitive((String) value);
+        }
+        if (value instanceof Boolean) {
+            return new JsonPrimitive((Boolean) value);
+        }
+        if (value instanceof Number) {
+            return new JsonPrimitive((Number) value);
+        }
+        return GrowthBookJsonUtils.getInstance().gson.toJsonTree(value);
+    }
+}
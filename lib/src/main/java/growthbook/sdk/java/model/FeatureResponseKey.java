@@ -2,6 +2,10 @@ package growthbook.sdk.java.model;
 
 import lombok.Getter;
 
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
 @Getter
 public enum FeatureResponseKey {
     ENCRYPTED_FEATURES_KEY("encryptedFeatures"),
@@ -14,4 +18,21 @@ public enum FeatureResponseKey {
     FeatureResponseKey(String key) {
         this.key = key;
     }
+
+    /**
+     * @return the keys of all the members read from a features response
+     */
+    public static Set<String> allKeys() {
+        return ALL_KEYS;
+    }
+
+    private static final Set<String> ALL_KEYS;
+
+    static {
+        Set<String> keys = new HashSet<>();
+        for (FeatureResponseKey responseKey : values()) {
+            keys.add(responseKey.key);
+        }
+        ALL_KEYS = Collections.unmodifiableSet(keys);
+    }
 }
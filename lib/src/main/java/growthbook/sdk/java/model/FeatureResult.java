@@ -28,6 +28,7 @@ import java.util.Collection;
  * <li>experiment (Experiment or null) - When source is "experiment", this will be an Experiment object</li>
  * <li>experimentResult (ExperimentResult or null) - When source is "experiment", this will be an ExperimentResult object</li>
  * </ul>
+ * Every result returned to the caller is its own instance, which the caller may change.
  *
  * @param <ValueType> value type for the feature
  */
@@ -52,6 +52,7 @@ public class GBContext {
      * @param cacheKeyAttributes               Attribute names used to build the remote eval cache key.
      * @param remoteEvalCacheSize              Maximum number of remote eval responses kept in memory.
      * @param remoteEvalCacheTtlSeconds        Hard expiry (seconds) for cached remote eval responses; null disables time-based expiry.
+     * @param copyFeatureValues                Whether {@code getFeatureValue} returns a new instance of complex values on every call (default: true)
      */
     @Builder
     public GBContext(
@@ -76,7 +77,8 @@ public class GBContext {
             @Nullable Boolean remoteEval,
             @Nullable List<String> cacheKeyAttributes,
             @Nullable Integer remoteEvalCacheSize,
-            @Nullable Integer remoteEvalCacheTtlSeconds
+            @Nullable Integer remoteEvalCacheTtlSeconds,
+            @Nullable Boolean copyFeatureValues
     ) {
         this.encryptionKey = encryptionKey;
         this.attributesJson = attributesJson == null ? "{}" : attributesJson;
@@ -106,6 +108,58 @@ public class GBContext {
         this.cacheKeyAttributes = cacheKeyAttributes;
         this.remoteEvalCacheSize = RemoteEvalRequestBuilder.normalizeCacheSize(remoteEvalCacheSize);
         this.remoteEvalCacheTtlSeconds = remoteEvalCacheTtlSeconds;
+        this.copyFeatureValues = copyFeatureValues == null || copyFeatureValues;
+    }
+
+    public GBContext(
+            @Nullable String attributesJson,
+            @Nullable JsonObject attributes,
+            @Nullable String featuresJson,
+            @Nullable Map<String, Feature<?>> features,
+            @Nullable String encryptionKey,
+            @Nullable Boolean enabled,
+            Boolean isQaMode,
+            @Nullable String url,
+            Boolean allowUrlOverrides,
+            @Nullable Map<String, ?> forcedVariationsMap,
+            @Nullable TrackingCallback trackingCallback,
+            @Nullable FeatureUsageCallback featureUsageCallback,
+            @Nullable StickyBucketService stickyBucketService,
+            @Nullable Map<String, StickyAssignmentsDocument> stickyBucketAssignmentDocs,
+            @Nullable List<String> stickyBucketIdentifierAttributes,
+            @Nullable JsonObject savedGroups,
+            @Nullable String apiHost,
+            @Nullable String clientKey,
+            @Nullable Boolean remoteEval,
+            @Nullable List<String> cacheKeyAttributes,
+            @Nullable Integer remoteEvalCacheSize,
+            @Nullable Integer remoteEvalCacheTtlSeconds
+    ) {
+        this(
+                attributesJson,
+                attributes,
+                featuresJson,
+                features,
+                encryptionKey,
+                enabled,
+                isQaMode,
+                url,
+                allowUrlOverrides,
+                forcedVariationsMap,
+                trackingCallback,
+                featureUsageCallback,
+                stickyBucketService,
+                stickyBucketAssignmentDocs,
+                stickyBucketIdentifierAttributes,
+                savedGroups,
+                apiHost,
+                clientKey,
+                remoteEval,
+                cacheKeyAttributes,
+                remoteEvalCacheSize,
+                remoteEvalCacheTtlSeconds,
+                null
+        );
     }
 
     public GBContext(
@@ -148,6 +202,7 @@ public class GBContext {
                 null,
                 null,
                 null,
+                null,
                 null
         );
     }
@@ -315,6 +370,12 @@ public class GBContext {
     @Nullable
     private Integer remoteEvalCacheTtlSeconds;
 
+    /**
+     * Whether {@code getFeatureValue} returns a new instance of complex values on every call (default: true).
+     * When false, the instance deserialized for the current features is shared between calls and must not be changed.
+     */
+    private Boolean copyFeatureValues;
+
     public boolean isRemoteEvalEnabled() {
         return Boolean.TRUE.equals(this.remoteEval);
     }
@@ -1,6 +1,8 @@
 package growthbook.sdk.java.model;
 
 import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Operator for use in the condition JSON
@@ -125,6 +127,14 @@ public enum Operator {
     NOT_IN_GROUP("$notInGroup")
     ;
 
+    private static final Map<String, Operator> BY_RAW_VALUE = new HashMap<>();
+
+    static {
+        for (Operator o : values()) {
+            BY_RAW_VALUE.put(o.rawValue, o);
+        }
+    }
+
     private final String rawValue;
 
     Operator(String rawValue) {
@@ -142,12 +152,6 @@ public enum Operator {
      * @return nullable Operator
      */
     public static @Nullable Operator fromString(String stringValue) {
-        for (Operator o : values()) {
-            if (o.rawValue.equals(stringValue)) {
-                return o;
-            }
-        }
-
-        return null;
+        return BY_RAW_VALUE.get(stringValue);
     }
 }
@@ -0,0 +1,269 @@
+package growthbook.sdk.java.model;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import growthbook.sdk.java.util.GrowthBookJsonUtils;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * User attributes in a flat, read-only store, as an alternative to passing a {@link JsonObject}
+ * to {@link growthbook.sdk.java.multiusermode.configurations.UserContext.UserContextBuilder#userAttributes(UserAttributes)}.
+ * <ul>
+ *     <li>Attributes can be built from a {@code Map<String, Object>} without building a JSON tree first</li>
+ *     <li>Nested attributes are flattened to their dotted paths (e.g. {@code company.plan}) once,
+ *     so targeting conditions look them up instead of walking the tree</li>
+ *     <li>The string value of each primitive attribute is rendered once for hashing</li>
+ *     <li>Attribute names are interned, as the same names repeat across users</li>
+ * </ul>
+ * A store can also be layered over another with {@link #overlay(UserAttributes)}, e.g. user attributes
+ * over global ones, without copying either.
+ * Instances are immutable and can be shared between threads. Attribute values are not copied,
+ * they must not be changed once the store is built.
+ */
+public final class UserAttributes {
+    private static final UserAttributes EMPTY = new UserAttributes(Collections.emptyMap(), null);
+
+    private final Map<String, JsonElement> attributes;
+    private final Map<String, JsonElement> paths;
+    private final Map<String, String> strings;
+
+    /**
+     * The layer below this one, for the attributes this store doesn't have
+     */
+    @Nullable
+    private final UserAttributes base;
+
+    @Nullable
+    private volatile JsonObject json;
+
+    @Nullable
+    private volatile Set<String> names;
+
+    private UserAttributes(Map<String, JsonElement> attributes, @Nullable JsonObject json) {
+        this.attributes = attributes;
+        this.base = null;
+        this.json = json;
+
+        Map<String, JsonElement> flattened = new HashMap<>();
+        Map<String, String> rendered = new HashMap<>();
+        for (Map.Entry<String, JsonElement> entry : attributes.entrySet()) {
+            JsonElement value = entry.getValue();
+            if (value.isJsonPrimitive()) {
+                rendered.put(entry.getKey(), value.getAsString());
+            }
+            // a name containing a dot can't be reached by a dotted path
+            if (entry.getKey().indexOf('.') < 0) {
+                flatten(entry.getKey(), value, flattened);
+            }
+        }
+        this.paths = flattened;
+        this.strings = rendered;
+    }
+
+    private UserAttributes(UserAttributes top, UserAttributes base) {
+        this.attributes = top.attributes;
+        this.paths = top.paths;
+        this.strings = top.strings;
+        this.base = base;
+    }
+
+    /**
+     * @return a store with no attributes
+     */
+    public static UserAttributes empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Build the store from a map of attribute values. Values can be strings, numbers, booleans,
+     * {@link JsonElement}s or anything else Gson can serialize (e.g. nested maps and lists).
+     *
+     * @param attributes attribute values keyed by attribute name
+     * @return the store
+     */
+    public static UserAttributes of(@Nullable Map<String, ?> attributes) {
+        if (attributes == null || attributes.isEmpty()) {
+            return EMPTY;
+        }
+
+        Map<String, JsonElement> values = new HashMap<>(attributes.size() * 2);
+        for (Map.Entry<String, ?> entry : attributes.entrySet()) {
+            if (entry.getKey() != null) {
+                values.put(entry.getKey().intern(), toJsonElement(entry.getValue()));
+            }
+        }
+        return new UserAttributes(values, null);
+    }
+
+    /**
+     * Build the store from a JSON object of attributes
+     *
+     * @param attributes attribute values keyed by attribute name
+     * @return the store
+     */
+    public static UserAttributes of(@Nullable JsonObject attributes) {
+        if (attributes == null || attributes.size() == 0) {
+            return EMPTY;
+        }
+
+        Map<String, JsonElement> values = new HashMap<>(attributes.size() * 2);
+        for (Map.Entry<String, JsonElement> entry : attributes.entrySet()) {
+            values.put(entry.getKey().intern(), entry.getValue() != null ? entry.getValue() : JsonNull.INSTANCE);
+        }
+        return new UserAttributes(values, attributes);
+    }
+
+    /**
+     * Layer another store over this one. An attribute of {@code top} hides the attribute of the same name
+     * in this store, as if its value was set on a copy of this store. Neither store is copied,
+     * so layering is cheap whatever the size of this store.
+     *
+     * @param top the attributes that take precedence, e.g. the user's attributes over the global ones
+     * @return the layered store
+     */
+    public UserAttributes overlay(@Nullable UserAttributes top) {
+        if (top == null || top.isEmpty()) {
+            return this;
+        }
+        if (this.isEmpty()) {
+            return top;
+        }
+        return new UserAttributes(top, top.base != null ? overlay(top.base) : this);
+    }
+
+    /**
+     * @param name attribute name
+     * @return the value of the attribute, or null when the user has no such attribute
+     */
+    @Nullable
+    public JsonElement get(String name) {
+        JsonElement value = attributes.get(name);
+        if (value == null && base != null) {
+            return base.get(name);
+        }
+        return value;
+    }
+
+    /**
+     * Look up an attribute the way targeting conditions do: {@code company.plan} is the {@code plan}
+     * of the {@code company} object attribute.
+     *
+     * @param path dotted attribute path
+     * @return the value at the path, or null when there is none
+     */
+    @Nullable
+    public JsonElement getPath(String path) {
+        JsonElement value = paths.get(path);
+        if (value == null && base != null) {
+            int dot = path.indexOf('.');
+            // a path under an attribute of this layer is hidden in the base
+            if (!attributes.containsKey(dot < 0 ? path : path.substring(0, dot))) {
+                return base.getPath(path);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * The value of an attribute as used for hashing
+     *
+     * @param name attribute name
+     * @return the string value, or null when the attribute is missing or null
+     * @throws UnsupportedOperationException when the attribute value can't be read as a string
+     */
+    @Nullable
+    public String getString(String name) {
+        if (base != null && !attributes.containsKey(name)) {
+            return base.getString(name);
+        }
+        String rendered = strings.get(name);
+        if (rendered != null) {
+            return rendered;
+        }
+        JsonElement value = attributes.get(name);
+        if (value == null || value.isJsonNull()) {
+            return null;
+        }
+        return value.getAsString();
+    }
+
+    /**
+     * @return the attribute names
+     */
+    public Set<String> names() {
+        if (base == null) {
+            return Collections.unmodifiableSet(attributes.keySet());
+        }
+        Set<String> result = this.names;
+        if (result == null) {
+            result = new HashSet<>(base.names());
+            result.addAll(attributes.keySet());
+            result = Collections.unmodifiableSet(result);
+            this.names = result;
+        }
+        return result;
+    }
+
+    /**
+     * @return true when there are no attributes
+     */
+    public boolean isEmpty() {
+        return attributes.isEmpty() && (base == null || base.isEmpty());
+    }
+
+    /**
+     * The attributes as a JSON object, for the APIs that take one. The object is built
+     * on first use and must not be changed.
+     *
+     * @return the attributes
+     */
+    public JsonObject toJsonObject() {
+        if (this == EMPTY) {
+            return new JsonObject();
+        }
+        JsonObject result = this.json;
+        if (result == null) {
+            result = new JsonObject();
+            if (base != null) {
+                for (Map.Entry<String, JsonElement> entry : base.toJsonObject().entrySet()) {
+                    result.add(entry.getKey(), entry.getValue());
+                }
+            }
+            for (Map.Entry<String, JsonElement> entry : attributes.entrySet()) {
+                result.add(entry.getKey(), entry.getValue());
+            }
+            this.json = result;
+        }
+        return result;
+    }
+
+    private static void flatten(String path, JsonElement value, Map<String, JsonElement> paths) {
+        paths.put(path, value);
+
+        if (value.isJsonObject()) {
+            for (Map.Entry<String, JsonElement> child : value.getAsJsonObject().entrySet()) {
+                if (child.getKey().indexOf('.') < 0 && child.getValue() != null) {
+                    flatten((path + "." + child.getKey()).intern(), child.getValue(), paths);
+                }
+            }
+        }
+    }
+
+    private static JsonElement toJsonElement(@Nullable Object value) {
+        if (value == null) {
+            return JsonNull.INSTANCE;
+        }
+        if (value instanceof JsonElement) {
+            return (JsonElement) value;
+        }
+        JsonElement element = GrowthBookJsonUtils.getJsonElementForObject(value);
+        return element != null ? element : JsonNull.INSTANCE;
+    }
+}
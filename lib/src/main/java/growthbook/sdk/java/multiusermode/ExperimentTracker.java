@@ -2,12 +2,14 @@ package growthbook.sdk.java.multiusermode;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import growthbook.sdk.java.multiusermode.usage.ExposureDeduplicator;
 
 /**
  * A thread-safe LRU Cache implementation to keep track of the most recent experiments.
  * Uses Guava cache with a maximum size of 30 entries.
+ * This is the default {@link ExposureDeduplicator}; a multi-user server should set a larger one in the {@code Options}.
  */
-public class ExperimentTracker {
+public class ExperimentTracker implements ExposureDeduplicator {
     private static final int MAX_EXPERIMENTS = 30;
 
     private final Cache<String, Boolean> trackedExperiments;
@@ -29,4 +31,19 @@ public class ExperimentTracker {
     public void clearTrackedExperiments() {
         trackedExperiments.invalidateAll();
     }
+
+    @Override
+    public boolean markTracked(String key) {
+        return trackedExperiments.asMap().putIfAbsent(key, Boolean.TRUE) == null;
+    }
+
+    @Override
+    public boolean isTracked(String key) {
+        return isExperimentTracked(key);
+    }
+
+    @Override
+    public void clear() {
+        clearTrackedExperiments();
+    }
 }
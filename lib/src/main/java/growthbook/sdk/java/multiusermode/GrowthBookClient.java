@@ -17,6 +17,9 @@ import growthbook.sdk.java.multiusermode.configurations.EvaluationContext;
 import growthbook.sdk.java.multiusermode.configurations.GlobalContext;
 import growthbook.sdk.java.multiusermode.configurations.Options;
 import growthbook.sdk.java.multiusermode.configurations.UserContext;
+import growthbook.sdk.java.multiusermode.usage.AsyncFeatureUsageDispatcher;
+import growthbook.sdk.java.multiusermode.usage.AsyncTrackingDispatcher;
+import growthbook.sdk.java.plan.FeaturePlan;
 import growthbook.sdk.java.remoteeval.RemoteEvalCache;
 import growthbook.sdk.java.remoteeval.RemoteEvalCacheKey;
 import growthbook.sdk.java.remoteeval.RemoteEvalOptionsValidator;
@@ -30,19 +33,27 @@ import growthbook.sdk.java.sandbox.CacheManagerFactory;
 import growthbook.sdk.java.sandbox.CacheMode;
 import growthbook.sdk.java.sandbox.GbCacheManager;
 import growthbook.sdk.java.model.StickyAssignmentsDocument;
-import growthbook.sdk.java.util.GrowthBookJsonUtils;
+import growthbook.sdk.java.model.UserAttributes;
+import growthbook.sdk.java.util.FeatureValueConverter;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.annotation.Nullable;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Slf4j
 public class GrowthBookClient {
@@ -214,7 +225,7 @@ public class GrowthBookClient {
         if (this.options.isRemoteEvalEnabled()) {
             try {
                 RemoteEvalResponse response = getRemoteEvalService().fetch(requestBodyForRemoteEval);
-                this.globalContext.set(buildGlobalContext(response.getFeatures(), response.getSavedGroups()));
+                this.globalContext.set(buildGlobalContext(response.getFeatures(), response.getFeaturePlan(), response.getSavedGroups()));
                 clearRemoteEvalCache();
             } catch (FeatureFetchException e) {
                 log.error("Refreshing for remote eval wasn't successful. Message is: {}", e.getMessage(), e);
@@ -255,34 +266,158 @@ public class GrowthBookClient {
         return featureEvaluator.evaluateFeature(key, getEvalContext(userContext), valueTypeClass);
     }
 
+    public Map<String, FeatureResult<Object>> evalAllFeatures(UserContext userContext) {
+        return featureEvaluator.evaluateAllFeatures(getEvalContext(userContext));
+    }
+
+    /**
+     * Evaluate features for many users in parallel, e.g. in offline jobs. Users are evaluated on the
+     * common fork-join pool against the features loaded when the batch starts, and each user's results
+     * are passed to the consumer as soon as they are ready instead of being collected.
+     *
+     * @param users       the users
+     * @param featureKeys the features to evaluate, or null for all features
+     * @param consumer    receives each user with its results keyed by feature key; called concurrently
+     */
+    public void evalFeaturesForUsers(Stream<UserContext> users,
+                                     @Nullable Collection<String> featureKeys,
+                                     BiConsumer<UserContext, Map<String, FeatureResult<Object>>> consumer) {
+        evalFeaturesForUsers(users, featureKeys, consumer, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Evaluate features for many users in parallel on the given fork-join pool,
+     * see {@link #evalFeaturesForUsers(Stream, Collection, BiConsumer)}. The users are split into tasks
+     * forked on the pool, so the consumer is called from the pool's threads.
+     * With remote evaluation each user is evaluated against its own remote evaluation response.
+     *
+     * @param users       the users
+     * @param featureKeys the features to evaluate, or null for all features
+     * @param consumer    receives each user with its results keyed by feature key; called concurrently
+     * @param pool        the pool to evaluate on; the call blocks until all users are done
+     */
+    public void evalFeaturesForUsers(Stream<UserContext> users,
+                                     @Nullable Collection<String> featureKeys,
+                                     BiConsumer<UserContext, Map<String, FeatureResult<Object>>> consumer,
+                                     ForkJoinPool pool) {
+        // one snapshot for the whole batch, even if features are refreshed meanwhile
+        GlobalContext snapshot = this.options.isRemoteEvalEnabled() ? null : getLocalGlobalContext();
+
+        Consumer<UserContext> evaluate = userContext -> {
+            EvaluationContext context = snapshot != null
+                    ? new EvaluationContext(snapshot, toUserContextWithMergedAttributes(userContext),
+                    new EvaluationContext.StackContext(), this.options)
+                    : getEvalContext(userContext);
+
+            consumer.accept(userContext, featureKeys != null
+                    ? featureEvaluator.evaluateFeatures(featureKeys, context)
+                    : featureEvaluator.evaluateAllFeatures(context));
+        };
+
+        pool.invoke(new UserBatch(users.spliterator(), evaluate));
+    }
+
+    /**
+     * Evaluates the users of a spliterator as tasks of the pool that runs it, splitting off forked subtasks
+     * while the spliterator can be split
+     */
+    private static final class UserBatch extends RecursiveAction {
+        private final Spliterator<UserContext> users;
+        private final Consumer<UserContext> evaluate;
+
+        private UserBatch(Spliterator<UserContext> users, Consumer<UserContext> evaluate) {
+            this.users = users;
+            this.evaluate = evaluate;
+        }
+
+        @Override
+        protected void compute() {
+            List<UserBatch> forked = new ArrayList<>();
+            Spliterator<UserContext> split;
+            while (users.estimateSize() > 1 && (split = users.trySplit()) != null) {
+                UserBatch batch = new UserBatch(split, evaluate);
+                batch.fork();
+                forked.add(batch);
+            }
+            users.forEachRemaining(evaluate);
+            for (UserBatch batch : forked) {
+                batch.join();
+            }
+        }
+    }
+
     public Boolean isOn(String featureKey, UserContext userContext) {
-        return this.featureEvaluator.evaluateFeature(featureKey, getEvalContext(userContext), Object.class).isOn();
+        return this.featureEvaluator.evaluateFeatureShared(featureKey, getEvalContext(userContext), Object.class).isOn();
     }
 
     public Boolean isOff(String featureKey, UserContext userContext) {
-        return this.featureEvaluator.evaluateFeature(featureKey, getEvalContext(userContext), Object.class).isOff();
+        return this.featureEvaluator.evaluateFeatureShared(featureKey, getEvalContext(userContext), Object.class).isOff();
     }
 
+    /**
+     * Get the feature value for a user as a Gson-deserializable.
+     * Complex values are deserialized once per class for the current features, and the same instance is returned
+     * to every call and every user, so it must not be changed. Set {@code copyFeatureValues} in {@link Options}
+     * to get a new instance on every call.
+     *
+     * @param featureKey              feature identifier
+     * @param defaultValue            value returned when the feature has no value or it can't be deserialized
+     * @param gsonDeserializableClass the class of the value, e.g. MyFeature.class
+     * @param userContext             the user to evaluate the feature for
+     * @param <ValueType>             Gson deserializable type
+     * @return the feature value, or defaultValue
+     */
     public <ValueType> ValueType getFeatureValue(String featureKey, ValueType defaultValue,
                                                  Class<ValueType> gsonDeserializableClass,
                                                  UserContext userContext) {
         try {
+            EvaluationContext context = getEvalContext(userContext);
             Object maybeValue = this.featureEvaluator
-                    .evaluateFeature(featureKey, getEvalContext(userContext), gsonDeserializableClass).getValue();
+                    .evaluateFeatureShared(featureKey, context, gsonDeserializableClass).getValue();
 
             if (maybeValue == null) {
                 return defaultValue;
             }
 
-            String stringValue = GrowthBookJsonUtils.getInstance().gson.toJson(maybeValue);
+            // Primitive values are converted directly, only complex values go through Gson
+            if (FeatureValueConverter.isSupported(gsonDeserializableClass)) {
+                ValueType converted = FeatureValueConverter.convert(maybeValue, gsonDeserializableClass);
+                return converted != null ? converted : defaultValue;
+            }
 
-            return GrowthBookJsonUtils.getInstance().gson.fromJson(stringValue, gsonDeserializableClass);
+            return context.getGlobal().getFeaturePlan().decodeValue(featureKey, maybeValue, gsonDeserializableClass,
+                    this.options.getCopyFeatureValues());
         } catch (Exception e) {
             log.error(e.getMessage(), e);
             return defaultValue;
         }
     }
 
+    public boolean getBooleanValue(String featureKey, boolean defaultValue, UserContext userContext) {
+        Boolean value = FeatureValueConverter.toBoolean(getRawFeatureValue(featureKey, userContext));
+        return value != null ? value : defaultValue;
+    }
+
+    public int getIntValue(String featureKey, int defaultValue, UserContext userContext) {
+        Integer value = FeatureValueConverter.toInteger(getRawFeatureValue(featureKey, userContext));
+        return value != null ? value : defaultValue;
+    }
+
+    public long getLongValue(String featureKey, long defaultValue, UserContext userContext) {
+        Long value = FeatureValueConverter.toLong(getRawFeatureValue(featureKey, userContext));
+        return value != null ? value : defaultValue;
+    }
+
+    public double getDoubleValue(String featureKey, double defaultValue, UserContext userContext) {
+        Double value = FeatureValueConverter.toDouble(getRawFeatureValue(featureKey, userContext));
+        return value != null ? value : defaultValue;
+    }
+
+    public String getStringValue(String featureKey, String defaultValue, UserContext userContext) {
+        String value = FeatureValueConverter.toStringValue(getRawFeatureValue(featureKey, userContext));
+        return value != null ? value : defaultValue;
+    }
+
     public <ValueType> ExperimentResult<ValueType> run(Experiment<ValueType> experiment, UserContext userContext) {
         ExperimentResult<ValueType> result = experimentEvaluatorEvaluator
                 .evaluateExperiment(experiment, getEvalContext(userContext), null);
@@ -309,6 +444,13 @@ public class GrowthBookClient {
         if (this.remoteEvalService != null) {
             this.remoteEvalService.close();
         }
+        // deliver the feature usages and exposures that are still buffered
+        if (this.options.getFeatureUsageCallbackWithUser() instanceof AsyncFeatureUsageDispatcher) {
+            ((AsyncFeatureUsageDispatcher) this.options.getFeatureUsageCallbackWithUser()).close();
+        }
+        if (this.options.getTrackingCallBackWithUser() instanceof AsyncTrackingDispatcher) {
+            ((AsyncTrackingDispatcher) this.options.getTrackingCallBackWithUser()).close();
+        }
     }
 
     private boolean ensureRemoteEvalReady() {
@@ -323,7 +465,7 @@ public class GrowthBookClient {
             getRemoteEvalService();
             getRemoteEvalCache();
             initializeRemoteEvalSseInvalidationIfNeeded();
-            this.globalContext.compareAndSet(null, buildGlobalContext(Collections.emptyMap(), new JsonObject()));
+            this.globalContext.compareAndSet(null, buildGlobalContext(Collections.emptyMap(), null, new JsonObject()));
             this.remoteEvalReady.set(true);
             return true;
         }
@@ -419,6 +561,7 @@ public class GrowthBookClient {
     private GlobalContext buildGlobalContext(GBFeaturesRepository sourceRepository) {
         return GlobalContext.builder()
                 .features(sourceRepository.getParsedFeatures())
+                .featurePlan(sourceRepository.getFeaturePlan())
                 .savedGroups(sourceRepository.getParsedSavedGroups())
                 .enabled(this.options.getEnabled())
                 .qaMode(this.options.getIsQaMode())
@@ -427,6 +570,16 @@ public class GrowthBookClient {
                 .build();
     }
 
+    @Nullable
+    private Object getRawFeatureValue(String featureKey, UserContext userContext) {
+        try {
+            return this.featureEvaluator.evaluateFeatureShared(featureKey, getEvalContext(userContext), Object.class).getValue();
+        } catch (Exception e) {
+            log.error(e.getMessage(), e);
+            return null;
+        }
+    }
+
     private EvaluationContext getEvalContext(UserContext userContext) {
         UserContext updatedUserContext = toUserContextWithMergedAttributes(userContext);
         if (this.options.isRemoteEvalEnabled()) {
@@ -438,7 +591,7 @@ public class GrowthBookClient {
     private EvaluationContext getRemoteEvalContext(UserContext userContext) {
         try {
             RemoteEvalResponse response = getRemoteEvalResponse(userContext);
-            GlobalContext remoteGlobalContext = buildGlobalContext(response.getFeatures(), response.getSavedGroups());
+            GlobalContext remoteGlobalContext = buildGlobalContext(response.getFeatures(), response.getFeaturePlan(), response.getSavedGroups());
             return new EvaluationContext(remoteGlobalContext, userContext, new EvaluationContext.StackContext(), this.options);
         } catch (FeatureFetchException e) {
             log.warn("Remote evaluation request failed. Falling back to local feature context.", e);
@@ -448,27 +601,50 @@ public class GrowthBookClient {
 
     private UserContext toUserContextWithMergedAttributes(UserContext userContext) {
         UserContext currentUserContext = userContext == null ? UserContext.builder().build() : userContext;
-        JsonObject merged = new JsonObject();
-        if (this.options.getGlobalAttributes() != null) {
-            merged = GrowthBookJsonUtils.getInstance().gson.fromJson(this.options.getGlobalAttributes(), JsonObject.class);
-            if (merged == null) merged = new JsonObject();
-        }
-        JsonObject userAttrs = currentUserContext.getAttributes();
-        if (userAttrs != null) {
-            for (Map.Entry<String, JsonElement> e : userAttrs.entrySet()) {
-                merged.add(e.getKey(), e.getValue());
+        UserAttributes globalAttributes = this.options.getGlobalAttributeLayer();
+        UserAttributes userAttributes = currentUserContext.getUserAttributes();
+        if (globalAttributes == null) {
+            if (userAttributes != null) {
+                // nothing to merge, keep the flat attribute store
+                return withStickyBucketAssignmentDocs(currentUserContext.withUserAttributes(userAttributes));
+            }
+
+            JsonObject merged = new JsonObject();
+            JsonObject userAttrs = currentUserContext.getAttributes();
+            if (userAttrs != null) {
+                for (Map.Entry<String, JsonElement> e : userAttrs.entrySet()) {
+                    merged.add(e.getKey(), e.getValue());
+                }
             }
+            return withStickyBucketAssignmentDocs(currentUserContext.withAttributes(merged));
+        }
+
+        // the user's attributes are layered over the global ones, which are neither copied nor re-parsed
+        if (userAttributes == null) {
+            userAttributes = UserAttributes.of(currentUserContext.getAttributes());
         }
-        UserContext updatedUserContext = currentUserContext.withAttributes(merged);
+        return withStickyBucketAssignmentDocs(currentUserContext.withUserAttributes(globalAttributes.overlay(userAttributes)));
+    }
 
+    private UserContext withStickyBucketAssignmentDocs(UserContext updatedUserContext) {
         // If a sticky bucket service is configured and the caller hasn't preloaded docs,
         // fetch docs for this user's attributes now (one call per request).
         if (this.options.getStickyBucketService() != null
                 && updatedUserContext.getStickyBucketAssignmentDocs() == null) {
             Map<String, String> attrStrings = new HashMap<>();
-            for (Map.Entry<String, JsonElement> e : merged.entrySet()) {
-                if (e.getValue() != null && e.getValue().isJsonPrimitive()) {
-                    attrStrings.put(e.getKey(), e.getValue().getAsString());
+            UserAttributes userAttributes = updatedUserContext.getUserAttributes();
+            if (userAttributes != null) {
+                for (String name : userAttributes.names()) {
+                    JsonElement value = userAttributes.get(name);
+                    if (value != null && value.isJsonPrimitive()) {
+                        attrStrings.put(name, userAttributes.getString(name));
+                    }
+                }
+            } else {
+                for (Map.Entry<String, JsonElement> e : updatedUserContext.getAttributes().entrySet()) {
+                    if (e.getValue() != null && e.getValue().isJsonPrimitive()) {
+                        attrStrings.put(e.getKey(), e.getValue().getAsString());
+                    }
                 }
             }
             Map<String, StickyAssignmentsDocument> docs =
@@ -536,13 +712,16 @@ public class GrowthBookClient {
     }
 
     private GlobalContext getLocalGlobalContext() {
-        this.globalContext.compareAndSet(null, buildGlobalContext(Collections.emptyMap(), new JsonObject()));
+        this.globalContext.compareAndSet(null, buildGlobalContext(Collections.emptyMap(), null, new JsonObject()));
         return this.globalContext.get();
     }
 
-    private GlobalContext buildGlobalContext(Map<String, growthbook.sdk.java.model.Feature<?>> features, JsonObject savedGroups) {
+    private GlobalContext buildGlobalContext(Map<String, growthbook.sdk.java.model.Feature<?>> features,
+                                             @Nullable FeaturePlan featurePlan,
+                                             JsonObject savedGroups) {
         return GlobalContext.builder()
                 .features(features == null ? Collections.emptyMap() : features)
+                .featurePlan(featurePlan)
                 .savedGroups(savedGroups == null ? new JsonObject() : savedGroups)
                 .enabled(this.options.getEnabled())
                 .qaMode(this.options.getIsQaMode())
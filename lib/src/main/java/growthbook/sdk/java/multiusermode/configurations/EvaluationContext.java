@@ -1,8 +1,14 @@
 package growthbook.sdk.java.multiusermode.configurations;
 
 import growthbook.sdk.java.model.FeatureResult;
-import lombok.AllArgsConstructor;
+import growthbook.sdk.java.util.GrowthBookUtils;
+import growthbook.sdk.java.util.UrlOverrides;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.annotation.Nullable;
@@ -13,14 +19,89 @@ import java.util.Set;
 
 @Data
 @Slf4j
-@AllArgsConstructor
 public class EvaluationContext {
+    private static final int MAX_MEMOIZED_HASHES = 1024;
 
     private GlobalContext global;
     private UserContext user;
     private StackContext stack;
     private Options options;
 
+    /**
+     * Hashes computed for this context, see {@link #hash(String, Integer, String)}
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final Map<HashKey, Float> hashes = new HashMap<>();
+
+    /**
+     * Overrides in the URL of the options, see {@link #getUrlOverrides()}
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @Nullable
+    private UrlOverrides urlOverrides;
+
+    public EvaluationContext(GlobalContext global, UserContext user, StackContext stack, Options options) {
+        this.global = global;
+        this.user = user;
+        this.stack = stack;
+        this.options = options;
+    }
+
+    /**
+     * Same as {@link GrowthBookUtils#hash(String, Integer, String)}, computed once per distinct
+     * hash value, seed and hash version for as long as this context is used.
+     * Rollouts, filters, namespaces and experiments of many features share seeds and hash the same user.
+     *
+     * @param hashValue   Input string
+     * @param hashVersion The hash version
+     * @param seed        The hash seed
+     * @return hashed float value or null if the hash version is unsupported.
+     */
+    @Nullable
+    public Float hash(String hashValue, @Nullable Integer hashVersion, String seed) {
+        if (hashVersion == null) return null;
+
+        // a missing value or seed hashes as "null"
+        HashKey key = new HashKey(String.valueOf(hashValue), hashVersion, String.valueOf(seed));
+        Float hash = hashes.get(key);
+        if (hash == null) {
+            hash = GrowthBookUtils.hash(hashValue, hashVersion, seed);
+            if (hash != null) {
+                if (hashes.size() >= MAX_MEMOIZED_HASHES) {
+                    hashes.clear();
+                }
+                hashes.put(key, hash);
+            }
+        }
+        return hash;
+    }
+
+    public void setOptions(Options options) {
+        this.options = options;
+        this.urlOverrides = null;
+    }
+
+    /**
+     * The forced feature values and experiment variations in the URL of the options,
+     * parsed once for as long as this context is used.
+     *
+     * @return the URL overrides, empty when there is no URL or it has no query string
+     */
+    public UrlOverrides getUrlOverrides() {
+        UrlOverrides result = this.urlOverrides;
+        if (result == null) {
+            result = UrlOverrides.parse(this.options != null ? this.options.getUrl() : null);
+            this.urlOverrides = result;
+        }
+        return result;
+    }
+
     @Data
     public static class StackContext { // FeatureEvalContext
         @Nullable
@@ -34,4 +115,31 @@ public class EvaluationContext {
             this.memoizedResults = new HashMap<>();
         }
     }
+
+    private static final class HashKey {
+        private final String hashValue;
+        private final int hashVersion;
+        private final String seed;
+        private final int hashCode;
+
+        private HashKey(String hashValue, int hashVersion, String seed) {
+            this.hashValue = hashValue;
+            this.hashVersion = hashVersion;
+            this.seed = seed;
+            this.hashCode = 31 * (31 * hashValue.hashCode() + hashVersion) + seed.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof HashKey)) return false;
+            HashKey other = (HashKey) o;
+            return hashVersion == other.hashVersion && hashValue.equals(other.hashValue) && seed.equals(other.seed);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
 }
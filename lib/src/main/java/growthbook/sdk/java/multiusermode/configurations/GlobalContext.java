@@ -3,10 +3,15 @@ package growthbook.sdk.java.multiusermode.configurations;
 import com.google.gson.JsonObject;
 import growthbook.sdk.java.model.Experiment;
 import growthbook.sdk.java.model.Feature;
+import growthbook.sdk.java.plan.FeaturePlan;
 import growthbook.sdk.java.util.ForcedVariationsUtils;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.annotation.Nullable;
@@ -24,7 +29,8 @@ public class GlobalContext {
             @Nullable Boolean enabled,
             @Nullable Boolean qaMode,
             @Nullable Map<String, ?> forcedVariations,
-            @Nullable Map<String, Object> forcedFeatureValues
+            @Nullable Map<String, Object> forcedFeatureValues,
+            @Nullable FeaturePlan featurePlan
     ) {
         this.features = features;
         this.savedGroups = savedGroups;
@@ -33,6 +39,22 @@ public class GlobalContext {
         this.qaMode = qaMode;
         this.forcedVariations = ForcedVariationsUtils.normalize(forcedVariations);
         this.forcedFeatureValues = forcedFeatureValues;
+        this.featurePlan = featurePlan != null && featurePlan.isCompiledFrom(features)
+                ? featurePlan
+                : FeaturePlan.compile(features);
+    }
+
+    @SuppressWarnings("rawtypes")
+    public GlobalContext(
+            @Nullable Map<String, Feature<?>> features,
+            @Nullable JsonObject savedGroups,
+            @Nullable List<Experiment> experiments,
+            @Nullable Boolean enabled,
+            @Nullable Boolean qaMode,
+            @Nullable Map<String, ?> forcedVariations,
+            @Nullable Map<String, Object> forcedFeatureValues
+    ) {
+        this(features, savedGroups, experiments, enabled, qaMode, forcedVariations, forcedFeatureValues, null);
     }
 
 
@@ -44,6 +66,21 @@ public class GlobalContext {
     @Nullable
     private Map<String, Feature<?>> features;
 
+    /**
+     * Evaluation plan compiled from {@link #features}. Reused when the features repository
+     * already compiled one for the same snapshot.
+     */
+    @Getter
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private FeaturePlan featurePlan;
+
+    public void setFeatures(@Nullable Map<String, Feature<?>> features) {
+        this.features = features;
+        this.featurePlan = FeaturePlan.compile(features);
+    }
+
     @Nullable
     private JsonObject savedGroups;
 
@@ -5,7 +5,11 @@ import growthbook.sdk.java.callback.FeatureRefreshCallback;
 import growthbook.sdk.java.model.Experiment;
 import growthbook.sdk.java.model.ExperimentResult;
 import growthbook.sdk.java.model.FeatureResult;
+import growthbook.sdk.java.model.UserAttributes;
+import growthbook.sdk.java.multiusermode.usage.BloomFilterExposureDeduplicator;
+import growthbook.sdk.java.multiusermode.usage.ExposureDeduplicator;
 import growthbook.sdk.java.multiusermode.usage.FeatureUsageCallbackWithUser;
+import growthbook.sdk.java.multiusermode.usage.TimeWindowExposureDeduplicator;
 import growthbook.sdk.java.multiusermode.usage.TrackingCallbackWithUser;
 import growthbook.sdk.java.multiusermode.util.TransformationUtil;
 import growthbook.sdk.java.remoteeval.RemoteEvalRequestBuilder;
@@ -16,8 +20,12 @@ import growthbook.sdk.java.sandbox.CacheMode;
 import growthbook.sdk.java.stickyBucketing.InMemoryStickyBucketServiceImpl;
 import growthbook.sdk.java.stickyBucketing.StickyBucketService;
 import growthbook.sdk.java.util.ForcedVariationsUtils;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Setter;
+import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.annotation.Nullable;
@@ -87,7 +95,9 @@ public class Options {
         );
     }
 
-    @Builder
+    /**
+     * The constructor of the previous release, whose options not listed here take their defaults.
+     */
     public Options(@Nullable Boolean enabled,
                    Boolean isQaMode,
                    @Nullable Boolean isCacheDisabled,
@@ -115,6 +125,70 @@ public class Options {
                    @Nullable Integer remoteEvalCacheTtlSeconds,
                    @Nullable Duration backgroundFetchInterval,
                    @Nullable FeatureFetchRetryPolicy retryPolicy
+    ) {
+        this(
+                enabled,
+                isQaMode,
+                isCacheDisabled,
+                allowUrlOverrides,
+                url,
+                apiHost,
+                clientKey,
+                decryptionKey,
+                stickyBucketIdentifierAttributes,
+                stickyBucketService,
+                trackingCallBackWithUser,
+                featureUsageCallbackWithUser,
+                refreshStrategy,
+                swrTtlSeconds,
+                featureRefreshCallback,
+                globalAttributes,
+                globalForcedFeatureValues,
+                globalForcedVariationsMap,
+                cacheManager,
+                cacheMode,
+                cacheDirectory,
+                remoteEval,
+                cacheKeyAttributes,
+                remoteEvalCacheSize,
+                remoteEvalCacheTtlSeconds,
+                backgroundFetchInterval,
+                retryPolicy,
+                null,
+                null
+        );
+    }
+
+    @Builder
+    public Options(@Nullable Boolean enabled,
+                   Boolean isQaMode,
+                   @Nullable Boolean isCacheDisabled,
+                   Boolean allowUrlOverrides,
+                   @Nullable String url,
+                   @Nullable String apiHost,
+                   @Nullable String clientKey,
+                   @Nullable String decryptionKey,
+                   @Nullable List<String> stickyBucketIdentifierAttributes,
+                   @Nullable StickyBucketService stickyBucketService,
+                   @Nullable TrackingCallbackWithUser trackingCallBackWithUser,
+                   @Nullable FeatureUsageCallbackWithUser featureUsageCallbackWithUser,
+                   @Nullable FeatureRefreshStrategy refreshStrategy,
+                   @Nullable Integer swrTtlSeconds,
+                   @Nullable FeatureRefreshCallback featureRefreshCallback,
+                   @Nullable JsonObject globalAttributes,
+                   @Nullable Map<String, Object> globalForcedFeatureValues,
+                   @Nullable Map<String, ?> globalForcedVariationsMap,
+                   @Nullable GbCacheManager cacheManager,
+                   @Nullable CacheMode cacheMode,
+                   @Nullable String cacheDirectory,
+                   @Nullable Boolean remoteEval,
+                   @Nullable List<String> cacheKeyAttributes,
+                   @Nullable Integer remoteEvalCacheSize,
+                   @Nullable Integer remoteEvalCacheTtlSeconds,
+                   @Nullable Duration backgroundFetchInterval,
+                   @Nullable FeatureFetchRetryPolicy retryPolicy,
+                   @Nullable Boolean copyFeatureValues,
+                   @Nullable ExposureDeduplicator exposureDeduplicator
     ) {
         this.enabled = enabled == null || enabled;
         this.isQaMode = isQaMode != null && isQaMode;
@@ -132,6 +206,7 @@ public class Options {
         this.swrTtlSeconds = swrTtlSeconds;
         this.featureRefreshCallback = featureRefreshCallback;
         this.globalAttributes = globalAttributes;
+        this.globalAttributeLayer = globalAttributes != null ? UserAttributes.of(globalAttributes.deepCopy()) : null;
         this.globalForcedFeatureValues = globalForcedFeatureValues;
         this.globalForcedVariationsMap = ForcedVariationsUtils.normalize(globalForcedVariationsMap);
         this.cacheManager = cacheManager;
@@ -143,6 +218,8 @@ public class Options {
         this.remoteEvalCacheTtlSeconds = remoteEvalCacheTtlSeconds;
         this.backgroundFetchInterval = backgroundFetchInterval;
         this.retryPolicy = retryPolicy;
+        this.copyFeatureValues = copyFeatureValues != null && copyFeatureValues;
+        this.exposureDeduplicator = exposureDeduplicator;
     }
 
     /**
@@ -227,11 +304,23 @@ public class Options {
     private Integer swrTtlSeconds;
 
     /**
-     * Map of user attributes that are used to assign variations
+     * Map of user attributes that are used to assign variations.
+     * The attributes are read when they are set, so changes made to the object in place afterwards
+     * are ignored until it is set again with {@link #setGlobalAttributes(JsonObject)}.
      */
     @Nullable
     private JsonObject globalAttributes;
 
+    /**
+     * {@link #globalAttributes} as the store that user attributes are layered over,
+     * rebuilt each time the global attributes are set
+     */
+    @Nullable
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private UserAttributes globalAttributeLayer;
+
     /**
      * String format of user attributes that are used to assign variations
      */
@@ -300,6 +389,20 @@ public class Options {
     @Nullable
     private FeatureFetchRetryPolicy retryPolicy;
 
+    /**
+     * Whether {@code getFeatureValue} returns a new instance of complex values on every call (default: false).
+     * By default, the instance deserialized for the current features is shared between calls and users and must not be changed.
+     */
+    private Boolean copyFeatureValues;
+
+    /**
+     * Optional strategy to fire the tracking callback once per user, experiment and variation.
+     * When null, only exposures from remote evaluation are de-duplicated, in a small cache shared by all users.
+     * See {@link TimeWindowExposureDeduplicator} and {@link BloomFilterExposureDeduplicator}.
+     */
+    @Nullable
+    private ExposureDeduplicator exposureDeduplicator;
+
     @Nullable
     public String getCacheDirectory() {
         return cacheDirectory;
@@ -316,7 +419,17 @@ public class Options {
 
     public void setGlobalAttributes(@Nullable String attributesJson) {
         this.attributesJson = attributesJson;
-        this.globalAttributes = TransformationUtil.transformAttributes(attributesJson);
+        setGlobalAttributes(TransformationUtil.transformAttributes(attributesJson));
+    }
+
+    /**
+     * Set the global attributes. Call it again with the same object after changing it in place.
+     *
+     * @param globalAttributes attributes of every user, under the user's own attributes
+     */
+    public void setGlobalAttributes(@Nullable JsonObject globalAttributes) {
+        this.globalAttributes = globalAttributes;
+        this.globalAttributeLayer = globalAttributes != null ? UserAttributes.of(globalAttributes.deepCopy()) : null;
     }
 
     public boolean isRemoteEvalEnabled() {
@@ -3,6 +3,7 @@ package growthbook.sdk.java.multiusermode.configurations;
 import com.google.gson.JsonObject;
 import growthbook.sdk.java.util.ForcedVariationsUtils;
 import growthbook.sdk.java.model.StickyAssignmentsDocument;
+import growthbook.sdk.java.model.UserAttributes;
 import growthbook.sdk.java.multiusermode.util.TransformationUtil;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
@@ -16,6 +17,9 @@ public class UserContext {
     @Nullable
     private JsonObject attributes;
 
+    @Nullable
+    private final UserAttributes userAttributes;
+
     @Nullable
     private String url;
 
@@ -33,7 +37,10 @@ public class UserContext {
     private String attributesJson;
 
     private UserContext(UserContextBuilder userContextBuilder) {
-        attributes = userContextBuilder.attributes == null ? new JsonObject() : userContextBuilder.attributes;
+        userAttributes = userContextBuilder.userAttributes;
+        if (userAttributes == null) {
+            attributes = userContextBuilder.attributes == null ? new JsonObject() : userContextBuilder.attributes;
+        }
         url = userContextBuilder.url;
         stickyBucketAssignmentDocs = userContextBuilder.stickyBucketAssignmentDocs;
         forcedVariationsMap = ForcedVariationsUtils.normalize(userContextBuilder.forcedVariationsMap);
@@ -66,10 +73,32 @@ public class UserContext {
                 .build();
     }
 
+    public UserContext withUserAttributes(UserAttributes userAttributes) {
+        return new UserContextBuilder()
+                .userAttributes(userAttributes)
+                .forcedVariationsMap(this.forcedVariationsMap)
+                .forcedFeatureValues(this.forcedFeatureValues)
+                .url(this.url)
+                .stickyBucketAssignmentDocs(this.stickyBucketAssignmentDocs)
+                .build();
+    }
+
     public JsonObject getAttributes() {
+        if (this.attributes == null) {
+            // built from UserAttributes, the JSON view is only created for the APIs that need it
+            this.attributes = this.userAttributes.toJsonObject();
+        }
         return this.attributes;
     }
 
+    /**
+     * @return the flat attribute store the context was built with, null when it was built from JSON
+     */
+    @Nullable
+    public UserAttributes getUserAttributes() {
+        return this.userAttributes;
+    }
+
     public Map<String, Integer> getForcedVariationsMap() {
         return this.forcedVariationsMap;
     }
@@ -98,6 +127,9 @@ public class UserContext {
         @Nullable
         private JsonObject attributes;
 
+        @Nullable
+        private UserAttributes userAttributes;
+
         @Nullable
         private String url;
 
@@ -116,7 +148,7 @@ public class UserContext {
         public UserContextBuilder attributesJson(String attributesJson) {
             this.attributesJson = attributesJson;
             // Only transform if attributes not explicitly provided
-            if (this.attributes == null) {
+            if (this.attributes == null && this.userAttributes == null) {
                 this.attributes = TransformationUtil.transformAttributes(attributesJson);
             }
             return this;
@@ -124,6 +156,20 @@ public class UserContext {
 
         public UserContextBuilder attributes(JsonObject attributes) {
             this.attributes = attributes;
+            this.userAttributes = null;
+            return this;
+        }
+
+        /**
+         * Set the attributes from a flat {@link UserAttributes} store instead of a JsonObject.
+         * Targeting conditions and hashing read the store directly.
+         *
+         * @param userAttributes user attributes, e.g. {@code UserAttributes.of(map)}
+         * @return this builder
+         */
+        public UserContextBuilder userAttributes(UserAttributes userAttributes) {
+            this.userAttributes = userAttributes;
+            this.attributes = null;
             return this;
         }
 
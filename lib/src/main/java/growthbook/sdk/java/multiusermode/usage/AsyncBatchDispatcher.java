@@ -0,0 +1,229 @@
+package growthbook.sdk.java.multiusermode.usage;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * <b>INTERNAL</b>: Collects events in a {@link BoundedRingBuffer} and delivers them in batches on a background thread.
+ * A batch is delivered when it is full, or when its oldest event has waited for the flush interval
+ * since it was submitted, so an event is delivered about one flush interval after it was submitted at most.
+ * The buffer accepts events from any thread, and {@link DispatchOverflowPolicy#DROP_OLDEST} makes room by polling from it.
+ * Closing delivers the events that are still buffered, including those of producers that were submitting while it closed.
+ *
+ * @param <E> event type
+ */
+@Slf4j
+final class AsyncBatchDispatcher<E> implements AutoCloseable {
+    private static final long BLOCKED_PRODUCER_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final long CLOSE_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(5);
+
+    private final BoundedRingBuffer<Queued<E>> buffer;
+    private final Consumer<List<E>> batchConsumer;
+    private final int maxBatchSize;
+    private final long flushIntervalNanos;
+    private final DispatchOverflowPolicy overflowPolicy;
+    private final Thread thread;
+
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+
+    /**
+     * Producers in {@link #submit(Object)}, so closing can wait for those that passed the closed check
+     */
+    private final AtomicInteger submitting = new AtomicInteger();
+
+    private volatile boolean closed;
+
+    AsyncBatchDispatcher(String threadName,
+                         Consumer<List<E>> batchConsumer,
+                         int capacity,
+                         int maxBatchSize,
+                         Duration flushInterval,
+                         DispatchOverflowPolicy overflowPolicy) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive: " + maxBatchSize);
+        }
+        if (flushInterval.isNegative() || flushInterval.isZero()) {
+            throw new IllegalArgumentException("Flush interval must be positive: " + flushInterval);
+        }
+        this.buffer = new BoundedRingBuffer<>(capacity);
+        this.batchConsumer = batchConsumer;
+        this.maxBatchSize = maxBatchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.overflowPolicy = overflowPolicy;
+
+        this.thread = new Thread(this::run, threadName);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Queue an event without waiting for it to be delivered
+     *
+     * @param event event
+     * @return false when the event was dropped
+     */
+    boolean submit(E event) {
+        // counted before the closed check, see close()
+        submitting.incrementAndGet();
+        try {
+            return offerOrDrop(event);
+        } finally {
+            submitting.decrementAndGet();
+        }
+    }
+
+    private boolean offerOrDrop(E event) {
+        while (!closed) {
+            if (buffer.offer(new Queued<>(event, System.nanoTime()))) {
+                queued.incrementAndGet();
+                if (buffer.size() >= maxBatchSize) {
+                    LockSupport.unpark(thread);
+                }
+                return true;
+            }
+
+            switch (overflowPolicy) {
+                case DROP_OLDEST:
+                    if (buffer.poll() != null) {
+                        dropped.incrementAndGet();
+                    }
+                    continue;
+                case CALLER_RUNS:
+                    deliver(Collections.singletonList(event));
+                    return true;
+                case BLOCK:
+                    if (!Thread.currentThread().isInterrupted()) {
+                        LockSupport.unpark(thread);
+                        LockSupport.parkNanos(this, BLOCKED_PRODUCER_PARK_NANOS);
+                        continue;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            break;
+        }
+        dropped.incrementAndGet();
+        return false;
+    }
+
+    long getQueuedCount() {
+        return queued.get();
+    }
+
+    long getDroppedCount() {
+        return dropped.get();
+    }
+
+    long getDeliveredCount() {
+        return delivered.get();
+    }
+
+    long getFailedBatchCount() {
+        return failedBatches.get();
+    }
+
+    int getPendingCount() {
+        return buffer.size();
+    }
+
+    /**
+     * Stop accepting events, and wait (a few seconds at most) for the buffered events to be delivered
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(thread);
+        if (Thread.currentThread() == thread) {
+            return;
+        }
+        long deadline = System.currentTimeMillis() + CLOSE_TIMEOUT_MILLIS;
+        try {
+            thread.join(CLOSE_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // a producer that saw the dispatcher open may still offer its event
+        while (submitting.get() > 0 && System.currentTimeMillis() < deadline) {
+            LockSupport.parkNanos(this, BLOCKED_PRODUCER_PARK_NANOS);
+        }
+        if (thread.isAlive() || submitting.get() > 0) {
+            log.warn("{} did not deliver all events within {} ms", thread.getName(), CLOSE_TIMEOUT_MILLIS);
+            return;
+        }
+
+        // events submitted while the background thread was finishing
+        List<E> remaining = new ArrayList<>();
+        Queued<E> queuedEvent;
+        while ((queuedEvent = buffer.poll()) != null) {
+            remaining.add(queuedEvent.event);
+        }
+        if (!remaining.isEmpty()) {
+            deliver(remaining);
+        }
+    }
+
+    private void run() {
+        List<E> batch = new ArrayList<>();
+        // when the oldest event of the batch was submitted
+        long batchStart = 0L;
+        while (true) {
+            // read before draining, so every event queued before closing is drained
+            boolean closing = closed;
+
+            Queued<E> queuedEvent;
+            while (batch.size() < maxBatchSize && (queuedEvent = buffer.poll()) != null) {
+                if (batch.isEmpty()) {
+                    batchStart = queuedEvent.queuedAtNanos;
+                }
+                batch.add(queuedEvent.event);
+            }
+
+            long waited = System.nanoTime() - batchStart;
+            if (!batch.isEmpty() && (closing || batch.size() >= maxBatchSize || waited >= flushIntervalNanos)) {
+                deliver(batch);
+                batch = new ArrayList<>();
+                continue;
+            }
+            if (closing) {
+                return;
+            }
+            LockSupport.parkNanos(this, batch.isEmpty() ? flushIntervalNanos : flushIntervalNanos - waited);
+        }
+    }
+
+    /**
+     * An event and when it was submitted
+     */
+    private static final class Queued<E> {
+        private final E event;
+        private final long queuedAtNanos;
+
+        private Queued(E event, long queuedAtNanos) {
+            this.event = event;
+            this.queuedAtNanos = queuedAtNanos;
+        }
+    }
+
+    private void deliver(List<E> batch) {
+        try {
+            batchConsumer.accept(batch);
+            delivered.addAndGet(batch.size());
+        } catch (RuntimeException e) {
+            failedBatches.incrementAndGet();
+            log.error("Failed to deliver a batch of {} events", batch.size(), e);
+        }
+    }
+}
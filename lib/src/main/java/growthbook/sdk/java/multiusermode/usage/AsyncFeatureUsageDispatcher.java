@@ -0,0 +1,102 @@
+package growthbook.sdk.java.multiusermode.usage;
+
+import growthbook.sdk.java.model.FeatureResult;
+import growthbook.sdk.java.multiusermode.configurations.UserContext;
+import lombok.Builder;
+
+import javax.annotation.Nullable;
+import java.time.Duration;
+
+/**
+ * A {@link FeatureUsageCallbackWithUser} that takes feature usages off the evaluation path.
+ * Each usage is put in a bounded lock-free buffer and returns at once; a background thread delivers
+ * the buffered usages in batches to a {@link FeatureUsageBatchCallback}, so a slow listener doesn't slow down evaluation.
+ * <p>
+ * When the buffer is full, the {@link DispatchOverflowPolicy} decides whether a usage is dropped (the new one by default),
+ * evaluation waits for a free slot, or the usage is delivered on the evaluating thread.
+ * Dropped usages are counted, see {@link #getDroppedCount()}.
+ * <p>
+ * Set it as the {@code featureUsageCallbackWithUser} of the {@code Options}.
+ * {@code GrowthBookClient.shutdown()} closes it, which delivers the usages that are still buffered.
+ */
+public class AsyncFeatureUsageDispatcher implements FeatureUsageCallbackWithUser, AutoCloseable {
+    public static final int DEFAULT_CAPACITY = 8192;
+    public static final int DEFAULT_MAX_BATCH_SIZE = 256;
+    public static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofSeconds(1);
+
+    private final AsyncBatchDispatcher<FeatureUsageEvent> dispatcher;
+
+    /**
+     * @param batchCallback  receives the batches of feature usages on the background thread
+     * @param capacity       how many usages can wait to be delivered, rounded up to a power of two (default: 8192)
+     * @param maxBatchSize   the most usages delivered in one batch (default: 256)
+     * @param flushInterval  how long a usage waits for its batch to fill up before the batch is delivered anyway (default: 1 second)
+     * @param overflowPolicy what to do with a usage when the buffer is full (default: {@link DispatchOverflowPolicy#DROP_NEWEST})
+     */
+    @Builder
+    public AsyncFeatureUsageDispatcher(FeatureUsageBatchCallback batchCallback,
+                                       @Nullable Integer capacity,
+                                       @Nullable Integer maxBatchSize,
+                                       @Nullable Duration flushInterval,
+                                       @Nullable DispatchOverflowPolicy overflowPolicy) {
+        if (batchCallback == null) {
+            throw new IllegalArgumentException("batchCallback is required");
+        }
+        this.dispatcher = new AsyncBatchDispatcher<>(
+                "growthbook-feature-usage",
+                batchCallback::onFeatureUsageBatch,
+                capacity == null ? DEFAULT_CAPACITY : capacity,
+                maxBatchSize == null ? DEFAULT_MAX_BATCH_SIZE : maxBatchSize,
+                flushInterval == null ? DEFAULT_FLUSH_INTERVAL : flushInterval,
+                overflowPolicy == null ? DispatchOverflowPolicy.DROP_NEWEST : overflowPolicy
+        );
+    }
+
+    @Override
+    public <ValueType> void onFeatureUsage(String featureKey, FeatureResult<ValueType> result, UserContext userContext) {
+        dispatcher.submit(new FeatureUsageEvent(featureKey, result, userContext));
+    }
+
+    /**
+     * @return the number of usages put in the buffer
+     */
+    public long getQueuedCount() {
+        return dispatcher.getQueuedCount();
+    }
+
+    /**
+     * @return the number of usages dropped because the buffer was full or the dispatcher was closed
+     */
+    public long getDroppedCount() {
+        return dispatcher.getDroppedCount();
+    }
+
+    /**
+     * @return the number of usages delivered to the batch callback
+     */
+    public long getDeliveredCount() {
+        return dispatcher.getDeliveredCount();
+    }
+
+    /**
+     * @return the number of batches the batch callback threw on
+     */
+    public long getFailedBatchCount() {
+        return dispatcher.getFailedBatchCount();
+    }
+
+    /**
+     * @return the number of usages waiting to be delivered
+     */
+    public int getPendingCount() {
+        return dispatcher.getPendingCount();
+    }
+
+    /**
+     * Stop accepting usages and deliver the buffered ones, waiting a few seconds at most
+     */
+    @Override
+    public void close() {
+        dispatcher.close();
+    }
+}
@@ -0,0 +1,106 @@
+package growthbook.sdk.java.multiusermode.usage;
+
+import growthbook.sdk.java.model.Experiment;
+import growthbook.sdk.java.model.ExperimentResult;
+import growthbook.sdk.java.multiusermode.configurations.UserContext;
+import lombok.Builder;
+
+import javax.annotation.Nullable;
+import java.time.Duration;
+
+/**
+ * A {@link TrackingCallbackWithUser} that takes experiment exposures off the evaluation path.
+ * Each exposure is put in a bounded lock-free buffer and returns at once; a background thread delivers
+ * the buffered exposures in batches to a {@link TrackingBatchCallback}, so a slow sink doesn't slow down evaluation.
+ * A batch is delivered when it is full, or when its oldest exposure has waited for the flush interval.
+ * <p>
+ * When the buffer is full, the {@link DispatchOverflowPolicy} decides whether an exposure is dropped
+ * (the oldest one by default), evaluation waits for a free slot, or the exposure is delivered on the evaluating thread.
+ * Dropped exposures are counted, see {@link #getDroppedCount()}.
+ * <p>
+ * Set it as the {@code trackingCallBackWithUser} of the {@code Options}.
+ * {@code GrowthBookClient.shutdown()} closes it, which delivers the exposures that are still buffered.
+ */
+public class AsyncTrackingDispatcher implements TrackingCallbackWithUser, AutoCloseable {
+    public static final int DEFAULT_CAPACITY = 8192;
+    public static final int DEFAULT_MAX_BATCH_SIZE = 256;
+    public static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofSeconds(1);
+
+    private final AsyncBatchDispatcher<TrackingEvent> dispatcher;
+
+    /**
+     * @param batchCallback  receives the batches of exposures on the background thread
+     * @param capacity       how many exposures can wait to be delivered, rounded up to a power of two (default: 8192)
+     * @param maxBatchSize   the most exposures delivered in one batch (default: 256)
+     * @param flushInterval  how long an exposure waits for its batch to fill up before the batch is delivered anyway (default: 1 second)
+     * @param overflowPolicy what to do with an exposure when the buffer is full (default: {@link DispatchOverflowPolicy#DROP_OLDEST})
+     */
+    @Builder
+    public AsyncTrackingDispatcher(TrackingBatchCallback batchCallback,
+                                   @Nullable Integer capacity,
+                                   @Nullable Integer maxBatchSize,
+                                   @Nullable Duration flushInterval,
+                                   @Nullable DispatchOverflowPolicy overflowPolicy) {
+        if (batchCallback == null) {
+            throw new IllegalArgumentException("batchCallback is required");
+        }
+        this.dispatcher = new AsyncBatchDispatcher<>(
+                "growthbook-tracking",
+                batchCallback::onTrackBatch,
+                capacity == null ? DEFAULT_CAPACITY : capacity,
+                maxBatchSize == null ? DEFAULT_MAX_BATCH_SIZE : maxBatchSize,
+                flushInterval == null ? DEFAULT_FLUSH_INTERVAL : flushInterval,
+                overflowPolicy == null ? DispatchOverflowPolicy.DROP_OLDEST : overflowPolicy
+        );
+    }
+
+    @Override
+    public <ValueType> void onTrack(Experiment<ValueType> experiment,
+                                    ExperimentResult<ValueType> experimentResult,
+                                    UserContext userContext) {
+        dispatcher.submit(new TrackingEvent(experiment, experimentResult, userContext));
+    }
+
+    /**
+     * @return the number of exposures put in the buffer
+     */
+    public long getQueuedCount() {
+        return dispatcher.getQueuedCount();
+    }
+
+    /**
+     * @return the number of exposures dropped because the buffer was full or the dispatcher was closed
+     */
+    public long getDroppedCount() {
+        return dispatcher.getDroppedCount();
+    }
+
+    /**
+     * @return the number of exposures delivered (flushed) to the batch callback
+     */
+    public long getDeliveredCount() {
+        return dispatcher.getDeliveredCount();
+    }
+
+    /**
+     * @return the number of batches the batch callback threw on
+     */
+    public long getFailedBatchCount() {
+        return dispatcher.getFailedBatchCount();
+    }
+
+    /**
+     * @return the number of exposures waiting to be delivered
+     */
+    public int getPendingCount() {
+        return dispatcher.getPendingCount();
+    }
+
+    /**
+     * Stop accepting exposures and deliver the buffered ones, waiting a few seconds at most
+     */
+    @Override
+    public void close() {
+        dispatcher.close();
+    }
+}
@@ -0,0 +1,139 @@
+package growthbook.sdk.java.multiusermode.usage;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import lombok.Builder;
+
+import javax.annotation.Nullable;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * An {@link ExposureDeduplicator} with a fixed memory footprint, for servers that see more exposures than they can remember.
+ * Exposures are recorded in a lock-free Bloom filter. Once it holds {@code capacity} exposures
+ * (or, when set, the rotation interval has passed) it becomes the previous generation and a new filter takes over,
+ * so the most recent {@code capacity} to {@code 2 * capacity} exposures are remembered.
+ * An exposure found in the previous generation is copied to the current one.
+ * <p>
+ * Approximate: a new exposure is reported as tracked (and not fired) with about the configured false positive rate,
+ * and threads recording the same new exposure at the same time may each report it as new.
+ * See {@link TimeWindowExposureDeduplicator} for exact de-duplication.
+ */
+public class BloomFilterExposureDeduplicator implements ExposureDeduplicator {
+    public static final int DEFAULT_CAPACITY = 1_000_000;
+    public static final double DEFAULT_FALSE_POSITIVE_RATE = 0.001;
+
+    private final int capacity;
+    private final double generationFalsePositiveRate;
+    private final long rotationIntervalNanos;
+    private final LongSupplier clock;
+
+    private volatile Generation generation;
+
+    /**
+     * @param capacity          the number of exposures recorded before the filters rotate (default: 1,000,000)
+     * @param falsePositiveRate the rate at which new exposures are reported as tracked (default: 0.001)
+     * @param rotationInterval  optional, how long the filters are used before they rotate, whatever the number of exposures
+     */
+    @Builder
+    public BloomFilterExposureDeduplicator(@Nullable Integer capacity,
+                                           @Nullable Double falsePositiveRate,
+                                           @Nullable Duration rotationInterval) {
+        this(
+                capacity == null ? DEFAULT_CAPACITY : capacity,
+                falsePositiveRate == null ? DEFAULT_FALSE_POSITIVE_RATE : falsePositiveRate,
+                rotationInterval,
+                System::nanoTime
+        );
+    }
+
+    BloomFilterExposureDeduplicator(int capacity,
+                                    double falsePositiveRate,
+                                    @Nullable Duration rotationInterval,
+                                    LongSupplier clock) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1: " + falsePositiveRate);
+        }
+        if (rotationInterval != null && (rotationInterval.isNegative() || rotationInterval.isZero())) {
+            throw new IllegalArgumentException("Rotation interval must be positive: " + rotationInterval);
+        }
+        this.capacity = capacity;
+        // an exposure is looked up in two generations
+        this.generationFalsePositiveRate = falsePositiveRate / 2;
+        this.rotationIntervalNanos = rotationInterval == null ? Long.MAX_VALUE : rotationInterval.toNanos();
+        this.clock = clock;
+        this.generation = new Generation(newFilter(), null, clock.getAsLong());
+    }
+
+    @Override
+    public boolean markTracked(String key) {
+        Generation current = currentGeneration();
+        if (current.previous != null && current.previous.mightContain(key)) {
+            current.put(key);
+            return false;
+        }
+        return current.put(key);
+    }
+
+    @Override
+    public boolean isTracked(String key) {
+        Generation current = currentGeneration();
+        return current.filter.mightContain(key)
+                || (current.previous != null && current.previous.mightContain(key));
+    }
+
+    @Override
+    public void clear() {
+        synchronized (this) {
+            generation = new Generation(newFilter(), null, clock.getAsLong());
+        }
+    }
+
+    private Generation currentGeneration() {
+        Generation current = generation;
+        long now = clock.getAsLong();
+        if (current.insertions.get() < capacity && now - current.startedNanos < rotationIntervalNanos) {
+            return current;
+        }
+        synchronized (this) {
+            if (generation == current) {
+                generation = new Generation(newFilter(), current.filter, now);
+            }
+            return generation;
+        }
+    }
+
+    private BloomFilter<CharSequence> newFilter() {
+        return BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), capacity, generationFalsePositiveRate);
+    }
+
+    private static final class Generation {
+        private final BloomFilter<CharSequence> filter;
+        @Nullable
+        private final BloomFilter<CharSequence> previous;
+        private final long startedNanos;
+        private final AtomicLong insertions = new AtomicLong();
+
+        private Generation(BloomFilter<CharSequence> filter, @Nullable BloomFilter<CharSequence> previous, long startedNanos) {
+            this.filter = filter;
+            this.previous = previous;
+            this.startedNanos = startedNanos;
+        }
+
+        /**
+         * @return true when the key was not in the filter
+         */
+        private boolean put(String key) {
+            if (filter.put(key)) {
+                insertions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+}
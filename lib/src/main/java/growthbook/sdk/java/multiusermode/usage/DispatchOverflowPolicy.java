@@ -0,0 +1,24 @@
+package growthbook.sdk.java.multiusermode.usage;
+
+/**
+ * What an asynchronous dispatcher does with an event when its buffer is full.
+ */
+public enum DispatchOverflowPolicy {
+    /**
+     * Drop the new event and count it as dropped. Evaluation never waits.
+     */
+    DROP_NEWEST,
+    /**
+     * Drop the oldest buffered event to make room for the new one, and count it as dropped. Evaluation never waits.
+     */
+    DROP_OLDEST,
+    /**
+     * Wait until the background thread frees a slot. Evaluation slows down to the pace of the callback.
+     */
+    BLOCK,
+    /**
+     * Deliver the new event on the calling thread, as a batch of one. Nothing is dropped, but the batch callback
+     * is then called from several threads at once.
+     */
+    CALLER_RUNS
+}
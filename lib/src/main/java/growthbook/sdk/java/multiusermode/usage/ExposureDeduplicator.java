@@ -0,0 +1,28 @@
+package growthbook.sdk.java.multiusermode.usage;
+
+/**
+ * Remembers which exposures were tracked, so the tracking callback fires once per
+ * hash attribute, hash value, experiment and variation.
+ * Implementations are shared by all users of a {@code GrowthBookClient} and must be thread-safe.
+ */
+public interface ExposureDeduplicator {
+
+    /**
+     * Record an exposure
+     *
+     * @param key identifies the user, experiment and variation of the exposure
+     * @return true when the exposure was not recorded yet and should be tracked
+     */
+    boolean markTracked(String key);
+
+    /**
+     * @param key identifies the user, experiment and variation of the exposure
+     * @return true when the exposure was recorded
+     */
+    boolean isTracked(String key);
+
+    /**
+     * Forget all recorded exposures
+     */
+    void clear();
+}
@@ -0,0 +1,19 @@
+package growthbook.sdk.java.multiusermode.usage;
+
+import java.util.List;
+
+/**
+ * Listen for feature usage events in batches, see {@link AsyncFeatureUsageDispatcher}
+ */
+public interface FeatureUsageBatchCallback {
+
+    /**
+     * This callback is called with the feature usages collected since the last batch, usually on the dispatcher's background thread.
+     * With {@link DispatchOverflowPolicy#CALLER_RUNS} it is also called on the evaluating thread when the buffer is full,
+     * and closing the dispatcher delivers the remaining events on the closing thread,
+     * so implementations must be safe to call from several threads at once.
+     *
+     * @param events the feature usages, oldest first. The list is not reused by the dispatcher.
+     */
+    void onFeatureUsageBatch(List<FeatureUsageEvent> events);
+}
@@ -0,0 +1,16 @@
+package growthbook.sdk.java.multiusermode.usage;
+
+import growthbook.sdk.java.model.FeatureResult;
+import growthbook.sdk.java.multiusermode.configurations.UserContext;
+import lombok.Value;
+
+/**
+ * A feature usage, as passed to {@link FeatureUsageCallbackWithUser#onFeatureUsage(String, FeatureResult, UserContext)},
+ * queued for a {@link FeatureUsageBatchCallback}
+ */
+@Value
+public class FeatureUsageEvent {
+    String featureKey;
+    FeatureResult<?> result;
+    UserContext userContext;
+}
@@ -0,0 +1,147 @@
+package growthbook.sdk.java.multiusermode.usage;
+
+import lombok.Builder;
+
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * An {@link ExposureDeduplicator} that remembers exposures for a time window.
+ * Exposures are spread over independently locked stripes, so users tracked from different threads rarely contend.
+ * Each stripe keeps its exposures in the order they were recorded, and forgets the oldest ones
+ * once they are older than the window or the stripe is full.
+ * <p>
+ * Exact: an exposure is only reported as tracked when it was, at the cost of one entry per exposure.
+ * See {@link BloomFilterExposureDeduplicator} for a fixed memory footprint.
+ */
+public class TimeWindowExposureDeduplicator implements ExposureDeduplicator {
+    public static final int DEFAULT_CAPACITY = 100_000;
+    public static final Duration DEFAULT_WINDOW = Duration.ofHours(1);
+    public static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
+    private final Stripe[] stripes;
+    private final long windowNanos;
+    private final LongSupplier clock;
+
+    /**
+     * @param capacity         the most exposures remembered (default: 100,000)
+     * @param window           how long an exposure is remembered (default: 1 hour)
+     * @param concurrencyLevel the number of stripes, rounded up to a power of two (default: 16)
+     */
+    @Builder
+    public TimeWindowExposureDeduplicator(@Nullable Integer capacity,
+                                          @Nullable Duration window,
+                                          @Nullable Integer concurrencyLevel) {
+        this(
+                capacity == null ? DEFAULT_CAPACITY : capacity,
+                window == null ? DEFAULT_WINDOW : window,
+                concurrencyLevel == null ? DEFAULT_CONCURRENCY_LEVEL : concurrencyLevel,
+                System::nanoTime
+        );
+    }
+
+    TimeWindowExposureDeduplicator(int capacity, Duration window, int concurrencyLevel, LongSupplier clock) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        if (window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("Window must be positive: " + window);
+        }
+        if (concurrencyLevel < 1 || concurrencyLevel > (1 << 16)) {
+            throw new IllegalArgumentException("Concurrency level must be between 1 and 2^16: " + concurrencyLevel);
+        }
+        int stripeCount = concurrencyLevel == 1 ? 1 : Integer.highestOneBit(concurrencyLevel - 1) << 1;
+        int stripeCapacity = Math.max(1, (capacity + stripeCount - 1) / stripeCount);
+
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(stripeCapacity);
+        }
+        this.windowNanos = window.toNanos();
+        this.clock = clock;
+    }
+
+    @Override
+    public boolean markTracked(String key) {
+        Stripe stripe = stripeFor(key);
+        long now = clock.getAsLong();
+        synchronized (stripe) {
+            stripe.evictExpired(now, windowNanos);
+            if (stripe.containsKey(key)) {
+                return false;
+            }
+            stripe.record(key, now);
+            return true;
+        }
+    }
+
+    @Override
+    public boolean isTracked(String key) {
+        Stripe stripe = stripeFor(key);
+        long now = clock.getAsLong();
+        synchronized (stripe) {
+            Long trackedAt = stripe.get(key);
+            return trackedAt != null && now - trackedAt < windowNanos;
+        }
+    }
+
+    @Override
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+    }
+
+    private Stripe stripeFor(String key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    /**
+     * Exposures of one stripe in the order they were recorded, with the time they were recorded
+     */
+    private static final class Stripe {
+        private final int capacity;
+
+        // insertion order, so the oldest exposure comes first
+        private final LinkedHashMap<String, Long> recordedAt = new LinkedHashMap<>();
+
+        private Stripe(int capacity) {
+            this.capacity = capacity;
+        }
+
+        private boolean containsKey(String key) {
+            return recordedAt.containsKey(key);
+        }
+
+        @Nullable
+        private Long get(String key) {
+            return recordedAt.get(key);
+        }
+
+        private void record(String key, long now) {
+            recordedAt.put(key, now);
+            if (recordedAt.size() > capacity) {
+                Iterator<String> oldestFirst = recordedAt.keySet().iterator();
+                oldestFirst.next();
+                oldestFirst.remove();
+            }
+        }
+
+        private void clear() {
+            recordedAt.clear();
+        }
+
+        private void evictExpired(long now, long windowNanos) {
+            Iterator<Long> oldestFirst = recordedAt.values().iterator();
+            while (oldestFirst.hasNext() && now - oldestFirst.next() >= windowNanos) {
+                oldestFirst.remove();
+            }
+        }
+    }
+}
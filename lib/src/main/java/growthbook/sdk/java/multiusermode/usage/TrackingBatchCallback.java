@@ -0,0 +1,19 @@
+package growthbook.sdk.java.multiusermode.usage;
+
+import java.util.List;
+
+/**
+ * Listen for experiment exposures in batches, see {@link AsyncTrackingDispatcher}
+ */
+public interface TrackingBatchCallback {
+
+    /**
+     * This callback is called with the exposures collected since the last batch, usually on the dispatcher's background thread.
+     * With {@link DispatchOverflowPolicy#CALLER_RUNS} it is also called on the evaluating thread when the buffer is full,
+     * and closing the dispatcher delivers the remaining events on the closing thread,
+     * so implementations must be safe to call from several threads at once.
+     *
+     * @param events the exposures, oldest first. The list is not reused by the dispatcher.
+     */
+    void onTrackBatch(List<TrackingEvent> events);
+}
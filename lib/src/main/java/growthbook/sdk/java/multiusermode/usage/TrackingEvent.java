@@ -0,0 +1,17 @@
+package growthbook.sdk.java.multiusermode.usage;
+
+import growthbook.sdk.java.model.Experiment;
+import growthbook.sdk.java.model.ExperimentResult;
+import growthbook.sdk.java.multiusermode.configurations.UserContext;
+import lombok.Value;
+
+/**
+ * An experiment exposure, as passed to {@link TrackingCallbackWithUser#onTrack(Experiment, ExperimentResult, UserContext)},
+ * queued for a {@link TrackingBatchCallback}
+ */
+@Value
+public class TrackingEvent {
+    Experiment<?> experiment;
+    ExperimentResult<?> experimentResult;
+    UserContext userContext;
+}
@@ -0,0 +1,215 @@
+package growthbook.sdk.java.multiusermode.util;
+
+import com.google.common.hash.Funnels;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.reflect.TypeToken;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonParser;
+import com.google.gson.Strictness;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonWriter;
+import growthbook.sdk.java.model.Feature;
+import growthbook.sdk.java.util.GrowthBookJsonUtils;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <b>INTERNAL</b>: Parses successive features payloads of a repository, deserializing only the features
+ * whose JSON changed since the previous payload. Each feature is fingerprinted by a 128-bit hash of its JSON,
+ * and the {@link Feature} parsed from the previous payload is reused when the fingerprint is unchanged,
+ * so {@code FeaturePlan} can reuse its compiled form too.
+ */
+@Slf4j
+public final class IncrementalFeatureParser {
+    private static final Gson GSON = GrowthBookJsonUtils.getInstance().gson;
+    private static final Type FEATURE_TYPE = new TypeToken<Feature<?>>() {
+    }.getType();
+    private static final HashFunction FINGERPRINT = Hashing.murmur3_128();
+    private static final TypeAdapter<JsonElement> ELEMENT_ADAPTER = GSON.getAdapter(JsonElement.class);
+
+    private Map<String, Feature<?>> features = Collections.emptyMap();
+    private Map<String, HashCode> fingerprints = Collections.emptyMap();
+
+    /**
+     * Parse the features of a payload, see {@link TransformationUtil#transformFeatures(String)}.
+     * The features are hashed as they are serialized, without building a string per feature.
+     *
+     * @param featuresJson the {@code features} of a payload as a JSON string
+     * @return the features, and the keys that changed since the previous payload
+     */
+    public synchronized Result parse(@Nullable String featuresJson) {
+        if (featuresJson == null || featuresJson.isEmpty()) {
+            return reset(featuresJson);
+        }
+
+        JsonElement parsed;
+        try {
+            parsed = JsonParser.parseString(featuresJson);
+        } catch (Exception e) {
+            log.error("Invalid JSON format: {}", e.getMessage(), e);
+            return reset(featuresJson);
+        }
+        if (!parsed.isJsonObject()) {
+            return invalid(parsed, featuresJson);
+        }
+
+        try {
+            Map<String, JsonElement> members = parsed.getAsJsonObject().asMap();
+            Map<String, HashCode> parsedFingerprints = new HashMap<>(members.size() * 4 / 3 + 1);
+            for (Map.Entry<String, JsonElement> entry : members.entrySet()) {
+                Hasher hasher = FINGERPRINT.newHasher();
+                try (Writer hashed = new OutputStreamWriter(Funnels.asOutputStream(hasher), StandardCharsets.UTF_8)) {
+                    writeJson(entry.getValue(), hashed);
+                }
+                parsedFingerprints.put(entry.getKey(), hasher.hash());
+            }
+            return update(members, parsedFingerprints, featuresJson);
+        } catch (Exception e) {
+            log.error("Error parsing features JSON: {}", e.getMessage(), e);
+            return reset(featuresJson);
+        }
+    }
+
+    /**
+     * Parse the features of a payload, see {@link TransformationUtil#transformFeatures(JsonElement)}.
+     * Each feature is serialized once, both to fingerprint it and to build {@link Result#getFeaturesJson()}.
+     *
+     * @param featuresJson the {@code features} of a payload
+     * @return the features, their JSON, and the keys that changed since the previous payload
+     */
+    public synchronized Result parse(@Nullable JsonElement featuresJson) {
+        if (featuresJson == null || featuresJson.isJsonNull()) {
+            return reset(featuresJson == null ? null : featuresJson.toString());
+        }
+        if (!featuresJson.isJsonObject()) {
+            return invalid(featuresJson, featuresJson.toString());
+        }
+
+        Map<String, JsonElement> members = featuresJson.getAsJsonObject().asMap();
+        Map<String, HashCode> parsedFingerprints = new HashMap<>(members.size() * 4 / 3 + 1);
+        StringWriter json = new StringWriter();
+        try {
+            JsonWriter writer = newJsonWriter(json);
+            writer.beginObject();
+            for (Map.Entry<String, JsonElement> entry : members.entrySet()) {
+                StringWriter member = new StringWriter();
+                writeJson(entry.getValue(), member);
+                String memberJson = member.toString();
+                parsedFingerprints.put(entry.getKey(), FINGERPRINT.hashString(memberJson, StandardCharsets.UTF_8));
+                writer.name(entry.getKey()).jsonValue(memberJson);
+            }
+            writer.endObject();
+            writer.flush();
+        } catch (IOException e) {
+            // not thrown by in-memory writers
+            throw new JsonIOException(e);
+        }
+        String text = json.toString();
+
+        try {
+            return update(members, parsedFingerprints, text);
+        } catch (Exception e) {
+            log.error("Error parsing features JSON: {}", e.getMessage(), e);
+            return reset(text);
+        }
+    }
+
+    /**
+     * Deserialize the features whose fingerprint changed, and reuse the others
+     */
+    private Result update(Map<String, JsonElement> members,
+                          Map<String, HashCode> parsedFingerprints,
+                          String featuresJson) {
+        Map<String, Feature<?>> parsedFeatures = new LinkedHashMap<>(members.size() * 4 / 3 + 1);
+        Set<String> changedKeys = new HashSet<>();
+        for (Map.Entry<String, JsonElement> entry : members.entrySet()) {
+            String key = entry.getKey();
+            if (parsedFingerprints.get(key).equals(this.fingerprints.get(key))) {
+                parsedFeatures.put(key, this.features.get(key));
+            } else {
+                parsedFeatures.put(key, GSON.fromJson(entry.getValue(), FEATURE_TYPE));
+                changedKeys.add(key);
+            }
+        }
+
+        for (String key : this.features.keySet()) {
+            if (!parsedFeatures.containsKey(key)) {
+                changedKeys.add(key);
+            }
+        }
+
+        // a copy, so changes the caller makes to the result are not reused
+        this.features = new HashMap<>(parsedFeatures);
+        this.fingerprints = parsedFingerprints;
+        return new Result(parsedFeatures, Collections.unmodifiableSet(changedKeys), featuresJson);
+    }
+
+    private Result invalid(JsonElement featuresJson, String text) {
+        log.error("Invalid JSON format: features are a {} rather than a JSON object",
+                featuresJson.isJsonArray() ? "JSON array" : "JSON primitive");
+        return reset(text);
+    }
+
+    private Result reset(@Nullable String featuresJson) {
+        Set<String> removedKeys = Collections.unmodifiableSet(new HashSet<>(this.features.keySet()));
+        this.features = Collections.emptyMap();
+        this.fingerprints = Collections.emptyMap();
+        return new Result(new HashMap<>(), removedKeys, featuresJson);
+    }
+
+    /**
+     * Write compact JSON, like {@link JsonElement#toString()}
+     */
+    private static void writeJson(JsonElement element, Writer out) throws IOException {
+        JsonWriter writer = newJsonWriter(out);
+        ELEMENT_ADAPTER.write(writer, element);
+        writer.flush();
+    }
+
+    private static JsonWriter newJsonWriter(Writer out) {
+        JsonWriter writer = new JsonWriter(out);
+        writer.setStrictness(Strictness.LENIENT);
+        return writer;
+    }
+
+    /**
+     * The features of a payload
+     */
+    @Value
+    public static class Result {
+        /**
+         * The features, keyed by feature key. Unchanged features are the instances of the previous result.
+         */
+        Map<String, Feature<?>> features;
+
+        /**
+         * Keys of the features that were added, changed or removed since the previous payload
+         */
+        Set<String> changedKeys;
+
+        /**
+         * The features as a compact JSON string, or the string that was parsed
+         */
+        @Nullable
+        String featuresJson;
+    }
+}
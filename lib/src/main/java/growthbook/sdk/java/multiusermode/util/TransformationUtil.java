@@ -3,18 +3,31 @@ package growthbook.sdk.java.multiusermode.util;
 import com.google.common.reflect.TypeToken;
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
 import com.google.gson.JsonSyntaxException;
+import com.google.gson.Strictness;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
 import growthbook.sdk.java.model.Feature;
 import growthbook.sdk.java.util.DecryptionUtils;
 import growthbook.sdk.java.util.GrowthBookJsonUtils;
+import growthbook.sdk.java.util.SavedGroupsIndex;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.annotation.Nullable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
 import java.lang.reflect.Type;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 @Slf4j
 public class TransformationUtil {
@@ -38,13 +51,129 @@ public class TransformationUtil {
         return Collections.emptyMap();
     }
 
+    /**
+     * Binds an already parsed features object, without serializing it back to a string
+     *
+     * @param featuresJson the {@code features} of a payload
+     * @return the features, empty when they can't be read
+     */
+    public static Map<String, Feature<?>> transformFeatures(@Nullable JsonElement featuresJson) {
+        if (featuresJson == null || featuresJson.isJsonNull()) {
+            return Collections.emptyMap();
+        }
+
+        try {
+            Type featureMapType = new TypeToken<Map<String, Feature<?>>>() {
+            }.getType();
+            Map<String, Feature<?>> features = GSON.fromJson(featuresJson, featureMapType);
+            return features == null ? Collections.emptyMap() : features;
+        } catch (JsonSyntaxException e) {
+            log.error("Invalid JSON format: {}", e.getMessage(), e);
+        } catch (Exception e) {
+            log.error("Error parsing features JSON: {}", e.getMessage(), e);
+        }
+        return Collections.emptyMap();
+    }
+
+    /**
+     * Indexes already parsed saved groups, without serializing them back to a string
+     *
+     * @param savedGroupsJson the {@code savedGroups} of a payload
+     * @return the saved groups, empty when they are not an object
+     */
+    public static JsonObject transformSavedGroups(@Nullable JsonElement savedGroupsJson) {
+        if (savedGroupsJson == null || !savedGroupsJson.isJsonObject()) {
+            return new JsonObject();
+        }
+
+        JsonObject savedGroups = savedGroupsJson.getAsJsonObject();
+        // index the groups once per payload for $inGroup / $notInGroup
+        SavedGroupsIndex.index(savedGroups);
+        return savedGroups;
+    }
+
+    /**
+     * Reads the named members of a JSON object in a single pass over the text.
+     * The other members are skipped without being built, and nothing is serialized back to a string.
+     *
+     * @param json        JSON text, read leniently like {@link Gson#fromJson(String, Class)}
+     * @param memberNames names of the members to keep
+     * @return the members that were found, or null when the JSON is empty or not an object
+     * @throws JsonSyntaxException when the JSON is invalid
+     */
+    @Nullable
+    public static JsonObject readMembers(String json, Set<String> memberNames) {
+        return readMembers(new StringReader(json), memberNames);
+    }
+
+    /**
+     * See {@link #readMembers(String, Set)}
+     *
+     * @param json        JSON text, read to the end but not closed
+     * @param memberNames names of the members to keep
+     * @return the members that were found, or null when the JSON is empty or not an object
+     * @throws JsonSyntaxException when the JSON is invalid
+     * @throws JsonIOException     when the JSON can't be read, with the {@link IOException} as its cause
+     */
+    @Nullable
+    public static JsonObject readMembers(Reader json, Set<String> memberNames) {
+        JsonReader reader = new JsonReader(json);
+        reader.setStrictness(Strictness.LENIENT);
+        try {
+            JsonToken token;
+            try {
+                token = reader.peek();
+            } catch (EOFException e) {
+                // empty, like Gson#fromJson
+                return null;
+            }
+            if (token != JsonToken.BEGIN_OBJECT) {
+                reader.skipValue();
+                assertFullyConsumed(reader);
+                return null;
+            }
+
+            JsonObject members = new JsonObject();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (memberNames.contains(name)) {
+                    // the last one wins, like with JsonObject
+                    members.add(name, JsonParser.parseReader(reader));
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+            assertFullyConsumed(reader);
+            return members;
+        } catch (JsonParseException e) {
+            throw e;
+        } catch (MalformedJsonException | EOFException | IllegalStateException e) {
+            throw new JsonSyntaxException(e);
+        } catch (IOException e) {
+            throw new JsonIOException(e);
+        }
+    }
+
+    private static void assertFullyConsumed(JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.END_DOCUMENT) {
+            throw new JsonSyntaxException("JSON document was not fully consumed.");
+        }
+    }
+
     public static JsonObject transformSavedGroups(String savedGroupsJsonString) {
         if (savedGroupsJsonString == null || savedGroupsJsonString.isEmpty()) {
             return new JsonObject();
         }
 
         try {
-            return GSON.fromJson(savedGroupsJsonString, JsonObject.class);
+            JsonObject savedGroups = GSON.fromJson(savedGroupsJsonString, JsonObject.class);
+            if (savedGroups != null) {
+                // index the groups once per payload for $inGroup / $notInGroup
+                SavedGroupsIndex.index(savedGroups);
+            }
+            return savedGroups;
         } catch (Exception e) {
             log.error(e.getMessage(), e);
             return new JsonObject();
@@ -0,0 +1,112 @@
+package growthbook.sdk.java.plan;
+
+import growthbook.sdk.java.model.BucketRange;
+import growthbook.sdk.java.model.Experiment;
+import growthbook.sdk.java.util.GrowthBookUtils;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <b>INTERNAL</b>: The bucket ranges of an experiment as primitive boundaries, computed once per rule.
+ * {@link #chooseVariation(float)} answers like {@link GrowthBookUtils#chooseVariation(Float, ArrayList)}
+ * with a binary search. Ranges that are out of order or overlap keep the linear scan,
+ * as only the first matching range may be chosen.
+ * Instances are immutable and can be shared between threads.
+ */
+public final class BucketRanges {
+    private final float[] starts;
+    private final float[] ends;
+
+    /**
+     * The ranges to scan linearly when they can't be searched, null otherwise
+     */
+    @Nullable
+    private final ArrayList<BucketRange> unordered;
+
+    private BucketRanges(List<BucketRange> ranges) {
+        boolean searchable = true;
+        float previousEnd = Float.NEGATIVE_INFINITY;
+        for (BucketRange range : ranges) {
+            if (range == null || range.getRangeStart() == null || range.getRangeEnd() == null
+                    || Float.isNaN(range.getRangeStart()) || Float.isNaN(range.getRangeEnd())
+                    || range.getRangeStart() < previousEnd) {
+                searchable = false;
+                break;
+            }
+            previousEnd = Math.max(previousEnd, range.getRangeEnd());
+        }
+
+        if (searchable) {
+            this.starts = new float[ranges.size()];
+            this.ends = new float[ranges.size()];
+            for (int i = 0; i < ranges.size(); i++) {
+                this.starts[i] = ranges.get(i).getRangeStart();
+                this.ends[i] = ranges.get(i).getRangeEnd();
+            }
+            this.unordered = null;
+        } else {
+            this.starts = new float[0];
+            this.ends = new float[0];
+            this.unordered = new ArrayList<>(ranges);
+        }
+    }
+
+    /**
+     * @param ranges bucket ranges, one per variation
+     * @return the ranges
+     */
+    public static BucketRanges of(List<BucketRange> ranges) {
+        return new BucketRanges(ranges);
+    }
+
+    /**
+     * The ranges the experiment evaluator assigns variations from: the experiment's own ranges,
+     * or ranges built from its weights and coverage, defaulting to equal weights and full coverage
+     *
+     * @param experiment the experiment
+     * @return the ranges
+     */
+    public static BucketRanges forExperiment(Experiment<?> experiment) {
+        if (experiment.getRanges() != null) {
+            return of(experiment.getRanges());
+        }
+
+        int numberOfVariations = experiment.getVariations().size();
+        ArrayList<Float> weights = experiment.getWeights();
+        if (weights == null) {
+            weights = GrowthBookUtils.getEqualWeights(numberOfVariations);
+        }
+        Float coverage = experiment.getCoverage();
+        if (coverage == null) {
+            coverage = 1.0f;
+        }
+        return of(GrowthBookUtils.getBucketRanges(numberOfVariations, coverage, weights));
+    }
+
+    /**
+     * @param n hash value between 0 and 1
+     * @return the index of the first range that contains the value, or -1
+     */
+    public int chooseVariation(float n) {
+        if (unordered != null) {
+            return GrowthBookUtils.chooseVariation(n, unordered);
+        }
+
+        // the last range starting at or before n is the only one that can contain it
+        int low = 0;
+        int high = starts.length - 1;
+        int candidate = -1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (starts[middle] <= n) {
+                candidate = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return candidate >= 0 && n < ends[candidate] ? candidate : -1;
+    }
+}
@@ -0,0 +1,117 @@
+package growthbook.sdk.java.plan;
+
+import growthbook.sdk.java.model.Feature;
+import growthbook.sdk.java.model.FeatureResult;
+import growthbook.sdk.java.model.FeatureResultSource;
+import growthbook.sdk.java.model.FeatureRule;
+import growthbook.sdk.java.util.GrowthBookJsonUtils;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <b>INTERNAL</b>: A {@link Feature} compiled into an ordered list of {@link CompiledRule}s
+ * with its default value already unwrapped and its default result built.
+ *
+ * @param <ValueType> value type for the feature
+ */
+@Getter
+public final class CompiledFeature<ValueType> {
+
+    private final String key;
+
+    /**
+     * The feature this node was compiled from. Null when the payload has the key without a definition.
+     */
+    @Nullable
+    private final Feature<ValueType> source;
+
+    /**
+     * The unwrapped default value
+     */
+    @Nullable
+    private final Object defaultValue;
+
+    /**
+     * The shared result for users that get the default value
+     */
+    private final FeatureResult<ValueType> defaultResult;
+
+    private final List<CompiledRule<ValueType>> rules;
+
+    /**
+     * The values this feature can evaluate to (the default value, forced values and experiment variations),
+     * by instance, mapped to their position. Only read after construction.
+     */
+    @Getter(AccessLevel.NONE)
+    private final Map<Object, Integer> valueSlots;
+
+    private CompiledFeature(String key, @Nullable Feature<ValueType> source) {
+        this.key = key;
+        this.source = source;
+        this.defaultValue = source != null ? GrowthBookJsonUtils.unwrap(source.getDefaultValue()) : null;
+        this.defaultResult = new ConstantFeatureResult<>(this.defaultValue, FeatureResultSource.DEFAULT_VALUE, "");
+        this.rules = compileRules(key, source);
+        this.valueSlots = indexValueSlots(this.defaultValue, this.rules);
+    }
+
+    /**
+     * Find the slot of an evaluated value. Complex values (JSON objects and arrays) are returned
+     * by evaluation as the same instance the payload holds, so they can be matched by identity.
+     *
+     * @param value the evaluated value
+     * @return the slot of the value, or -1 when the value doesn't come from this feature (e.g. a forced override)
+     */
+    public int getValueSlot(@Nullable Object value) {
+        Integer slot = value != null ? valueSlots.get(value) : null;
+        return slot != null ? slot : -1;
+    }
+
+    static <ValueType> CompiledFeature<ValueType> compile(String key, @Nullable Feature<ValueType> feature) {
+        return new CompiledFeature<>(key, feature);
+    }
+
+    private static Map<Object, Integer> indexValueSlots(@Nullable Object defaultValue,
+                                                        List<? extends CompiledRule<?>> rules) {
+        Map<Object, Integer> slots = new IdentityHashMap<>();
+        addValueSlot(slots, defaultValue);
+        for (CompiledRule<?> rule : rules) {
+            if (rule == null) {
+                continue;
+            }
+            if (rule.isForce()) {
+                addValueSlot(slots, rule.getForceValue());
+            } else if (rule.getExperiment() != null && rule.getExperiment().getVariations() != null) {
+                for (Object variation : rule.getExperiment().getVariations()) {
+                    addValueSlot(slots, variation);
+                }
+            }
+        }
+        return slots.isEmpty() ? Collections.emptyMap() : slots;
+    }
+
+    private static void addValueSlot(Map<Object, Integer> slots, @Nullable Object value) {
+        if (value != null && !slots.containsKey(value)) {
+            slots.put(value, slots.size());
+        }
+    }
+
+    private static <ValueType> List<CompiledRule<ValueType>> compileRules(String key, @Nullable Feature<ValueType> feature) {
+        if (feature == null || feature.getRules() == null || feature.getRules().isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<CompiledRule<ValueType>> compiled = new ArrayList<>(feature.getRules().size());
+        for (FeatureRule<ValueType> rule : feature.getRules()) {
+            // a null rule is kept in place so evaluation fails on it exactly as it would on the raw rules
+            compiled.add(rule != null ? new CompiledRule<>(key, rule) : null);
+        }
+        return Collections.unmodifiableList(compiled);
+    }
+}
@@ -0,0 +1,34 @@
+package growthbook.sdk.java.plan;
+
+import growthbook.sdk.java.evaluators.CompiledCondition;
+import growthbook.sdk.java.evaluators.ConditionCompiler;
+import growthbook.sdk.java.model.ParentCondition;
+import lombok.Getter;
+
+/**
+ * <b>INTERNAL</b>: A {@link ParentCondition} with its condition compiled
+ */
+@Getter
+public final class CompiledParentCondition {
+
+    /**
+     * Parent feature's ID
+     */
+    private final String id;
+
+    /**
+     * Condition evaluated against the parent feature's value
+     */
+    private final CompiledCondition condition;
+
+    /**
+     * True for a blocking, feature-level prerequisite
+     */
+    private final boolean gate;
+
+    CompiledParentCondition(ParentCondition parentCondition) {
+        this.id = parentCondition.getId();
+        this.condition = ConditionCompiler.compile(parentCondition.getCondition());
+        this.gate = Boolean.TRUE.equals(parentCondition.getGate());
+    }
+}
@@ -0,0 +1,258 @@
+package growthbook.sdk.java.plan;
+
+import com.google.gson.JsonObject;
+import growthbook.sdk.java.evaluators.CompiledCondition;
+import growthbook.sdk.java.evaluators.ConditionCompiler;
+import growthbook.sdk.java.model.BucketRange;
+import growthbook.sdk.java.model.Experiment;
+import growthbook.sdk.java.model.FeatureResult;
+import growthbook.sdk.java.model.FeatureResultSource;
+import growthbook.sdk.java.model.FeatureRule;
+import growthbook.sdk.java.model.Filter;
+import growthbook.sdk.java.model.Namespace;
+import growthbook.sdk.java.model.ParentCondition;
+import growthbook.sdk.java.model.TrackData;
+import growthbook.sdk.java.model.VariationMeta;
+import growthbook.sdk.java.util.GrowthBookJsonUtils;
+import lombok.Getter;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * <b>INTERNAL</b>: A single {@link FeatureRule} with its defaults resolved ahead of evaluation.
+ * The seed, hash attribute and forced value are resolved once, and experiment rules
+ * carry the {@link Experiment} that every evaluation of the rule runs.
+ *
+ * @param <ValueType> value type for the feature
+ */
+@Getter
+public final class CompiledRule<ValueType> {
+
+    /**
+     * The rule this node was compiled from
+     */
+    private final FeatureRule<ValueType> rule;
+
+    /**
+     * Unique identifier of the rule
+     */
+    @Nullable
+    private final String id;
+
+    /**
+     * Targeting condition of the rule
+     */
+    @Nullable
+    private final JsonObject condition;
+
+    /**
+     * {@link #getCondition()} compiled, null when the rule has no condition
+     */
+    @Nullable
+    private final CompiledCondition compiledCondition;
+
+    /**
+     * Prerequisite flags of the rule, with their conditions compiled
+     */
+    @Nullable
+    private final List<CompiledParentCondition> parentConditions;
+
+    @Nullable
+    private final List<Filter> filters;
+
+    /**
+     * True when the rule forces a value, see {@link #getForceValue()}
+     */
+    private final boolean force;
+
+    /**
+     * The unwrapped forced value
+     */
+    @Nullable
+    private final Object forceValue;
+
+    /**
+     * The shared result for users the forced value is assigned to, null when the rule doesn't force a value
+     */
+    @Nullable
+    private final FeatureResult<ValueType> forceResult;
+
+    /**
+     * The hash attribute, defaulting to {@code id}
+     */
+    private final String hashAttribute;
+
+    @Nullable
+    private final String fallbackAttribute;
+
+    /**
+     * The hash seed, defaulting to the feature key
+     */
+    private final String seed;
+
+    private final boolean stickyBucketingDisabled;
+
+    @Nullable
+    private final BucketRange range;
+
+    @Nullable
+    private final Float coverage;
+
+    @Nullable
+    private final Integer hashVersion;
+
+    @Nullable
+    private final List<TrackData<ValueType>> tracks;
+
+    /**
+     * The experiment run by an experiment rule. Null for force rules and for rules
+     * that neither force a value nor define variations.
+     * The same instance is used by every evaluation of the rule and must not be changed
+     * or handed to callers; they get a copy from {@link #copyExperiment(Experiment)}.
+     */
+    @Nullable
+    private final Experiment<ValueType> experiment;
+
+    /**
+     * Bucket ranges of {@link #getExperiment()}, null when there is no experiment
+     */
+    @Nullable
+    private final BucketRanges bucketRanges;
+
+    CompiledRule(String featureKey, FeatureRule<ValueType> rule) {
+        this.rule = rule;
+        this.id = rule.getId();
+        this.condition = rule.getCondition();
+        this.compiledCondition = rule.getCondition() != null ? ConditionCompiler.compile(rule.getCondition()) : null;
+        this.parentConditions = compileParentConditions(rule.getParentConditions());
+        this.filters = rule.getFilters();
+        this.force = rule.getForce() != null && rule.getForce().isPresent();
+        this.forceValue = this.force ? GrowthBookJsonUtils.unwrap(rule.getForce().getValue()) : null;
+        this.forceResult = this.force ? new ConstantFeatureResult<>(this.forceValue, FeatureResultSource.FORCE, this.id) : null;
+        this.hashAttribute = rule.getHashAttribute() != null ? rule.getHashAttribute() : "id";
+        this.fallbackAttribute = rule.getFallbackAttribute();
+        this.seed = rule.getSeed() != null ? rule.getSeed() : featureKey;
+        this.stickyBucketingDisabled = Boolean.TRUE.equals(rule.getDisableStickyBucketing());
+        this.range = rule.getRange();
+        this.coverage = rule.getCoverage();
+        this.hashVersion = rule.getHashVersion();
+        this.tracks = rule.getTracks();
+        this.experiment = !this.force && rule.getVariations() != null
+                ? buildExperiment(featureKey, rule)
+                : null;
+        this.bucketRanges = this.experiment != null ? BucketRanges.forExperiment(this.experiment) : null;
+    }
+
+    @Nullable
+    private static List<CompiledParentCondition> compileParentConditions(@Nullable List<ParentCondition> parentConditions) {
+        if (parentConditions == null) {
+            return null;
+        }
+
+        List<CompiledParentCondition> compiled = new ArrayList<>(parentConditions.size());
+        for (ParentCondition parentCondition : parentConditions) {
+            compiled.add(parentCondition != null ? new CompiledParentCondition(parentCondition) : null);
+        }
+        return Collections.unmodifiableList(compiled);
+    }
+
+    /**
+     * Copy an experiment compiled with a rule, for results and tracking callbacks of a single exposure.
+     * The collections, variation meta, ranges and condition are copied; variation values are not.
+     *
+     * @param experiment  the experiment of a compiled rule
+     * @param <ValueType> value type for the feature
+     * @return a copy the caller can change without affecting other evaluations
+     */
+    @SuppressWarnings("deprecation")
+    public static <ValueType> Experiment<ValueType> copyExperiment(Experiment<ValueType> experiment) {
+        Namespace namespace = experiment.getNamespace();
+        return Experiment
+                .<ValueType>builder()
+                .key(experiment.getKey())
+                .variations(new ArrayList<>(experiment.getVariations()))
+                .weights(copyList(experiment.getWeights()))
+                .isActive(experiment.getIsActive())
+                .coverage(experiment.getCoverage())
+                .conditionJson(experiment.getConditionJson() != null ? experiment.getConditionJson().deepCopy() : null)
+                .parentConditions(copyList(experiment.getParentConditions()))
+                .namespace(namespace != null
+                        ? new Namespace(namespace.getId(), namespace.getRangeStart(), namespace.getRangeEnd())
+                        : null)
+                .force(experiment.getForce())
+                .hashAttribute(experiment.getHashAttribute())
+                .hashVersion(experiment.getHashVersion())
+                .ranges(copyRanges(experiment.getRanges()))
+                .meta(copyMeta(experiment.getMeta()))
+                .filters(copyList(experiment.getFilters()))
+                .seed(experiment.getSeed())
+                .name(experiment.getName())
+                .phase(experiment.getPhase())
+                .fallbackAttribute(experiment.getFallbackAttribute())
+                .disableStickyBucketing(experiment.getDisableStickyBucketing())
+                .bucketVersion(experiment.getBucketVersion())
+                .minBucketVersion(experiment.getMinBucketVersion())
+                .customFields(experiment.getCustomFields() != null ? new HashMap<>(experiment.getCustomFields()) : null)
+                .build();
+    }
+
+    @Nullable
+    private static <T> ArrayList<T> copyList(@Nullable List<T> list) {
+        return list != null ? new ArrayList<>(list) : null;
+    }
+
+    @Nullable
+    private static ArrayList<BucketRange> copyRanges(@Nullable List<BucketRange> ranges) {
+        if (ranges == null) {
+            return null;
+        }
+        ArrayList<BucketRange> copy = new ArrayList<>(ranges.size());
+        for (BucketRange range : ranges) {
+            copy.add(range != null ? new BucketRange(range.getRangeStart(), range.getRangeEnd()) : null);
+        }
+        return copy;
+    }
+
+    @Nullable
+    private static ArrayList<VariationMeta> copyMeta(@Nullable List<VariationMeta> meta) {
+        if (meta == null) {
+            return null;
+        }
+        ArrayList<VariationMeta> copy = new ArrayList<>(meta.size());
+        for (VariationMeta variationMeta : meta) {
+            copy.add(variationMeta != null
+                    ? new VariationMeta(variationMeta.getKey(), variationMeta.getName(), variationMeta.getPassThrough())
+                    : null);
+        }
+        return copy;
+    }
+
+    private static <ValueType> Experiment<ValueType> buildExperiment(String featureKey, FeatureRule<ValueType> rule) {
+        return Experiment
+                .<ValueType>builder()
+                .key(rule.getKey() != null ? rule.getKey() : featureKey)
+                .variations(rule.getVariations())
+                .coverage(rule.getCoverage())
+                .weights(rule.getWeights())
+                .hashAttribute(rule.getHashAttribute())
+                .fallbackAttribute(rule.getFallbackAttribute())
+                .disableStickyBucketing(rule.getDisableStickyBucketing())
+                .bucketVersion(rule.getBucketVersion())
+                .minBucketVersion(rule.getMinBucketVersion())
+                .namespace(rule.getNamespace())
+                .meta(rule.getMeta())
+                .ranges(rule.getRanges())
+                .name(rule.getName())
+                .phase(rule.getPhase())
+                .seed(rule.getSeed())
+                .hashVersion(rule.getHashVersion())
+                .filters(rule.getFilters())
+                .conditionJson(rule.getCondition())
+                .customFields(rule.getCustomFields())
+                .build();
+    }
+}
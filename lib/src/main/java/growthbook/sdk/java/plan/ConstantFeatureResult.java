@@ -0,0 +1,103 @@
+package growthbook.sdk.java.plan;
+
+import growthbook.sdk.java.model.Experiment;
+import growthbook.sdk.java.model.ExperimentResult;
+import growthbook.sdk.java.model.FeatureResult;
+import growthbook.sdk.java.model.FeatureResultSource;
+
+import javax.annotation.Nullable;
+
+/**
+ * <b>INTERNAL</b>: A {@link FeatureResult} that is the same for every user, built once and
+ * returned by every evaluation with that outcome (an unknown feature, a default value,
+ * a forced value, a failed prerequisite). The setters throw, as the instance is shared between threads;
+ * it stays inside the SDK, and results handed to callers are copied with {@link #unshared(FeatureResult)}.
+ *
+ * @param <ValueType> value type for the feature
+ */
+public final class ConstantFeatureResult<ValueType> extends FeatureResult<ValueType> {
+    private static final ConstantFeatureResult<?> UNKNOWN_FEATURE =
+            new ConstantFeatureResult<>(null, FeatureResultSource.UNKNOWN_FEATURE, "");
+    private static final ConstantFeatureResult<?> CYCLIC_PREREQUISITE =
+            new ConstantFeatureResult<>(null, FeatureResultSource.CYCLIC_PREREQUISITE, "");
+    private static final ConstantFeatureResult<?> PREREQUISITE =
+            new ConstantFeatureResult<>(null, FeatureResultSource.PREREQUISITE, "");
+
+    ConstantFeatureResult(@Nullable Object value, FeatureResultSource source, @Nullable String ruleId) {
+        super(value, source, null, null, ruleId);
+    }
+
+    /**
+     * @param <ValueType> value type for the feature
+     * @return the result for a feature that isn't in the payload
+     */
+    @SuppressWarnings("unchecked")
+    public static <ValueType> FeatureResult<ValueType> unknownFeature() {
+        return (FeatureResult<ValueType>) UNKNOWN_FEATURE;
+    }
+
+    /**
+     * @param <ValueType> value type for the feature
+     * @return the result for a feature whose prerequisites depend on itself
+     */
+    @SuppressWarnings("unchecked")
+    public static <ValueType> FeatureResult<ValueType> cyclicPrerequisite() {
+        return (FeatureResult<ValueType>) CYCLIC_PREREQUISITE;
+    }
+
+    /**
+     * @param <ValueType> value type for the feature
+     * @return the result for a feature blocked by a prerequisite
+     */
+    @SuppressWarnings("unchecked")
+    public static <ValueType> FeatureResult<ValueType> prerequisite() {
+        return (FeatureResult<ValueType>) PREREQUISITE;
+    }
+
+    /**
+     * @param result      a feature result
+     * @param <ValueType> value type for the feature
+     * @return a copy of a shared result that the caller can change, or the result itself when it isn't shared.
+     * The experiment of an experiment rule's result is replaced by a copy, see {@link CompiledRule#copyExperiment(Experiment)}.
+     */
+    public static <ValueType> FeatureResult<ValueType> unshared(FeatureResult<ValueType> result) {
+        if (result instanceof ConstantFeatureResult) {
+            return new FeatureResult<>(result.getValue(), result.getSource(), null, null, result.getRuleId());
+        }
+        if (result.getExperiment() != null) {
+            return new FeatureResult<>(
+                    result.getValue(),
+                    result.getSource(),
+                    CompiledRule.copyExperiment(result.getExperiment()),
+                    result.getExperimentResult(),
+                    result.getRuleId()
+            );
+        }
+        return result;
+    }
+
+    @Override
+    public void setValue(@Nullable Object value) {
+        throw new UnsupportedOperationException("Shared feature results can't be changed");
+    }
+
+    @Override
+    public void setSource(@Nullable FeatureResultSource source) {
+        throw new UnsupportedOperationException("Shared feature results can't be changed");
+    }
+
+    @Override
+    public void setExperiment(@Nullable Experiment<ValueType> experiment) {
+        throw new UnsupportedOperationException("Shared feature results can't be changed");
+    }
+
+    @Override
+    public void setExperimentResult(@Nullable ExperimentResult<ValueType> experimentResult) {
+        throw new UnsupportedOperationException("Shared feature results can't be changed");
+    }
+
+    @Override
+    public void setRuleId(@Nullable String ruleId) {
+        throw new UnsupportedOperationException("Shared feature results can't be changed");
+    }
+}
@@ -0,0 +1,347 @@
+package growthbook.sdk.java.plan;
+
+import growthbook.sdk.java.model.Feature;
+import growthbook.sdk.java.util.GrowthBookJsonUtils;
+import lombok.Value;
+
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <b>INTERNAL</b>: Immutable evaluation plan for a features snapshot.
+ * It is compiled once when a payload is loaded (or a {@code GlobalContext} is built)
+ * and shared by every evaluation against that snapshot, so evaluation only walks
+ * pre-resolved {@link CompiledFeature} and {@link CompiledRule} nodes.
+ * Prerequisite cycles are found when the plan is compiled, so only features on a cycle
+ * need to be tracked on the evaluation path.
+ * Feature values deserialized to a class are cached per plan, see {@link #decodeValue(String, Object, Class, boolean)}.
+ */
+public final class FeaturePlan {
+    private static final FeaturePlan EMPTY = new FeaturePlan(Collections.emptyMap(), Collections.emptyMap());
+
+    private final Map<String, Feature<?>> features;
+    private final Map<String, CompiledFeature<?>> compiledFeatures;
+
+    /**
+     * Keys of the features that are on a prerequisite cycle, i.e. can be their own (transitive) parent
+     */
+    private final Set<String> cyclicFeatures;
+
+    /**
+     * Keys of the compiled features, every feature after its prerequisites (unless they are on a cycle)
+     */
+    private final List<String> evaluationOrder;
+
+    /**
+     * Deserialized feature values by feature, value slot and class.
+     * It is bounded by the values in the snapshot, and dropped with the plan when a new payload is loaded.
+     */
+    private final ConcurrentMap<DecodedValueKey, Object> decodedValues = new ConcurrentHashMap<>();
+
+    private FeaturePlan(Map<String, Feature<?>> features, Map<String, CompiledFeature<?>> compiledFeatures) {
+        this.features = features;
+        this.compiledFeatures = compiledFeatures;
+
+        Set<String> cyclic = new HashSet<>();
+        List<String> order = new ArrayList<>(compiledFeatures.size());
+        analyzePrerequisites(compiledFeatures, cyclic, order);
+        this.cyclicFeatures = Collections.unmodifiableSet(cyclic);
+        this.evaluationOrder = Collections.unmodifiableList(order);
+    }
+
+    /**
+     * Compile the plan for a features snapshot
+     *
+     * @param features the parsed features, keyed by feature key
+     * @return the compiled plan; an empty plan when there are no features
+     */
+    public static FeaturePlan compile(@Nullable Map<String, Feature<?>> features) {
+        if (features == null || features.isEmpty()) {
+            return features == null ? EMPTY : new FeaturePlan(features, Collections.emptyMap());
+        }
+
+        Map<String, CompiledFeature<?>> compiled = new HashMap<>(features.size() * 4 / 3 + 1);
+        for (Map.Entry<String, Feature<?>> entry : features.entrySet()) {
+            compiled.put(entry.getKey(), CompiledFeature.compile(entry.getKey(), entry.getValue()));
+        }
+        return new FeaturePlan(features, Collections.unmodifiableMap(compiled));
+    }
+
+    /**
+     * Compile the plan for a new snapshot of the same features, reusing the compiled features
+     * (and their deserialized values) of the previous plan for the definitions that are the same instances.
+     * Prerequisites are analyzed again, as a changed feature can close or break a cycle.
+     *
+     * @param features the parsed features, keyed by feature key
+     * @param previous the plan of the previous snapshot, if any
+     * @return the compiled plan; an empty plan when there are no features
+     */
+    public static FeaturePlan compile(@Nullable Map<String, Feature<?>> features, @Nullable FeaturePlan previous) {
+        if (previous == null || previous.compiledFeatures.isEmpty() || features == null || features.isEmpty()) {
+            return compile(features);
+        }
+
+        Map<String, CompiledFeature<?>> compiled = new HashMap<>(features.size() * 4 / 3 + 1);
+        Set<String> reusedKeys = new HashSet<>();
+        for (Map.Entry<String, Feature<?>> entry : features.entrySet()) {
+            CompiledFeature<?> previousFeature = previous.compiledFeatures.get(entry.getKey());
+            if (previousFeature != null && previousFeature.getSource() == entry.getValue()
+                    && previous.features.get(entry.getKey()) == entry.getValue()) {
+                compiled.put(entry.getKey(), previousFeature);
+                reusedKeys.add(entry.getKey());
+            } else {
+                compiled.put(entry.getKey(), CompiledFeature.compile(entry.getKey(), entry.getValue()));
+            }
+        }
+
+        FeaturePlan plan = new FeaturePlan(features, Collections.unmodifiableMap(compiled));
+        for (Map.Entry<DecodedValueKey, Object> decoded : previous.decodedValues.entrySet()) {
+            if (reusedKeys.contains(decoded.getKey().getFeatureKey())) {
+                plan.decodedValues.put(decoded.getKey(), decoded.getValue());
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * @return the features map this plan was compiled from
+     */
+    public Map<String, Feature<?>> getFeatures() {
+        return features;
+    }
+
+    /**
+     * Check whether this plan was compiled from the given features map
+     *
+     * @param features features map
+     * @return true when the plan was compiled from that exact map instance
+     */
+    public boolean isCompiledFrom(@Nullable Map<String, Feature<?>> features) {
+        return features == null ? this == EMPTY : this.features == features;
+    }
+
+    /**
+     * Look up the compiled feature for a key.
+     * If the source map was changed in place after compiling, the current definition is compiled on the fly.
+     *
+     * @param key feature key
+     * @return the compiled feature, or null when the key is unknown
+     */
+    @Nullable
+    public CompiledFeature<?> getFeature(String key) {
+        Feature<?> current = features.get(key);
+        if (current == null && !features.containsKey(key)) {
+            return null;
+        }
+        CompiledFeature<?> compiled = compiledFeatures.get(key);
+        if (compiled != null && compiled.getSource() == current) {
+            return compiled;
+        }
+        return CompiledFeature.compile(key, current);
+    }
+
+    /**
+     * Check whether evaluating a feature can lead back to it through prerequisites, so it must be tracked
+     * on the evaluation path to detect the cycle. A feature whose definition was changed in place
+     * after compiling is always tracked, as its prerequisites weren't part of the analysis.
+     *
+     * @param key feature key
+     * @return true when the feature is on a prerequisite cycle or may be
+     */
+    public boolean mayBeOnPrerequisiteCycle(String key) {
+        CompiledFeature<?> compiled = compiledFeatures.get(key);
+        if (compiled == null) {
+            return features.containsKey(key);
+        }
+        return cyclicFeatures.contains(key) || compiled.getSource() != features.get(key);
+    }
+
+    /**
+     * The order to evaluate all features in, so prerequisites are evaluated (and memoized) before
+     * the features that depend on them. Features changed in place after compiling keep their position.
+     *
+     * @return the keys of the compiled features
+     */
+    public List<String> getEvaluationOrder() {
+        return evaluationOrder;
+    }
+
+    /**
+     * Deserialize an evaluated feature value to a class, as the JSON of the value read as that class.
+     * Values from the snapshot (the default value, forced values and experiment variations) are
+     * only deserialized once per class, and the same instance is returned to every caller unless
+     * {@code copy} is set. Other values, e.g. forced overrides, are deserialized on every call.
+     *
+     * @param featureKey feature key
+     * @param value      the evaluated value
+     * @param type       the class to deserialize to
+     * @param copy       true to return a new instance the caller can change
+     * @param <T>        the class to deserialize to
+     * @return the deserialized value, or null when the value is null
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public <T> T decodeValue(String featureKey, @Nullable Object value, Class<T> type, boolean copy) {
+        if (value == null) {
+            return null;
+        }
+
+        CompiledFeature<?> compiled = copy ? null : compiledFeatures.get(featureKey);
+        int slot = compiled != null && compiled.getSource() == features.get(featureKey)
+                ? compiled.getValueSlot(value)
+                : -1;
+        if (slot < 0) {
+            return decode(value, type);
+        }
+
+        DecodedValueKey key = new DecodedValueKey(featureKey, slot, type);
+        Object decoded = decodedValues.get(key);
+        if (decoded == null) {
+            decoded = decode(value, type);
+            if (decoded == null) {
+                return null;
+            }
+            Object raced = decodedValues.putIfAbsent(key, decoded);
+            if (raced != null) {
+                decoded = raced;
+            }
+        }
+        return (T) decoded;
+    }
+
+    private static <T> T decode(Object value, Class<T> type) {
+        GrowthBookJsonUtils jsonUtils = GrowthBookJsonUtils.getInstance();
+        return jsonUtils.gson.fromJson(jsonUtils.gson.toJson(value), type);
+    }
+
+    /**
+     * Find the features on a cycle of the prerequisite graph (the members of strongly connected
+     * components with more than one feature, and features that are their own parent) and
+     * the evaluation order. Tarjan's algorithm completes a component only after all the components
+     * it depends on, so the components come out in dependency order.
+     * It is iterative so long prerequisite chains can't overflow the stack.
+     */
+    private static void analyzePrerequisites(Map<String, CompiledFeature<?>> compiledFeatures,
+                                             Set<String> cyclic,
+                                             List<String> order) {
+        Map<String, List<String>> parents = new HashMap<>();
+        for (Map.Entry<String, CompiledFeature<?>> entry : compiledFeatures.entrySet()) {
+            List<String> parentIds = parentIds(entry.getValue());
+            if (!parentIds.isEmpty()) {
+                parents.put(entry.getKey(), parentIds);
+            }
+        }
+        if (parents.isEmpty()) {
+            order.addAll(compiledFeatures.keySet());
+            return;
+        }
+
+        List<String> components = new ArrayList<>();
+        Map<String, Integer> index = new HashMap<>();
+        Map<String, Integer> lowLink = new HashMap<>();
+        Deque<String> component = new ArrayDeque<>();
+        Set<String> onComponentStack = new HashSet<>();
+
+        for (String root : parents.keySet()) {
+            if (index.containsKey(root)) {
+                continue;
+            }
+
+            // each frame is a feature and the position of the next parent to visit
+            Deque<Object[]> frames = new ArrayDeque<>();
+            frames.push(new Object[]{root, 0});
+            while (!frames.isEmpty()) {
+                Object[] frame = frames.peek();
+                String key = (String) frame[0];
+                int next = (Integer) frame[1];
+                if (next == 0 && !index.containsKey(key)) {
+                    index.put(key, index.size());
+                    lowLink.put(key, index.get(key));
+                    component.push(key);
+                    onComponentStack.add(key);
+                }
+
+                List<String> keyParents = parents.getOrDefault(key, Collections.emptyList());
+                if (next < keyParents.size()) {
+                    frame[1] = next + 1;
+                    String parent = keyParents.get(next);
+                    if (parent.equals(key)) {
+                        cyclic.add(key);
+                    } else if (!index.containsKey(parent)) {
+                        frames.push(new Object[]{parent, 0});
+                    } else if (onComponentStack.contains(parent)) {
+                        lowLink.put(key, Math.min(lowLink.get(key), index.get(parent)));
+                    }
+                    continue;
+                }
+
+                frames.pop();
+                if (!frames.isEmpty()) {
+                    String dependent = (String) frames.peek()[0];
+                    lowLink.put(dependent, Math.min(lowLink.get(dependent), lowLink.get(key)));
+                }
+                if (lowLink.get(key).equals(index.get(key))) {
+                    List<String> members = new ArrayList<>();
+                    String member;
+                    do {
+                        member = component.pop();
+                        onComponentStack.remove(member);
+                        members.add(member);
+                    } while (!member.equals(key));
+                    if (members.size() > 1) {
+                        cyclic.addAll(members);
+                    }
+                    components.addAll(members);
+                }
+            }
+        }
+
+        // features outside the graph have no prerequisites and go first
+        for (String key : compiledFeatures.keySet()) {
+            if (!index.containsKey(key)) {
+                order.add(key);
+            }
+        }
+        for (String key : components) {
+            if (compiledFeatures.containsKey(key)) {
+                order.add(key);
+            }
+        }
+    }
+
+    private static List<String> parentIds(@Nullable CompiledFeature<?> feature) {
+        if (feature == null || feature.getRules().isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<String> parentIds = new ArrayList<>();
+        for (CompiledRule<?> rule : feature.getRules()) {
+            if (rule == null || rule.getParentConditions() == null) {
+                continue;
+            }
+            for (CompiledParentCondition parentCondition : rule.getParentConditions()) {
+                if (parentCondition != null && parentCondition.getId() != null) {
+                    parentIds.add(parentCondition.getId());
+                }
+            }
+        }
+        return parentIds;
+    }
+
+    @Value
+    private static class DecodedValueKey {
+        String featureKey;
+        int slot;
+        Class<?> type;
+    }
+}
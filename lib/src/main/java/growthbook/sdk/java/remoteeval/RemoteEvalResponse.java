@@ -2,6 +2,7 @@ package growthbook.sdk.java.remoteeval;
 
 import com.google.gson.JsonObject;
 import growthbook.sdk.java.model.Feature;
+import growthbook.sdk.java.plan.FeaturePlan;
 import lombok.Getter;
 
 import java.util.Collections;
@@ -15,8 +16,14 @@ public class RemoteEvalResponse {
     private final Map<String, Feature<?>> features;
     private final JsonObject savedGroups;
 
+    /**
+     * Evaluation plan compiled once per response, so cached responses are not recompiled per evaluation
+     */
+    private final FeaturePlan featurePlan;
+
     public RemoteEvalResponse(Map<String, Feature<?>> features, JsonObject savedGroups) {
         this.features = features == null ? Collections.emptyMap() : features;
         this.savedGroups = savedGroups == null ? new JsonObject() : savedGroups;
+        this.featurePlan = FeaturePlan.compile(this.features);
     }
 }
@@ -7,14 +7,20 @@ import growthbook.sdk.java.exception.FeatureFetchException;
 import growthbook.sdk.java.model.Feature;
 import growthbook.sdk.java.model.FeatureResponseKey;
 import growthbook.sdk.java.multiusermode.util.TransformationUtil;
-import growthbook.sdk.java.util.GrowthBookJsonUtils;
 
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Parses the proxy response used by remote evaluation.
  */
 public class RemoteEvalResponseParser {
+    private static final Set<String> RESPONSE_KEYS = new HashSet<>(Arrays.asList(
+            FeatureResponseKey.FEATURE_KEY.getKey(),
+            FeatureResponseKey.SAVED_GROUP_KEY.getKey()
+    ));
 
     public RemoteEvalResponse parse(String responseJson) throws FeatureFetchException {
         if (responseJson == null || responseJson.trim().isEmpty()) {
@@ -34,24 +40,23 @@ public class RemoteEvalResponseParser {
         }
 
         JsonElement savedGroupsElement = jsonObject.get(FeatureResponseKey.SAVED_GROUP_KEY.getKey());
-        Map<String, Feature<?>> features = TransformationUtil.transformFeatures(featuresElement.toString());
-        JsonObject savedGroups = savedGroupsElement == null
-                ? new JsonObject()
-                : TransformationUtil.transformSavedGroups(savedGroupsElement.toString());
+        Map<String, Feature<?>> features = TransformationUtil.transformFeatures(featuresElement);
+        JsonObject savedGroups = TransformationUtil.transformSavedGroups(savedGroupsElement);
 
         return new RemoteEvalResponse(features, savedGroups);
     }
 
     private JsonObject parseJsonObject(String responseJson) throws FeatureFetchException {
         try {
-            JsonElement element = GrowthBookJsonUtils.getInstance().gson.fromJson(responseJson, JsonElement.class);
-            if (element == null || !element.isJsonObject()) {
+            // one pass over the response, keeping only the features and saved groups
+            JsonObject members = TransformationUtil.readMembers(responseJson, RESPONSE_KEYS);
+            if (members == null) {
                 throw new FeatureFetchException(
                         FeatureFetchException.FeatureFetchErrorCode.CONFIGURATION_ERROR,
                         "Remote evaluation response must be a JSON object"
                 );
             }
-            return element.getAsJsonObject();
+            return members;
         } catch (JsonSyntaxException e) {
             throw new FeatureFetchException(
                     FeatureFetchException.FeatureFetchErrorCode.CONFIGURATION_ERROR,
@@ -1,7 +1,9 @@
 package growthbook.sdk.java.repository;
 
 import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonSyntaxException;
 import growthbook.sdk.java.callback.FeatureRefreshCallback;
 import growthbook.sdk.java.exception.FeatureFetchException;
 import growthbook.sdk.java.exception.RetryableFeatureFetchException;
@@ -14,13 +16,18 @@ import growthbook.sdk.java.model.FeatureResponseKey;
 import growthbook.sdk.java.model.GBContext;
 import growthbook.sdk.java.model.HttpHeaders;
 import growthbook.sdk.java.model.RequestBodyForRemoteEval;
+import growthbook.sdk.java.multiusermode.util.IncrementalFeatureParser;
 import growthbook.sdk.java.multiusermode.util.TransformationUtil;
+import growthbook.sdk.java.plan.FeaturePlan;
 import growthbook.sdk.java.remoteeval.RemoteEvalEndpoints;
 import growthbook.sdk.java.retry.FeatureFetchRetryExecutor;
 import growthbook.sdk.java.retry.FeatureFetchRetryPolicy;
 import growthbook.sdk.java.sandbox.CacheManagerFactory;
 import growthbook.sdk.java.sandbox.CacheMode;
+import growthbook.sdk.java.sandbox.CacheOutputStream;
 import growthbook.sdk.java.sandbox.GbCacheManager;
+import growthbook.sdk.java.sandbox.StreamingGbCacheManager;
+import growthbook.sdk.java.sandbox.TeeCacheInputStream;
 import growthbook.sdk.java.util.DecryptionUtils;
 import growthbook.sdk.java.util.GrowthBookJsonUtils;
 import growthbook.sdk.java.sse.SseEventPayloadValidator;
@@ -42,14 +49,19 @@ import org.jetbrains.annotations.NotNull;
 
 import javax.annotation.Nullable;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
@@ -210,6 +222,17 @@ public class GBFeaturesRepository implements IGBFeaturesRepository {
     @Getter
     private JsonObject parsedSavedGroups = new JsonObject();
 
+    /**
+     * Evaluation plan compiled from {@link #parsedFeatures} when the payload is loaded
+     */
+    @Getter
+    private FeaturePlan featurePlan = FeaturePlan.compile(this.parsedFeatures);
+
+    /**
+     * Re-parses only the features that changed since the previous payload
+     */
+    private final IncrementalFeatureParser featureParser = new IncrementalFeatureParser();
+
     public void setCacheManager(GbCacheManager cacheManager) {
         if (!isCacheDisabled) {
             this.cacheManager = cacheManager;
@@ -809,6 +832,21 @@ public class GBFeaturesRepository implements IGBFeaturesRepository {
         }
 
         try {
+            Reader cachedReader = this.cacheManager instanceof StreamingGbCacheManager
+                    ? ((StreamingGbCacheManager) this.cacheManager).openCache(FILE_NAME)
+                    : null;
+            if (cachedReader != null) {
+                // parse the cache file as it is read
+                try (Reader cachedData = cachedReader) {
+                    JsonObject cachedMembers = TransformationUtil.readMembers(cachedData, FeatureResponseKey.allKeys());
+                    if (cachedMembers == null) {
+                        return false;
+                    }
+                    onResponseMembers(cachedMembers, true);
+                }
+                return this.hasFeatureData.get();
+            }
+
             String cachedData = this.cacheManager.loadCache(FILE_NAME);
             if (cachedData == null || cachedData.trim().isEmpty()) {
                 return false;
@@ -827,20 +865,72 @@ public class GBFeaturesRepository implements IGBFeaturesRepository {
      * @param responseJsonString JSON response object
      */
     private void onResponseJson(String responseJsonString, boolean isFromCache) throws FeatureFetchException {
-        try {
-            if (!isFromCache && !isCacheDisabled && cacheManager != null) {
-                try {
-                    cacheManager.saveContent(FILE_NAME, responseJsonString);
-                } catch (RuntimeException ignored) {
-                }
+        if (!isFromCache && !isCacheDisabled && cacheManager != null) {
+            try {
+                cacheManager.saveContent(FILE_NAME, responseJsonString);
+            } catch (RuntimeException ignored) {
+            }
+        }
+
+        // one pass over the response, keeping only the members read below
+        onResponseMembers(TransformationUtil.readMembers(responseJsonString, FeatureResponseKey.allKeys()), isFromCache);
+    }
+
+    /**
+     * Parses the response body as it is read, and copies it to the cache file when the cache manager can stream.
+     * Other cache managers take the response as a String.
+     *
+     * @param responseBody successful response body
+     */
+    private void onResponseBody(ResponseBody responseBody) throws IOException, FeatureFetchException {
+        boolean cacheEnabled = !isCacheDisabled && cacheManager != null;
+        if (cacheEnabled && !(cacheManager instanceof StreamingGbCacheManager)) {
+            onResponseJson(responseBody.string(), false);
+            return;
+        }
+
+        CacheOutputStream cacheOutput = null;
+        if (cacheEnabled) {
+            try {
+                cacheOutput = ((StreamingGbCacheManager) cacheManager).openContentStream(FILE_NAME);
+            } catch (RuntimeException ignored) {
             }
+        }
 
-            JsonObject jsonObject = GrowthBookJsonUtils.getInstance()
-                    .gson.fromJson(responseJsonString, JsonObject.class);
+        JsonObject responseMembers;
+        try (TeeCacheInputStream body = new TeeCacheInputStream(responseBody.byteStream(), cacheOutput)) {
+            responseMembers = TransformationUtil.readMembers(
+                    new InputStreamReader(body, StandardCharsets.UTF_8),
+                    FeatureResponseKey.allKeys()
+            );
+            body.commitCache();
+        } catch (JsonIOException e) {
+            // failed to read the response, rather than to parse it
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        }
+        onResponseMembers(responseMembers, false);
+    }
+
+    /**
+     * Reads the response JSON properties `features` or `encryptedFeatures`, and decrypts if necessary
+     *
+     * @param jsonObject members of the JSON response object, null when the response is not an object
+     */
+    private void onResponseMembers(@Nullable JsonObject jsonObject, boolean isFromCache) throws FeatureFetchException {
+        try {
+            if (jsonObject == null) {
+                throw new JsonSyntaxException("Expected a JSON object");
+            }
 
             // Features will be refreshed as either an encrypted or un-encrypted JSON string
             String refreshedFeatures;
+            IncrementalFeatureParser.Result parsed;
             String refreshedSavedGroups = "";
+            JsonElement parsedFeaturesElement = null;
+            JsonElement parsedSavedGroupsElement = null;
 
             if (this.decryptionKey != null) {
                 // Use encrypted features at responseBody.encryptedFeatures
@@ -864,6 +954,7 @@ public class GBFeaturesRepository implements IGBFeaturesRepository {
                 }
 
                 refreshedFeatures = DecryptionUtils.decrypt(encryptedFeaturesJson, this.decryptionKey).trim();
+                parsed = featureParser.parse(refreshedFeatures);
             } else {
                 // Use unencrypted features at responseBody.features
                 JsonElement featuresJsonElement = jsonObject.get(FeatureResponseKey.FEATURE_KEY.getKey());
@@ -884,21 +975,29 @@ public class GBFeaturesRepository implements IGBFeaturesRepository {
                     refreshedSavedGroups = savedGroupsJsonElement.toString().trim();
                 }
 
-                refreshedFeatures = featuresJsonElement.toString().trim();
+                // serialized once, as the features are fingerprinted
+                parsed = featureParser.parse(featuresJsonElement);
+                refreshedFeatures = parsed.getFeaturesJson();
+                parsedFeaturesElement = featuresJsonElement;
+                parsedSavedGroupsElement = savedGroupsJsonElement;
             }
 
             this.featuresJson = refreshedFeatures;
             this.savedGroupsJson = refreshedSavedGroups;
 
-            Map<String, Feature<?>> newParsed = TransformationUtil.transformFeatures(this.featuresJson);
-            JsonObject newSaved = TransformationUtil.transformSavedGroups(this.savedGroupsJson);
+            // bound from the parsed members, only the features that changed since the previous payload
+            Map<String, Feature<?>> newParsed = parsed.getFeatures();
+            JsonObject newSaved = parsedFeaturesElement != null
+                    ? TransformationUtil.transformSavedGroups(parsedSavedGroupsElement)
+                    : TransformationUtil.transformSavedGroups(this.savedGroupsJson);
+            this.featurePlan = FeaturePlan.compile(newParsed, this.featurePlan);
             this.parsedFeatures = newParsed;
             this.parsedSavedGroups = newSaved == null ? new JsonObject() : newSaved;
             this.hasFeatureData.set(true);
 
             if (!isFromCache) {
                 this.lastSuccessfulFetchAtMillis.set(System.currentTimeMillis());
-                this.onRefreshSuccess(this.featuresJson);
+                this.onRefreshSuccess(this.featuresJson, parsed.getChangedKeys());
             }
             // bump TTL only after successful processing
             this.refreshExpiresAt();
@@ -914,9 +1013,14 @@ public class GBFeaturesRepository implements IGBFeaturesRepository {
     }
 
     private void onRefreshSuccess(String featuresJson) {
+        onRefreshSuccess(featuresJson, Collections.emptySet());
+    }
+
+    private void onRefreshSuccess(String featuresJson, Set<String> changedFeatureKeys) {
         for (FeatureRefreshCallback callback : this.refreshCallbacks) {
             if (callback != null) {
                 callback.onRefresh(featuresJson);
+                callback.onFeaturesChanged(changedFeatureKeys);
             }
         }
     }
@@ -935,6 +1039,16 @@ public class GBFeaturesRepository implements IGBFeaturesRepository {
      * @param response Successful response
      */
     private void onSuccess(Response response) throws FeatureFetchException {
+        onSuccess(response, true);
+    }
+
+    /**
+     * Handles the successful features fetching response
+     *
+     * @param response   Successful response
+     * @param streamBody whether the body may be parsed and cached as it is read, rather than read as a String
+     */
+    private void onSuccess(Response response, boolean streamBody) throws FeatureFetchException {
         try {
             ResponseBody responseBody = response.body();
 
@@ -979,7 +1093,11 @@ public class GBFeaturesRepository implements IGBFeaturesRepository {
                 }
             }
 
-            onResponseJson(responseBody.string(), false);
+            if (streamBody) {
+                onResponseBody(responseBody);
+            } else {
+                onResponseJson(responseBody.string(), false);
+            }
 
         } catch (IOException e) {
             log.error("FeatureFetchException: UNKNOWN feature fetch error code {}", e.getMessage(), e);
@@ -1107,7 +1225,8 @@ public class GBFeaturesRepository implements IGBFeaturesRepository {
 
         try (Response response = this.okHttpClient.newCall(request).execute()) {
             if (response.isSuccessful() && response.code() == 200) {
-                onSuccess(response);
+                // remote evaluation responses are per user and small
+                onSuccess(response, false);
             } else {
                 onRefreshFailed(new Throwable("Response is not success, response code is:" + response.code() + ". And message is: " + response.message()));
             }
@@ -1,6 +1,7 @@
 package growthbook.sdk.java.repository;
 
 import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
 import com.google.gson.JsonObject;
 import growthbook.sdk.java.exception.RetryableFeatureFetchException;
 import growthbook.sdk.java.featurefetch.FeatureFetchFailureHandler;
@@ -8,10 +9,14 @@ import growthbook.sdk.java.featurefetch.FeatureFetchHttpStatus;
 import growthbook.sdk.java.featurefetch.FeatureRefreshCacheFreshness;
 import growthbook.sdk.java.featurefetch.FeatureRefreshScheduler;
 import growthbook.sdk.java.model.Feature;
+import growthbook.sdk.java.multiusermode.util.IncrementalFeatureParser;
 import growthbook.sdk.java.multiusermode.util.TransformationUtil;
 import growthbook.sdk.java.retry.FeatureFetchRetryExecutor;
 import growthbook.sdk.java.retry.FeatureFetchRetryPolicy;
+import growthbook.sdk.java.sandbox.CacheOutputStream;
 import growthbook.sdk.java.sandbox.GbCacheManager;
+import growthbook.sdk.java.sandbox.StreamingGbCacheManager;
+import growthbook.sdk.java.sandbox.TeeCacheInputStream;
 import growthbook.sdk.java.util.DecryptionUtils;
 import growthbook.sdk.java.exception.FeatureFetchException;
 import growthbook.sdk.java.callback.FeatureRefreshCallback;
@@ -31,16 +36,20 @@ import lombok.extern.slf4j.Slf4j;
 import javax.annotation.Nullable;
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.io.Reader;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -156,6 +165,16 @@ public class NativeJavaGbFeatureRepository implements IGBFeaturesRepository {
      * or your features would not have loaded.
      */
     private final AtomicReference<String> featuresJson = new AtomicReference<>(EMPTY_JSON_OBJECT_STRING);
+
+    /**
+     * Features parsed from {@link #featuresJson}, keyed by feature key
+     */
+    private final AtomicReference<Map<String, Feature<?>>> parsedFeatures = new AtomicReference<>(Collections.emptyMap());
+
+    /**
+     * Re-parses only the features that changed since the previous payload
+     */
+    private final IncrementalFeatureParser featureParser = new IncrementalFeatureParser();
     /**
      * Optional callbacks for getting updates when features are refreshed
      */
@@ -341,9 +360,8 @@ public class NativeJavaGbFeatureRepository implements IGBFeaturesRepository {
                 this.enqueueFeatureRefreshRequest();
                 this.refreshExpiresAt();
             }
-            return Optional.ofNullable(this.featuresJson.get())
-                    .map(TransformationUtil::transformFeatures)
-                    .orElse(Collections.emptyMap());
+            // a copy, as the map used to be parsed on every call
+            return new HashMap<>(this.parsedFeatures.get());
         } finally {
             lock.unlock();
         }
@@ -423,7 +441,6 @@ public class NativeJavaGbFeatureRepository implements IGBFeaturesRepository {
         }
 
         HttpURLConnection connection = null;
-        BufferedReader reader = null;
 
         try {
             URL url = new URL(this.featuresEndpoint);
@@ -457,20 +474,12 @@ public class NativeJavaGbFeatureRepository implements IGBFeaturesRepository {
                         eTagCache.put(this.featuresEndpoint, newEtag);
                     }
                 }
-                reader = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-                StringBuilder responseBuilder = new StringBuilder();
-                String lines;
-                while ((lines = reader.readLine()) != null) {
-                    responseBuilder.append(lines);
-                }
-                reader.close();
-                String responseBody = responseBuilder.toString();
                 String sseSupportHeader = connection.getHeaderField(HttpHeaders.X_SSE_SUPPORT.getHeader());
                 if (sseSupportHeader == null) {
                     throw new FeatureFetchException(FeatureFetchException.FeatureFetchErrorCode.UNKNOWN);
                 }
                 this.sseAllowed.set(ENABLED.equals(sseSupportHeader));
-                this.onSuccess(responseBody, false);
+                this.onResponseStream(connection.getInputStream());
                 return;
             }
 
@@ -492,13 +501,6 @@ public class NativeJavaGbFeatureRepository implements IGBFeaturesRepository {
                     e
             );
         } finally {
-            if (reader != null) {
-                try {
-                    reader.close();
-                } catch (IOException e) {
-                    log.error(e.getMessage(), e);
-                }
-            }
             if (connection != null) {
                 connection.disconnect();
             }
@@ -536,6 +538,21 @@ public class NativeJavaGbFeatureRepository implements IGBFeaturesRepository {
         }
 
         try {
+            Reader cachedReader = resolvedCacheManager instanceof StreamingGbCacheManager
+                    ? ((StreamingGbCacheManager) resolvedCacheManager).openCache(FILE_NAME_FOR_CACHE)
+                    : null;
+            if (cachedReader != null) {
+                // parse the cache file as it is read
+                try (Reader cachedData = cachedReader) {
+                    JsonObject cachedMembers = TransformationUtil.readMembers(cachedData, FeatureResponseKey.allKeys());
+                    if (cachedMembers == null) {
+                        return false;
+                    }
+                    onResponseMembers(cachedMembers, true);
+                }
+                return this.hasFeatureData.get();
+            }
+
             String cachedData = resolvedCacheManager.loadCache(FILE_NAME_FOR_CACHE);
             if (cachedData == null || cachedData.trim().isEmpty()) {
                 return false;
@@ -573,10 +590,71 @@ public class NativeJavaGbFeatureRepository implements IGBFeaturesRepository {
                 try { cacheManager.get().saveContent(FILE_NAME_FOR_CACHE, responseJsonString); } catch (RuntimeException ignored) {}
             }
 
+            onResponseMembers(TransformationUtil.readMembers(responseJsonString, FeatureResponseKey.allKeys()), isFromCache);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Parses the response as it is read, and copies it to the cache file when the cache manager can stream.
+     * Other cache managers take the response as a String.
+     *
+     * @param response successful response body
+     */
+    private void onResponseStream(InputStream response) throws IOException, FeatureFetchException {
+        GbCacheManager resolvedCacheManager = isCacheDisabled.get() ? null : cacheManager.get();
+        if (resolvedCacheManager != null && !(resolvedCacheManager instanceof StreamingGbCacheManager)) {
+            onSuccess(readFully(response), false);
+            return;
+        }
+
+        // read outside the lock, the cache file is replaced in one move
+        CacheOutputStream cacheOutput = null;
+        if (resolvedCacheManager != null) {
             try {
-                JsonObject jsonObject = GrowthBookJsonUtils.getInstance()
-                        .gson.fromJson(responseJsonString, JsonObject.class);
+                cacheOutput = ((StreamingGbCacheManager) resolvedCacheManager).openContentStream(FILE_NAME_FOR_CACHE);
+            } catch (RuntimeException ignored) {
+            }
+        }
+
+        JsonObject responseMembers;
+        try (TeeCacheInputStream body = new TeeCacheInputStream(response, cacheOutput)) {
+            responseMembers = TransformationUtil.readMembers(
+                    new InputStreamReader(body, StandardCharsets.UTF_8),
+                    FeatureResponseKey.allKeys()
+            );
+            body.commitCache();
+        } catch (JsonIOException e) {
+            // failed to read the response, rather than to parse it
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        }
+        if (responseMembers == null) {
+            // an empty response, like a blank String response
+            return;
+        }
+        onResponseMembers(responseMembers, false);
+    }
 
+    private static String readFully(InputStream response) throws IOException {
+        try (Reader reader = new InputStreamReader(response, StandardCharsets.UTF_8)) {
+            StringBuilder builder = new StringBuilder();
+            char[] buffer = new char[8192];
+            int count;
+            while ((count = reader.read(buffer)) != -1) {
+                builder.append(buffer, 0, count);
+            }
+            return builder.toString();
+        }
+    }
+
+    private void onResponseMembers(@Nullable JsonObject jsonObject, boolean isFromCache) throws FeatureFetchException {
+        try {
+            lock.lock();
+            try {
                 if (jsonObject == null) {
                     log.error("JSON response is null or invalid");
                     throw new FeatureFetchException(
@@ -586,6 +664,7 @@ public class NativeJavaGbFeatureRepository implements IGBFeaturesRepository {
                 }
 
                 String refreshedFeatures;
+                IncrementalFeatureParser.Result parsed;
                 String refreshedSavedGroups = "";
 
                 if (this.encryptionKey != null) {
@@ -606,6 +685,7 @@ public class NativeJavaGbFeatureRepository implements IGBFeaturesRepository {
 
                     String encryptedFeaturesJson = encryptedFeaturesJsonElement.getAsString();
                     refreshedFeatures = DecryptionUtils.decrypt(encryptedFeaturesJson, this.encryptionKey).trim();
+                    parsed = featureParser.parse(refreshedFeatures);
                 } else {
                     JsonElement featuresJsonElement = jsonObject.get(FeatureResponseKey.FEATURE_KEY.getKey());
                     JsonElement savedGroupJsonElement = jsonObject.get(FeatureResponseKey.SAVED_GROUP_KEY.getKey());
@@ -618,22 +698,26 @@ public class NativeJavaGbFeatureRepository implements IGBFeaturesRepository {
                         );
                     }
 
-                    refreshedFeatures = featuresJsonElement.toString().trim();
+                    // serialized once, as the features are fingerprinted;
+                    // only the features that changed since the previous payload are parsed
+                    parsed = featureParser.parse(featuresJsonElement);
+                    refreshedFeatures = parsed.getFeaturesJson();
                     if (savedGroupJsonElement != null) {
                         refreshedSavedGroups = savedGroupJsonElement.toString().trim();
                     }
                 }
 
                 this.featuresJson.set(refreshedFeatures);
+                this.parsedFeatures.set(parsed.getFeatures());
                 this.savedGroupsJson.set(refreshedSavedGroups);
                 this.hasFeatureData.set(true);
                 if (!isFromCache) {
                     this.lastSuccessfulFetchAtMillis.set(System.currentTimeMillis());
-                    this.onRefreshSuccess(this.featuresJson.get());
+                    this.onRefreshSuccess(this.featuresJson.get(), parsed.getChangedKeys());
                 }
             } catch (DecryptionUtils.DecryptionException e) {
-                log.error("DecryptionException exception occur, when try to parse: {}. {}",
-                        responseJsonString, e.getMessage(), e);
+                log.error("DecryptionException exception occur, when try to parse the response. {}",
+                        e.getMessage(), e);
 
                 throw new FeatureFetchException(
                         FeatureFetchException.FeatureFetchErrorCode.UNKNOWN,
@@ -646,9 +730,20 @@ public class NativeJavaGbFeatureRepository implements IGBFeaturesRepository {
     }
 
     public void onRefreshSuccess(String featuresJson) {
+        onRefreshSuccess(featuresJson, Collections.emptySet());
+    }
+
+    /**
+     * Notify the callbacks of a successful refresh
+     *
+     * @param featuresJson       the features JSON
+     * @param changedFeatureKeys keys of the features the refresh added, changed or removed
+     */
+    public void onRefreshSuccess(String featuresJson, Set<String> changedFeatureKeys) {
         for (FeatureRefreshCallback callback : this.refreshCallbacks) {
             if (callback != null) {
                 callback.onRefresh(featuresJson);
+                callback.onFeaturesChanged(changedFeatureKeys);
             }
         }
     }
@@ -0,0 +1,18 @@
+package growthbook.sdk.java.sandbox;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Content being written to a cache entry, see {@link StreamingGbCacheManager#openContentStream(String)}.
+ * The content replaces the cached one when it is committed. Closing the stream without committing discards it.
+ */
+public abstract class CacheOutputStream extends OutputStream {
+
+    /**
+     * Replace the cached content with the content written, and close the stream
+     *
+     * @throws IOException when the content can't be saved
+     */
+    public abstract void commit() throws IOException;
+}
@@ -3,22 +3,30 @@ package growthbook.sdk.java.sandbox;
 import growthbook.sdk.java.exception.FeatureCacheException;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
-import java.io.BufferedReader;
-import java.io.FileReader;
-import java.io.IOException;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 
 /**
- * Class responsible for caching data to a file
+ * Class responsible for caching data to a file, as UTF-8
  */
 @Slf4j
-public class FileCachingManagerImpl implements GbCacheManager {
+public class FileCachingManagerImpl implements StreamingGbCacheManager {
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+
     private final File cacheDir;
 
     public FileCachingManagerImpl(String filePath) {
@@ -41,7 +49,8 @@ public class FileCachingManagerImpl implements GbCacheManager {
      */
     public void saveContent(String fileName, String content) {
         File file = new File(cacheDir, fileName);
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+        try (BufferedWriter writer = new BufferedWriter(
+                new OutputStreamWriter(Files.newOutputStream(file.toPath()), StandardCharsets.UTF_8))) {
            writer.write(content);
        } catch (IOException e) {
            log.error("Error occur while writing data to file with name: {} error message was {}", fileName, e.getMessage());
@@ -57,20 +66,42 @@ public class FileCachingManagerImpl implements GbCacheManager {
     public String loadCache(String fileName) {
         File file = new File(cacheDir, fileName);
 
-        if (!file.exists()) {
-            return null;
-        }
-
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            StringBuilder builder = new StringBuilder();
-            String line;
+        try (Reader reader = openCache(fileName)) {
+            if (reader == null) {
+                return null;
+            }
 
-            while ((line = reader.readLine()) != null) {
-                builder.append(line);
+            StringBuilder builder = new StringBuilder((int) Math.min(file.length(), Integer.MAX_VALUE - 8));
+            char[] buffer = new char[8192];
+            int count;
+            while ((count = reader.read(buffer)) != -1) {
+                builder.append(buffer, 0, count);
             }
 
             return builder.toString().trim();
-        } catch (FileNotFoundException e) {
+        } catch (IOException e) {
+            log.error("Error was occur during reading data from file, error message was - {}", e.getMessage());
+            throw new FeatureCacheException("Failed to read feature cache file: " + fileName, e);
+        }
+    }
+
+    /**
+     * Opens a cache file for reading, without loading it in memory
+     * @param fileName The name of the file in the cache directory.
+     * @return The cached data, or null when the file doesn't exist.
+     */
+    @Nullable
+    @Override
+    public Reader openCache(String fileName) {
+        File file = new File(cacheDir, fileName);
+
+        if (!file.exists()) {
+            return null;
+        }
+
+        try {
+            return new BufferedReader(new InputStreamReader(Files.newInputStream(file.toPath()), StandardCharsets.UTF_8));
+        } catch (NoSuchFileException | FileNotFoundException e) {
             log.error("Error was occur because of file isn't exist, error message was - {}", e.getMessage());
             throw new FeatureCacheException("Feature cache file disappeared while reading: " + fileName, e);
         } catch (IOException e) {
@@ -79,6 +110,24 @@ public class FileCachingManagerImpl implements GbCacheManager {
         }
     }
 
+    /**
+     * Opens a stream that writes to a temporary file in the cache directory.
+     * Committing moves it over the cache file, so a response that is cut off never replaces a complete one.
+     * @param fileName The name of the file in the cache directory.
+     * @return The stream for the new content.
+     */
+    @Override
+    public CacheOutputStream openContentStream(String fileName) {
+        Path target = new File(cacheDir, fileName).toPath();
+        try {
+            Path temp = Files.createTempFile(cacheDir.toPath(), fileName, TEMP_FILE_SUFFIX);
+            return new FileCacheOutputStream(Files.newOutputStream(temp), temp, target);
+        } catch (IOException e) {
+            log.error("Error occur while writing data to file with name: {} error message was {}", fileName, e.getMessage());
+            throw new FeatureCacheException("Failed to write feature cache file: " + fileName, e);
+        }
+    }
+
     @Override
     public Long getLastUpdatedMillis(String fileName) {
         Path cacheFile = new File(cacheDir, fileName).toPath();
@@ -92,6 +141,63 @@ public class FileCachingManagerImpl implements GbCacheManager {
         }
     }
 
+    /**
+     * Content written to a temporary file, moved over the cache file on commit and deleted otherwise
+     */
+    private static final class FileCacheOutputStream extends CacheOutputStream {
+        private final OutputStream out;
+        private final Path temp;
+        private final Path target;
+        private boolean closed;
+
+        private FileCacheOutputStream(OutputStream out, Path temp, Path target) {
+            this.out = out;
+            this.temp = temp;
+            this.target = target;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length);
+        }
+
+        @Override
+        public void commit() throws IOException {
+            if (closed) {
+                throw new IOException("Cache content was already closed: " + target.getFileName());
+            }
+            closed = true;
+            try {
+                out.close();
+                try {
+                    Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                out.close();
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
     /**
      * Clears all cache files in the directory
      */
@@ -0,0 +1,26 @@
+package growthbook.sdk.java.sandbox;
+
+import javax.annotation.Nullable;
+import java.io.Reader;
+
+/**
+ * A {@link GbCacheManager} that reads and writes cached content as streams, so a features payload
+ * doesn't have to be held in memory as a String on its way between the network, the cache and the parser.
+ * The content is UTF-8 JSON, like the features API responses.
+ */
+public interface StreamingGbCacheManager extends GbCacheManager {
+
+    /**
+     * @param key cache key
+     * @return the cached content, or null when nothing is cached. The caller closes it.
+     */
+    @Nullable
+    Reader openCache(String key);
+
+    /**
+     * @param key cache key
+     * @return a stream for new UTF-8 content, which replaces the cached content when it is committed.
+     * The caller closes it.
+     */
+    CacheOutputStream openContentStream(String key);
+}
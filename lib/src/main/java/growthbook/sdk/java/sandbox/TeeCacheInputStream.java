@@ -0,0 +1,124 @@
+package growthbook.sdk.java.sandbox;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * <b>INTERNAL</b>: Copies the bytes read from a response to a {@link CacheOutputStream},
+ * so the response is parsed and cached without being held in memory.
+ * A failure to write to the cache doesn't fail the read; the cached content is discarded instead.
+ */
+@Slf4j
+public class TeeCacheInputStream extends FilterInputStream {
+    @Nullable
+    private CacheOutputStream cache;
+    private boolean endOfStream;
+
+    /**
+     * @param in    response
+     * @param cache receives a copy of the bytes read, or null not to cache them
+     */
+    public TeeCacheInputStream(InputStream in, @Nullable CacheOutputStream cache) {
+        super(in);
+        this.cache = cache;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b == -1) {
+            endOfStream = true;
+        } else if (cache != null) {
+            try {
+                cache.write(b);
+            } catch (IOException e) {
+                discardCache(e);
+            }
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int count = super.read(buffer, offset, length);
+        if (count == -1) {
+            endOfStream = true;
+        } else if (cache != null && count > 0) {
+            try {
+                cache.write(buffer, offset, count);
+            } catch (IOException e) {
+                discardCache(e);
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        // every byte must reach the cache
+        byte[] buffer = new byte[(int) Math.min(n, 8192)];
+        long skipped = 0;
+        while (skipped < n) {
+            int count = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+            if (count == -1) {
+                break;
+            }
+            skipped += count;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    /**
+     * Save the bytes read to the cache, when the response was read to the end
+     *
+     * @return true when the response was cached
+     */
+    public boolean commitCache() {
+        if (cache == null || !endOfStream) {
+            return false;
+        }
+        try {
+            cache.commit();
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to save the response to the cache.", e);
+            return false;
+        } finally {
+            cache = null;
+        }
+    }
+
+    /**
+     * Closes the response, and discards the cached bytes unless they were committed
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            if (cache != null) {
+                cache.close();
+                cache = null;
+            }
+        }
+    }
+
+    private void discardCache(IOException e) {
+        log.warn("Failed to write the response to the cache.", e);
+        try {
+            cache.close();
+        } catch (IOException closeException) {
+            e.addSuppressed(closeException);
+        }
+        cache = null;
+    }
+}
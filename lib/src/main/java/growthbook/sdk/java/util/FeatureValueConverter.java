@@ -0,0 +1,116 @@
+package growthbook.sdk.java.util;
+
+import lombok.experimental.UtilityClass;
+
+import javax.annotation.Nullable;
+
+/**
+ * Converts evaluated feature values (as unwrapped by {@link GrowthBookJsonUtils#unwrap(Object)}) to primitive types
+ * directly, with the results Gson gives when the value is serialized and deserialized as that type.
+ * A value that can't be converted gives null, where Gson would fail.
+ */
+@UtilityClass
+public class FeatureValueConverter {
+
+    /**
+     * @param type the requested type
+     * @return true when values can be converted to the type without Gson
+     */
+    public static boolean isSupported(Class<?> type) {
+        return type == Boolean.class || type == String.class || type == Integer.class
+                || type == Long.class || type == Double.class || type == Float.class;
+    }
+
+    /**
+     * @param value the feature value
+     * @param type  one of the {@link #isSupported(Class) supported} types
+     * @param <T>   the requested type
+     * @return the converted value, or null
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public static <T> T convert(@Nullable Object value, Class<T> type) {
+        if (type == Boolean.class) return (T) toBoolean(value);
+        if (type == String.class) return (T) toStringValue(value);
+        if (type == Integer.class) return (T) toInteger(value);
+        if (type == Long.class) return (T) toLong(value);
+        if (type == Double.class) return (T) toDouble(value);
+        if (type == Float.class) return (T) toFloat(value);
+        throw new IllegalArgumentException("Unsupported feature value type " + type.getName());
+    }
+
+    @Nullable
+    public static Boolean toBoolean(@Nullable Object value) {
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        if (value instanceof String) {
+            return Boolean.parseBoolean((String) value);
+        }
+        return null;
+    }
+
+    @Nullable
+    public static String toStringValue(@Nullable Object value) {
+        if (value instanceof String) {
+            return (String) value;
+        }
+        if (value instanceof Boolean || value instanceof Number) {
+            return value.toString();
+        }
+        return null;
+    }
+
+    @Nullable
+    public static Integer toInteger(@Nullable Object value) {
+        Long longValue = toLong(value);
+        if (longValue == null || longValue != longValue.intValue()) {
+            return null;
+        }
+        return longValue.intValue();
+    }
+
+    @Nullable
+    public static Long toLong(@Nullable Object value) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof String) {
+            try {
+                return Long.parseLong((String) value);
+            } catch (NumberFormatException e) {
+                // may still be a whole number written as a decimal
+            }
+        }
+
+        // like Gson, a decimal is only accepted when it is a whole number
+        Double doubleValue = toDouble(value);
+        if (doubleValue == null) {
+            return null;
+        }
+        long longValue = doubleValue.longValue();
+        return longValue == doubleValue ? longValue : null;
+    }
+
+    @Nullable
+    public static Double toDouble(@Nullable Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        if (value instanceof String) {
+            try {
+                // Gson reads leniently, so "NaN" and "Infinity" are numbers too
+                return Double.parseDouble((String) value);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    public static Float toFloat(@Nullable Object value) {
+        Double doubleValue = toDouble(value);
+        return doubleValue != null ? doubleValue.floatValue() : null;
+    }
+}
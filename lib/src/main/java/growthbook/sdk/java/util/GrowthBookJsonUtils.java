@@ -42,8 +42,8 @@ public class GrowthBookJsonUtils {
         gsonBuilder.registerTypeAdapter(BucketRange.class, BucketRange.getSerializer());
         gsonBuilder.registerTypeAdapter(BucketRange.class, BucketRange.getDeserializer());
 
-        // FeatureResult
-        gsonBuilder.registerTypeAdapter(FeatureResult.class, FeatureResult.getSerializer());
+        // FeatureResult, including the shared results of the feature plan
+        gsonBuilder.registerTypeHierarchyAdapter(FeatureResult.class, FeatureResult.getSerializer());
 
         gsonBuilder.registerTypeAdapter(FeatureRule.class, new FeatureRule<>());
 
@@ -13,8 +13,10 @@ import growthbook.sdk.java.model.GBContext;
 import growthbook.sdk.java.model.HashAttributeAndHashValue;
 import growthbook.sdk.java.model.Namespace;
 import growthbook.sdk.java.model.StickyBucketVariation;
+import growthbook.sdk.java.model.UserAttributes;
 import growthbook.sdk.java.model.VariationMeta;
 import growthbook.sdk.java.multiusermode.configurations.EvaluationContext;
+import growthbook.sdk.java.multiusermode.configurations.UserContext;
 import growthbook.sdk.java.model.StickyAssignmentsDocument;
 import growthbook.sdk.java.multiusermode.util.TransformationUtil;
 import growthbook.sdk.java.stickyBucketing.StickyBucketService;
@@ -32,6 +34,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 /**
  * <b>INTERNAL</b>: Implementation of for internal utility methods to support {@link growthbook.sdk.java.GrowthBook}
  */
@@ -50,33 +53,36 @@ public class GrowthBookUtils {
         if (hashVersion == null) return null;
 
         switch (hashVersion) {
+            // a missing value or seed hashes as "null", as it did when the two were concatenated
             case 1:
-                return hashV1(stringValue, seed);
+                return hashV1(String.valueOf(stringValue), String.valueOf(seed));
             case 2:
-                return hashV2(stringValue, seed);
+                return hashV2(String.valueOf(stringValue), String.valueOf(seed));
             default:
                 return null;
         }
     }
 
+    @Nullable
+    private static Float hash(@Nullable EvaluationContext context, String stringValue, Integer hashVersion, String seed) {
+        return context != null
+                ? context.hash(stringValue, hashVersion, seed)
+                : hash(stringValue, hashVersion, seed);
+    }
+
     private static Float hashV1(String stringValue, String seed) {
-        long hashValue = MathUtils.fnv1a_32((stringValue + seed).getBytes());
-        long thousand = 1000;
-        long remainder = hashValue % thousand;
+        long hash = MathUtils.fnv1a_32(MathUtils.fnv1a_32_init(), stringValue, seed);
 
-        float remainderAsFloat = Float.parseFloat(String.valueOf(remainder));
-        return remainderAsFloat / 1000f;
+        return (hash % 1000) / 1000f;
     }
 
     private static Float hashV2(String stringValue, String seed) {
-        long first = MathUtils.fnv1a_32((seed + stringValue).getBytes());
-        long second = MathUtils.fnv1a_32(String.valueOf(first).getBytes());
+        long first = MathUtils.fnv1a_32(MathUtils.fnv1a_32_init(), seed, stringValue);
 
-        long tenThousand = 10000;
-        long remainder = second % tenThousand;
+        // the second pass hashes the decimal digits of the first hash
+        long second = MathUtils.fnv1a_32(MathUtils.fnv1a_32_init(), first);
 
-        float remainderAsFloat = Float.parseFloat(String.valueOf(remainder));
-        return remainderAsFloat / 10000f;
+        return (second % 10000) / 10000f;
     }
 
     /**
@@ -87,7 +93,19 @@ public class GrowthBookUtils {
      * @return whether the user is in the namespace
      */
     public static Boolean inNameSpace(String userId, Namespace namespace) {
-        Float n = hash(userId + "__", 1, namespace.getId());
+        return inNameSpace(userId, namespace, null);
+    }
+
+    /**
+     * Same as {@link #inNameSpace(String, Namespace)}, with the hash memoized in the evaluation context
+     *
+     * @param userId    The user identifier
+     * @param namespace Namespace to check the user identifier against
+     * @param context   the evaluation context, null to hash without memoizing
+     * @return whether the user is in the namespace
+     */
+    public static Boolean inNameSpace(String userId, Namespace namespace, @Nullable EvaluationContext context) {
+        Float n = hash(context, userId + "__", 1, namespace.getId());
         if (n == null) return false;
         return inRange(n, BucketRange
                 .builder()
@@ -197,7 +215,11 @@ public class GrowthBookUtils {
         String query = url.getQuery();
         Map<String, String> queryMap = UrlUtils.parseQueryString(query);
 
-        String possibleValue = queryMap.get(id);
+        return toVariationOverride(queryMap.get(id), numberOfVariations);
+    }
+
+    @Nullable
+    static Integer toVariationOverride(@Nullable String possibleValue, int numberOfVariations) {
         if (possibleValue == null) {
             return null;
         }
@@ -249,8 +271,11 @@ public class GrowthBookUtils {
      */
     @Nullable
     public static Boolean getForcedBooleanValueFromUrl(String featureKey, URL url) {
-        String value = getForcedFeatureRawValueForKeyFromUrl(featureKey, url);
+        return toForcedBooleanValue(getForcedFeatureRawValueForKeyFromUrl(featureKey, url));
+    }
 
+    @Nullable
+    static Boolean toForcedBooleanValue(@Nullable String value) {
         if (value == null) return null;
 
         value = value.toLowerCase();
@@ -295,8 +320,11 @@ public class GrowthBookUtils {
      */
     @Nullable
     public static Float getForcedFloatValueFromUrl(String featureKey, URL url) {
-        String value = getForcedFeatureRawValueForKeyFromUrl(featureKey, url);
+        return toForcedFloatValue(getForcedFeatureRawValueForKeyFromUrl(featureKey, url));
+    }
 
+    @Nullable
+    static Float toForcedFloatValue(@Nullable String value) {
         if (value == null) return null;
 
         try {
@@ -321,8 +349,11 @@ public class GrowthBookUtils {
      */
     @Nullable
     public static Double getForcedDoubleValueFromUrl(String featureKey, URL url) {
-        String value = getForcedFeatureRawValueForKeyFromUrl(featureKey, url);
+        return toForcedDoubleValue(getForcedFeatureRawValueForKeyFromUrl(featureKey, url));
+    }
 
+    @Nullable
+    static Double toForcedDoubleValue(@Nullable String value) {
         if (value == null) return null;
 
         try {
@@ -347,8 +378,11 @@ public class GrowthBookUtils {
      */
     @Nullable
     public static Integer getForcedIntegerValueFromUrl(String featureKey, URL url) {
-        String value = getForcedFeatureRawValueForKeyFromUrl(featureKey, url);
+        return toForcedIntegerValue(getForcedFeatureRawValueForKeyFromUrl(featureKey, url));
+    }
 
+    @Nullable
+    static Integer toForcedIntegerValue(@Nullable String value) {
         if (value == null) return null;
 
         try {
@@ -365,8 +399,11 @@ public class GrowthBookUtils {
 
     @Nullable
     public static <ValueType> ValueType getForcedSerializableValueFromUrl(String featureKey, URL url, Class<ValueType> valueTypeClass, Gson gson) {
-        String value = getForcedFeatureRawValueForKeyFromUrl(featureKey, url);
+        return toForcedSerializableValue(getForcedFeatureRawValueForKeyFromUrl(featureKey, url), valueTypeClass, gson);
+    }
 
+    @Nullable
+    static <ValueType> ValueType toForcedSerializableValue(@Nullable String value, Class<ValueType> valueTypeClass, Gson gson) {
         if (value == null) return null;
 
         try {
@@ -464,13 +501,42 @@ public class GrowthBookUtils {
         if (filters == null) return false;
         if (attributes == null) return false;
 
+        return isFilteredOut(filters, attributes::get, null);
+    }
+
+    /**
+     * Same as {@link #isFilteredOut(List, JsonObject)} for the user of an evaluation context,
+     * reading the flat {@link UserAttributes} store when the user has one and memoizing hashes in the context.
+     *
+     * @param filters List of Filter
+     * @param context the evaluation context
+     * @return Boolean - if filtered out
+     */
+    public static Boolean isFilteredOut(List<Filter> filters, EvaluationContext context) {
+        if (filters == null) return false;
+
+        UserAttributes userAttributes = context.getUser().getUserAttributes();
+        if (userAttributes != null) {
+            return isFilteredOut(filters, userAttributes::get, context);
+        }
+        JsonObject attributes = context.getUser().getAttributes();
+        if (attributes == null) return false;
+
+        return isFilteredOut(filters, attributes::get, context);
+    }
+
+    private static Boolean isFilteredOut(
+            List<Filter> filters,
+            Function<String, JsonElement> attributes,
+            @Nullable EvaluationContext context
+    ) {
         return filters.stream().anyMatch(filter -> {
             String hashAttribute = filter.getAttribute();
             if (hashAttribute == null) {
                 hashAttribute = "id";
             }
 
-            JsonElement hashValueElement = attributes.get(hashAttribute);
+            JsonElement hashValueElement = attributes.apply(hashAttribute);
             if (hashValueElement == null) return true;
             if (hashValueElement.isJsonNull()) return true;
             if (!hashValueElement.isJsonPrimitive()) return true;
@@ -485,7 +551,7 @@ public class GrowthBookUtils {
                 hashVersion = 2;
             }
 
-            Float n = GrowthBookUtils.hash(hashValue, hashVersion, filter.getSeed());
+            Float n = hash(context, hashValue, hashVersion, filter.getSeed());
             if (n == null) return true;
 
             List<BucketRange> ranges = filter.getRanges();
@@ -533,17 +599,58 @@ public class GrowthBookUtils {
         HashAttributeAndHashValue hashAttributeAndHashValue = GrowthBookUtils
                 .getHashAttribute(hashAttribute, fallbackAttribute, attributes);
 
-        String hashValue = hashAttributeAndHashValue.getHashValue();
+        return isIncludedInRollout(null, hashAttributeAndHashValue.getHashValue(), seed, range, coverage, hashVersion);
+    }
+
+    /**
+     * Same as {@link #isIncludedInRollout(JsonObject, String, String, String, BucketRange, Float, Integer)}
+     * for the user of an evaluation context, with the hash memoized in the context
+     *
+     * @param context           the evaluation context
+     * @param seed              String
+     * @param hashAttribute     String
+     * @param fallbackAttribute String
+     * @param range             BucketRange
+     * @param coverage          Float
+     * @param hashVersion       Integer
+     * @return Boolean - check if user is included
+     */
+    public static Boolean isIncludedInRollout(
+            EvaluationContext context,
+            String seed,
+            String hashAttribute,
+            String fallbackAttribute,
+            @Nullable BucketRange range,
+            @Nullable Float coverage,
+            @Nullable Integer hashVersion
+    ) {
+        if (range == null && coverage == null) return true;
+        if (range == null && coverage == 0) return false;
+
+        if (hashVersion == null) {
+            hashVersion = 1;
+        }
+
+        HashAttributeAndHashValue hashAttributeAndHashValue = GrowthBookUtils
+                .getHashAttribute(hashAttribute, fallbackAttribute, context.getUser());
+
+        return isIncludedInRollout(context, hashAttributeAndHashValue.getHashValue(), seed, range, coverage, hashVersion);
+    }
+
+    private static Boolean isIncludedInRollout(
+            @Nullable EvaluationContext context,
+            String hashValue,
+            String seed,
+            @Nullable BucketRange range,
+            @Nullable Float coverage,
+            Integer hashVersion
+    ) {
         if (hashValue == null || hashValue.isEmpty()) {
             return false;
         }
 
         // Determine the bucket for the user
-        Float hash = GrowthBookUtils.hash(
-                hashValue,
-                hashVersion,
-                seed
-        );
+        Float hash = hash(context, hashValue, hashVersion, seed);
 
         if (hash == null) return false;
 
@@ -686,7 +793,7 @@ public class GrowthBookUtils {
         HashAttributeAndHashValue hashAttributeAndHashValueWithoutFallbackPass = getHashAttribute(
                 expHashAttribute,
                 null,
-                context.getUser().getAttributes()
+                context.getUser()
         );
         String hashKey = hashAttributeAndHashValueWithoutFallbackPass.getHashAttribute() + "||"
                 + hashAttributeAndHashValueWithoutFallbackPass.getHashValue();
@@ -694,7 +801,7 @@ public class GrowthBookUtils {
         HashAttributeAndHashValue hashAttributeAndHashValueWithFallbackAttribute = getHashAttribute(
                 expFallbackAttribute,
                 null,
-                context.getUser().getAttributes()
+                context.getUser()
         );
         String fallBackKey = hashAttributeAndHashValueWithFallbackAttribute.getHashValue().isEmpty()
                 ? null
@@ -872,6 +979,58 @@ public class GrowthBookUtils {
         return new HashAttributeAndHashValue(hashAttribute, hashValue);
     }
 
+    /**
+     * Same as {@link #getHashAttribute(String, String, JsonObject)} on the flat store,
+     * where the string values of the attributes are already rendered.
+     *
+     * @param attr              String
+     * @param fallbackAttribute String
+     * @param attributes        UserAttributes
+     * @return {@link HashAttributeAndHashValue}
+     */
+    public static HashAttributeAndHashValue getHashAttribute(
+            @Nullable String attr,
+            @Nullable String fallbackAttribute,
+            UserAttributes attributes
+    ) {
+        String hashAttribute = attr != null ? attr : "id";
+        String hashValue = attributes.getString(hashAttribute);
+        if (hashValue == null) {
+            hashValue = "";
+        }
+
+        if (hashValue.isEmpty() && fallbackAttribute != null) {
+            String fallbackValue = attributes.getString(fallbackAttribute);
+            if (fallbackValue != null && !fallbackValue.isEmpty()) {
+                hashValue = fallbackValue;
+                hashAttribute = fallbackAttribute;
+            }
+        }
+
+        return new HashAttributeAndHashValue(hashAttribute, hashValue);
+    }
+
+    /**
+     * Get the hash attribute and value from the attributes of a user context,
+     * reading the flat {@link UserAttributes} store when the context has one.
+     *
+     * @param attr              String
+     * @param fallbackAttribute String
+     * @param user              the user context
+     * @return {@link HashAttributeAndHashValue}
+     */
+    public static HashAttributeAndHashValue getHashAttribute(
+            @Nullable String attr,
+            @Nullable String fallbackAttribute,
+            UserContext user
+    ) {
+        UserAttributes userAttributes = user.getUserAttributes();
+        if (userAttributes != null) {
+            return getHashAttribute(attr, fallbackAttribute, userAttributes);
+        }
+        return getHashAttribute(attr, fallbackAttribute, user.getAttributes());
+    }
+
     private static int findVariationIndex(List<VariationMeta> meta, String variationKey) {
         for (int i = 0; i < meta.size(); i++) {
             if (meta.get(i).getKey() != null) {
@@ -0,0 +1,139 @@
+package growthbook.sdk.java.util;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <b>INTERNAL</b>: Hashed membership index over the elements of a {@link JsonArray}.
+ * {@link #contains(JsonElement)} answers exactly like {@link JsonArray#contains(JsonElement)},
+ * but strings are found with a hash lookup and numbers with a lookup on their double value
+ * (numbers Gson considers equal always share the same double value).
+ * A set built with {@link #ignoringCase(JsonArray)} holds its strings lowercased once
+ * and compares strings the way the case-insensitive operators ({@code $ini}, {@code $nini}) do.
+ * Instances are immutable and can be shared between threads.
+ */
+public final class JsonValueSet {
+    private final Set<String> strings = new HashSet<>();
+    private final Map<Double, List<JsonPrimitive>> numbers = new HashMap<>();
+    private final List<JsonElement> others = new ArrayList<>();
+    private final boolean ignoreCase;
+
+    /**
+     * Index the elements of an array
+     *
+     * @param elements JSON array
+     */
+    public JsonValueSet(JsonArray elements) {
+        this(elements, false);
+    }
+
+    private JsonValueSet(JsonArray elements, boolean ignoreCase) {
+        this.ignoreCase = ignoreCase;
+        for (JsonElement element : elements) {
+            if (element.isJsonPrimitive()) {
+                JsonPrimitive primitive = element.getAsJsonPrimitive();
+                if (primitive.isString()) {
+                    strings.add(foldCase(primitive.getAsString()));
+                    continue;
+                }
+                if (primitive.isNumber()) {
+                    numbers.computeIfAbsent(numberKey(primitive), key -> new ArrayList<>(1)).add(primitive);
+                    continue;
+                }
+            }
+            others.add(element);
+        }
+    }
+
+    /**
+     * Index the elements of an array, comparing strings case-insensitively
+     *
+     * @param elements JSON array
+     * @return the set
+     */
+    public static JsonValueSet ignoringCase(JsonArray elements) {
+        return new JsonValueSet(elements, true);
+    }
+
+    /**
+     * @param value JSON value
+     * @return true if an element of the indexed array equals the value
+     */
+    public boolean contains(@Nullable JsonElement value) {
+        if (value == null) {
+            return false;
+        }
+
+        if (value.isJsonPrimitive()) {
+            JsonPrimitive primitive = value.getAsJsonPrimitive();
+            if (primitive.isString()) {
+                return strings.contains(foldCase(primitive.getAsString()));
+            }
+            if (primitive.isNumber()) {
+                List<JsonPrimitive> candidates = numbers.get(numberKey(primitive));
+                if (candidates == null) {
+                    return false;
+                }
+                for (JsonPrimitive candidate : candidates) {
+                    if (primitive.equals(candidate)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+        }
+
+        for (JsonElement other : others) {
+            if (value.equals(other)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Membership test of the {@code $in} family of operators
+     *
+     * @param value JSON value
+     * @return true if the value is in the set or, when the value is an array, if any of its items is
+     */
+    public boolean containsAny(JsonElement value) {
+        if (!value.isJsonArray()) {
+            return contains(value);
+        }
+
+        for (JsonElement item : value.getAsJsonArray()) {
+            if (contains(item)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true if no element is indexed
+     */
+    public boolean isEmpty() {
+        return strings.isEmpty() && numbers.isEmpty() && others.isEmpty();
+    }
+
+    private String foldCase(String value) {
+        // toLowerCase returns the same instance when there is nothing to lower
+        return ignoreCase ? value.toLowerCase() : value;
+    }
+
+    private static Double numberKey(JsonPrimitive number) {
+        double value = number.getAsDouble();
+        // 0.0 and -0.0 are equal JSON numbers but not equal Doubles
+        return value == 0.0 ? 0.0 : value;
+    }
+}
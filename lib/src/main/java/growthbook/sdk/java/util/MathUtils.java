@@ -18,14 +18,92 @@ public class MathUtils {
         long hash = INIT32;
 
         for (byte b : data) {
-            hash ^= (b & 0xff);
-            hash *= PRIME32;
-            hash %= MOD32;
+            hash = update(hash, b);
         }
 
         return hash;
     }
 
+    /**
+     * Start a Fowler-Noll-Vo hash that is fed with {@link #fnv1a_32(long, CharSequence, CharSequence)}
+     * and {@link #fnv1a_32(long, long)}
+     *
+     * @return the initial hash state
+     */
+    public static long fnv1a_32_init() {
+        return INIT32;
+    }
+
+    /**
+     * Feed the UTF-8 bytes of two concatenated strings into a Fowler-Noll-Vo hash,
+     * without concatenating or encoding them. The bytes are the same as
+     * {@code (first + second).getBytes(StandardCharsets.UTF_8)}: an unpaired surrogate is encoded as {@code ?}.
+     *
+     * @param hash   hash state
+     * @param first  first string to hash
+     * @param second string hashed after the first one
+     * @return the new hash state
+     */
+    public static long fnv1a_32(long hash, CharSequence first, CharSequence second) {
+        int firstLength = first.length();
+        int length = firstLength + second.length();
+        for (int i = 0; i < length; i++) {
+            char c = charAt(first, second, firstLength, i);
+            if (c < 0x80) {
+                hash = update(hash, c);
+            } else if (c < 0x800) {
+                hash = update(hash, 0xc0 | (c >> 6));
+                hash = update(hash, 0x80 | (c & 0x3f));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < length
+                        && Character.isLowSurrogate(charAt(first, second, firstLength, i + 1))) {
+                    int codePoint = Character.toCodePoint(c, charAt(first, second, firstLength, ++i));
+                    hash = update(hash, 0xf0 | (codePoint >> 18));
+                    hash = update(hash, 0x80 | ((codePoint >> 12) & 0x3f));
+                    hash = update(hash, 0x80 | ((codePoint >> 6) & 0x3f));
+                    hash = update(hash, 0x80 | (codePoint & 0x3f));
+                } else {
+                    hash = update(hash, '?');
+                }
+            } else {
+                hash = update(hash, 0xe0 | (c >> 12));
+                hash = update(hash, 0x80 | ((c >> 6) & 0x3f));
+                hash = update(hash, 0x80 | (c & 0x3f));
+            }
+        }
+        return hash;
+    }
+
+    private static char charAt(CharSequence first, CharSequence second, int firstLength, int index) {
+        return index < firstLength ? first.charAt(index) : second.charAt(index - firstLength);
+    }
+
+    /**
+     * Feed the decimal digits of a non-negative number into a Fowler-Noll-Vo hash,
+     * the same bytes as {@code String.valueOf(value).getBytes()} without formatting the number
+     *
+     * @param hash  hash state
+     * @param value non-negative number to hash
+     * @return the new hash state
+     */
+    public static long fnv1a_32(long hash, long value) {
+        long divisor = 1;
+        while (value / divisor >= 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            hash = update(hash, (int) ('0' + (value / divisor) % 10));
+        }
+        return hash;
+    }
+
+    private static long update(long hash, int b) {
+        hash ^= (b & 0xff);
+        hash *= PRIME32;
+        // hash and the prime are below 2^32, so the product can't overflow and the modulus is a mask
+        return hash & (MOD32 - 1);
+    }
+
     /**
      * Given a value, ensures it's clamped between the range provided
      *
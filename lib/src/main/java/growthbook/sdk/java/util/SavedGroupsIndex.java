@@ -0,0 +1,86 @@
+package growthbook.sdk.java.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <b>INTERNAL</b>: Hashed membership index for saved groups, used by {@code $inGroup} and {@code $notInGroup}.
+ * One index is kept per saved groups object (by identity, for as long as the object is in use),
+ * so it is built once per payload instead of scanning the group on every evaluation.
+ */
+public final class SavedGroupsIndex {
+    private static final Cache<JsonObject, SavedGroupsIndex> INDEXES = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build();
+
+    // must not reference the saved groups object, it is the weak key of this index
+    private final Map<String, IndexedGroup> groups = new ConcurrentHashMap<>();
+
+    private SavedGroupsIndex(JsonObject savedGroups) {
+        for (Map.Entry<String, JsonElement> entry : savedGroups.entrySet()) {
+            if (entry.getValue() != null && entry.getValue().isJsonArray()) {
+                groups.put(entry.getKey(), new IndexedGroup(entry.getValue().getAsJsonArray()));
+            }
+        }
+    }
+
+    /**
+     * Get the index of a saved groups object, building it on first use
+     *
+     * @param savedGroups saved groups, keyed by group id
+     * @return the index
+     */
+    public static SavedGroupsIndex index(JsonObject savedGroups) {
+        SavedGroupsIndex index = INDEXES.getIfPresent(savedGroups);
+        if (index == null) {
+            index = new SavedGroupsIndex(savedGroups);
+            INDEXES.put(savedGroups, index);
+        }
+        return index;
+    }
+
+    /**
+     * Look up the members of a saved group.
+     * A group that was changed in place after it was indexed is re-indexed.
+     *
+     * @param savedGroups saved groups, keyed by group id
+     * @param groupId     saved group id
+     * @return the group members, or null when there is no such group
+     * @throws IllegalStateException when the saved group is not an array
+     */
+    @Nullable
+    public static JsonValueSet getGroup(JsonObject savedGroups, String groupId) {
+        JsonElement group = savedGroups.get(groupId);
+        if (group == null) {
+            return null;
+        }
+
+        JsonArray members = group.getAsJsonArray();
+        Map<String, IndexedGroup> groups = index(savedGroups).groups;
+        IndexedGroup indexed = groups.get(groupId);
+        if (indexed == null || indexed.source != members || indexed.size != members.size()) {
+            indexed = new IndexedGroup(members);
+            groups.put(groupId, indexed);
+        }
+        return indexed.members;
+    }
+
+    private static final class IndexedGroup {
+        private final JsonArray source;
+        private final int size;
+        private final JsonValueSet members;
+
+        private IndexedGroup(JsonArray source) {
+            this.source = source;
+            this.size = source.size();
+            this.members = new JsonValueSet(source);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package growthbook.sdk.java.util;
+
+import com.google.gson.Gson;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <b>INTERNAL</b>: The overrides in the query string of a page URL, parsed once:
+ * forced feature values ({@code ?gb~my-feature=value}) and forced experiment variations ({@code ?my-experiment=1}).
+ * Values are read the same way as {@link GrowthBookUtils#getForcedStringValueFromUrl(String, URL)}
+ * and {@link GrowthBookUtils#getQueryStringOverride(String, URL, Integer)}.
+ * Instances are immutable and can be shared between threads.
+ */
+@Slf4j
+public final class UrlOverrides {
+    private static final String FORCED_FEATURE_PREFIX = "gb~";
+    private static final UrlOverrides NONE = new UrlOverrides(null, Collections.emptyMap(), Collections.emptyMap());
+
+    /**
+     * The last URL parsed. The URL usually comes from the options and is the same for every evaluation.
+     */
+    private static volatile UrlOverrides lastParsed = NONE;
+
+    @Nullable
+    private final String url;
+    private final Map<String, String> queryParameters;
+    private final Map<String, String> forcedFeatureValues;
+
+    private UrlOverrides(@Nullable String url, Map<String, String> queryParameters, Map<String, String> forcedFeatureValues) {
+        this.url = url;
+        this.queryParameters = queryParameters;
+        this.forcedFeatureValues = forcedFeatureValues;
+    }
+
+    /**
+     * Parse the query string of a URL. A URL without a query string isn't parsed at all.
+     *
+     * @param urlString page URL
+     * @return the overrides in the URL, {@link #none()} when there is no URL, query string or override
+     */
+    public static UrlOverrides parse(@Nullable String urlString) {
+        if (urlString == null || urlString.indexOf('?') < 0) {
+            return NONE;
+        }
+        UrlOverrides last = lastParsed;
+        if (urlString.equals(last.url)) {
+            return last;
+        }
+
+        Map<String, String> queryParameters;
+        try {
+            queryParameters = UrlUtils.parseQueryString(new URL(urlString).getQuery());
+        } catch (MalformedURLException e) {
+            log.error(e.getMessage(), e);
+            queryParameters = Collections.emptyMap();
+        }
+
+        Map<String, String> forcedFeatureValues = new HashMap<>();
+        for (Map.Entry<String, String> parameter : queryParameters.entrySet()) {
+            if (parameter.getKey().startsWith(FORCED_FEATURE_PREFIX)) {
+                forcedFeatureValues.put(parameter.getKey().substring(FORCED_FEATURE_PREFIX.length()), parameter.getValue());
+            }
+        }
+
+        UrlOverrides parsed = new UrlOverrides(
+                urlString,
+                queryParameters.isEmpty() ? Collections.emptyMap() : Collections.unmodifiableMap(queryParameters),
+                forcedFeatureValues.isEmpty() ? Collections.emptyMap() : Collections.unmodifiableMap(forcedFeatureValues)
+        );
+        lastParsed = parsed;
+        return parsed;
+    }
+
+    /**
+     * @return overrides for a URL without any
+     */
+    public static UrlOverrides none() {
+        return NONE;
+    }
+
+    /**
+     * @return true when the URL has no query parameters, so nothing can be overridden
+     */
+    public boolean isEmpty() {
+        return queryParameters.isEmpty();
+    }
+
+    /**
+     * @return true when the URL forces at least one feature value
+     */
+    public boolean hasForcedFeatureValues() {
+        return !forcedFeatureValues.isEmpty();
+    }
+
+    /**
+     * @param featureKey feature key (not prefixed with gb~)
+     * @return the raw forced value, or null when the feature isn't forced
+     */
+    @Nullable
+    public String getForcedFeatureValue(String featureKey) {
+        return forcedFeatureValues.get(featureKey);
+    }
+
+    /**
+     * Read the forced value of a feature as a type, like the {@code getForced...ValueFromUrl} methods
+     * of {@link GrowthBookUtils}.
+     *
+     * @param featureKey     feature key (not prefixed with gb~)
+     * @param valueTypeClass the type of the feature value
+     * @param gson           Gson to read other types than Boolean, String, Integer, Float and Double with
+     * @param <ValueType>    the type of the feature value
+     * @return the forced value, or null when the feature isn't forced or the value can't be read as the type
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public <ValueType> ValueType getForcedFeatureValue(String featureKey, Class<ValueType> valueTypeClass, Gson gson) {
+        String value = forcedFeatureValues.get(featureKey);
+        if (value == null) {
+            return null;
+        }
+
+        if (valueTypeClass.equals(Boolean.class)) {
+            return (ValueType) GrowthBookUtils.toForcedBooleanValue(value);
+        }
+        if (valueTypeClass.equals(String.class)) {
+            return (ValueType) value;
+        }
+        if (valueTypeClass.equals(Integer.class)) {
+            return (ValueType) GrowthBookUtils.toForcedIntegerValue(value);
+        }
+        if (valueTypeClass.equals(Float.class)) {
+            return (ValueType) GrowthBookUtils.toForcedFloatValue(value);
+        }
+        if (valueTypeClass.equals(Double.class)) {
+            return (ValueType) GrowthBookUtils.toForcedDoubleValue(value);
+        }
+        return GrowthBookUtils.toForcedSerializableValue(value, valueTypeClass, gson);
+    }
+
+    /**
+     * @param experimentKey      experiment key
+     * @param numberOfVariations the number of variations
+     * @return the forced variation, or null when the experiment isn't forced or the value isn't a valid variation
+     */
+    @Nullable
+    public Integer getVariationOverride(String experimentKey, int numberOfVariations) {
+        return GrowthBookUtils.toVariationOverride(queryParameters.get(experimentKey), numberOfVariations);
+    }
+}
@@ -10,6 +10,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import growthbook.sdk.java.exception.FeatureCacheException;
+import growthbook.sdk.java.sandbox.CacheOutputStream;
 import growthbook.sdk.java.sandbox.FileCachingManagerImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,6 +18,8 @@ import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 
 class FileCachingManagerImplTest {
     private FileCachingManagerImpl fileCachingManagerImpl;
@@ -111,6 +114,30 @@ class FileCachingManagerImplTest {
         assertEquals("New content", loadedContent);
     }
 
+    @Test
+    void shouldReplaceContentOnlyWhenTheStreamIsCommitted() throws IOException {
+        String fileName = "streamed.txt";
+        fileCachingManagerImpl.saveContent(fileName, "Initial content");
+
+        try (CacheOutputStream discarded = fileCachingManagerImpl.openContentStream(fileName)) {
+            discarded.write("Cut off".getBytes(StandardCharsets.UTF_8));
+        }
+        assertEquals("Initial content", fileCachingManagerImpl.loadCache(fileName));
+
+        try (CacheOutputStream committed = fileCachingManagerImpl.openContentStream(fileName)) {
+            committed.write("{\"name\": \"caf\u00e9\"}".getBytes(StandardCharsets.UTF_8));
+            committed.commit();
+        }
+        assertEquals("{\"name\": \"caf\u00e9\"}", fileCachingManagerImpl.loadCache(fileName));
+        assertEquals(1, tempDir.listFiles().length);
+
+        try (Reader reader = fileCachingManagerImpl.openCache(fileName)) {
+            assertNotNull(reader);
+            assertEquals('{', reader.read());
+        }
+        assertNull(fileCachingManagerImpl.openCache("nonexistent.txt"));
+    }
+
     @Test
     void shouldReturnEmptyStringForEmptyFile() {
         String fileName = "empty.txt";
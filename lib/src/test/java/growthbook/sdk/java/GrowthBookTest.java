@@ -6,6 +6,8 @@ package growthbook.sdk.java;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -203,6 +205,28 @@ class GrowthBookTest {
         assertEquals(FeatureResultSource.DEFAULT_VALUE, featureResult.getSource());
     }
 
+    @Test
+    void test_evalFeature_returnsResultsTheCallerCanChange() {
+        GBContext context = GBContext
+                .builder()
+                .featuresJson("{\"banner\":{\"defaultValue\":\"blue\"},\"promo\":{\"defaultValue\":false,\"rules\":[{\"force\":true}]}}")
+                .build();
+        GrowthBook subject = new GrowthBook(context);
+
+        FeatureResult<String> banner = subject.evalFeature("banner", String.class);
+        banner.setValue("changed by the caller");
+        banner.setSource(FeatureResultSource.OVERRIDE);
+        FeatureResult<Boolean> promo = subject.evalFeature("promo", Boolean.class);
+        promo.setValue(false);
+        subject.evalFeature("missing", Object.class).setRuleId("changed");
+
+        // later evaluations are not affected
+        assertEquals("blue", subject.evalFeature("banner", String.class).getValue());
+        assertEquals(FeatureResultSource.DEFAULT_VALUE, subject.evalFeature("banner", String.class).getSource());
+        assertTrue(subject.isOn("promo"));
+        assertEquals("", subject.evalFeature("missing", Object.class).getRuleId());
+    }
+
     @Test
     @DisplayName("Preserves custom fields on the experiment returned by feature evaluation")
     void test_evalFeature_preservesExperimentCustomFields() {
@@ -820,6 +844,23 @@ class GrowthBookTest {
         assertEquals(defaultConfig, result);
     }
 
+    @Test
+    void test_getFeatureValue_gsonDeserializable_returnsNewInstancesUnlessSharingIsEnabled() {
+        String features = "{\"chat\":{\"defaultValue\":{\"token\":\"app-1\",\"title\":\"Chat\",\"showAgentAvailability\":false}}}";
+        PaperCupsConfig defaultConfig = new PaperCupsConfig("abc123", "My Chat", true);
+
+        GrowthBook copying = new GrowthBook(GBContext.builder().featuresJson(features).build());
+        PaperCupsConfig first = copying.getFeatureValue("chat", defaultConfig, PaperCupsConfig.class);
+        assertEquals("app-1", first.token);
+        assertNotSame(first, copying.getFeatureValue("chat", defaultConfig, PaperCupsConfig.class));
+
+        GrowthBook sharing = new GrowthBook(GBContext.builder().featuresJson(features).copyFeatureValues(false).build());
+        assertSame(
+                sharing.getFeatureValue("chat", defaultConfig, PaperCupsConfig.class),
+                sharing.getFeatureValue("chat", defaultConfig, PaperCupsConfig.class)
+        );
+    }
+
     // endregion getFeatureValue
 
 
@@ -2,11 +2,17 @@ package growthbook.sdk.java;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 import com.google.gson.JsonArray;
 import com.google.gson.reflect.TypeToken;
 import growthbook.sdk.java.model.BucketRange;
 import growthbook.sdk.java.model.Namespace;
+import growthbook.sdk.java.multiusermode.configurations.EvaluationContext;
+import growthbook.sdk.java.multiusermode.configurations.GlobalContext;
+import growthbook.sdk.java.multiusermode.configurations.Options;
+import growthbook.sdk.java.multiusermode.configurations.UserContext;
 import growthbook.sdk.java.testhelpers.TestCasesJsonHelper;
 import growthbook.sdk.java.util.GrowthBookJsonUtils;
 import growthbook.sdk.java.util.GrowthBookUtils;
@@ -52,6 +58,31 @@ class GrowthBookUtilsTest {
         });
     }
 
+    @Test
+    void test_hashMissingSeedHashesAsNull() {
+        assertEquals(GrowthBookUtils.hash("abc", 1, "null"), GrowthBookUtils.hash("abc", 1, null));
+        assertEquals(GrowthBookUtils.hash("null", 2, "seed"), GrowthBookUtils.hash(null, 2, "seed"));
+    }
+
+    @Test
+    void test_evaluationContextMemoizesHashes() {
+        EvaluationContext context = new EvaluationContext(
+                GlobalContext.builder().build(),
+                UserContext.builder().build(),
+                new EvaluationContext.StackContext(),
+                Options.builder().build()
+        );
+
+        for (int hashVersion = 1; hashVersion <= 2; hashVersion++) {
+            Float hash = context.hash("user-1", hashVersion, "feature-a");
+            assertEquals(GrowthBookUtils.hash("user-1", hashVersion, "feature-a"), hash);
+            assertSame(hash, context.hash("user-1", hashVersion, "feature-a"));
+        }
+        assertEquals(GrowthBookUtils.hash("user-1", 1, null), context.hash("user-1", 1, null));
+        assertNull(context.hash("user-1", 3, "feature-a"));
+        assertNull(context.hash("user-1", null, "feature-a"));
+    }
+
     @Test
     void test_inNameSpace() {
         JsonArray testCases = helper.getInNamespaceTestCases();
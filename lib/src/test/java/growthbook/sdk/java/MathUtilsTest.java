@@ -5,6 +5,9 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import growthbook.sdk.java.util.MathUtils;
 import org.junit.jupiter.api.Test;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
 class MathUtilsTest {
 
     @Test
@@ -16,4 +19,35 @@ class MathUtilsTest {
         // 10 is too high, higher range clamped value of 3 returned
         assertEquals(3, MathUtils.clamp(10, 1, 3));
     }
+
+    @Test
+    void test_fnv1a_32_streaming_matches_byte_array() {
+        String[] values = {"", "a", "123", "user-42", "caf\u00e9", "\u65e5\u672c", "\ud83d\ude00 emoji", "lone \ud83d", "\ude00 low"};
+        for (String first : values) {
+            for (String second : values) {
+                long expected = MathUtils.fnv1a_32((first + second).getBytes(StandardCharsets.UTF_8));
+                long actual = MathUtils.fnv1a_32(MathUtils.fnv1a_32_init(), first, second);
+                assertEquals(expected, actual, first + second);
+            }
+        }
+
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            StringBuilder value = new StringBuilder();
+            for (int j = random.nextInt(20); j > 0; j--) {
+                value.append((char) random.nextInt(Character.MAX_VALUE + 1));
+            }
+            assertEquals(
+                    MathUtils.fnv1a_32(value.toString().getBytes(StandardCharsets.UTF_8)),
+                    MathUtils.fnv1a_32(MathUtils.fnv1a_32_init(), value, "")
+            );
+
+            long number = random.nextInt() & 0xffffffffL;
+            assertEquals(
+                    MathUtils.fnv1a_32(String.valueOf(number).getBytes(StandardCharsets.UTF_8)),
+                    MathUtils.fnv1a_32(MathUtils.fnv1a_32_init(), number)
+            );
+        }
+        assertEquals(MathUtils.fnv1a_32("0".getBytes(StandardCharsets.UTF_8)), MathUtils.fnv1a_32(MathUtils.fnv1a_32_init(), 0L));
+    }
 }
@@ -6,11 +6,14 @@ import growthbook.sdk.java.callback.FeatureRefreshCallback;
 import growthbook.sdk.java.retry.FeatureFetchRetryPolicy;
 import growthbook.sdk.java.repository.NativeJavaGbFeatureRepository;
 import growthbook.sdk.java.repository.RefreshMode;
+import growthbook.sdk.java.sandbox.FileCachingManagerImpl;
 import growthbook.sdk.java.sandbox.GbCacheManager;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.InetSocketAddress;
@@ -107,6 +110,28 @@ class NativeJavaGbFeatureRepositoryRefreshTest {
         verify(cacheManager, times(1)).loadCache(anyString());
     }
 
+    @Test
+    void responseIsStreamedToTheCacheFileAndLoadedFromIt(@TempDir File cacheDir) throws Exception {
+        FileCachingManagerImpl cacheManager = new FileCachingManagerImpl(cacheDir.getAbsolutePath());
+        NativeJavaGbFeatureRepository repository = repositoryBuilder()
+                .cacheManager(cacheManager)
+                .build();
+
+        repository.fetchFeatures();
+
+        File[] cacheFiles = cacheDir.listFiles();
+        assertEquals(1, cacheFiles.length, "the temporary file is moved over the cache file");
+        assertEquals(FEATURES_RESPONSE, cacheManager.loadCache(cacheFiles[0].getName()));
+
+        defaultResponseCode = 500;
+        NativeJavaGbFeatureRepository offlineRepository = repositoryBuilder()
+                .cacheManager(cacheManager)
+                .build();
+        offlineRepository.fetchFeatures();
+
+        assertEquals("{\"test\":{\"defaultValue\":true}}", offlineRepository.getFeaturesJson());
+    }
+
     @Test
     void failedRefreshKeepsExistingFeatureDataInsteadOfLoadingOlderCache() throws Exception {
         GbCacheManager cacheManager = mock(GbCacheManager.class);
@@ -0,0 +1,229 @@
+package growthbook.sdk.java;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import growthbook.sdk.java.evaluators.ConditionCompiler;
+import growthbook.sdk.java.evaluators.ConditionEvaluator;
+import growthbook.sdk.java.evaluators.FeatureEvaluator;
+import growthbook.sdk.java.model.FeatureResult;
+import growthbook.sdk.java.model.HashAttributeAndHashValue;
+import growthbook.sdk.java.model.UserAttributes;
+import growthbook.sdk.java.multiusermode.configurations.EvaluationContext;
+import growthbook.sdk.java.multiusermode.configurations.GlobalContext;
+import growthbook.sdk.java.multiusermode.configurations.Options;
+import growthbook.sdk.java.multiusermode.configurations.UserContext;
+import growthbook.sdk.java.multiusermode.util.TransformationUtil;
+import growthbook.sdk.java.testhelpers.TestCasesJsonHelper;
+import growthbook.sdk.java.util.GrowthBookJsonUtils;
+import growthbook.sdk.java.util.GrowthBookUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserAttributesTest {
+    private final GrowthBookJsonUtils jsonUtils = GrowthBookJsonUtils.getInstance();
+
+    @Test
+    void conditionsEvaluateTheSameOnTheFlatStore() {
+        JsonArray testCases = TestCasesJsonHelper.getInstance().evalConditionTestCases();
+        ConditionEvaluator interpreter = new ConditionEvaluator();
+        List<String> failures = new ArrayList<>();
+
+        for (int i = 0; i < testCases.size(); i++) {
+            JsonArray testCase = testCases.get(i).getAsJsonArray();
+            String description = testCase.get(0).getAsString();
+            JsonObject condition = testCase.get(1).getAsJsonObject();
+            UserAttributes attributes = UserAttributes.of(testCase.get(2).getAsJsonObject());
+            boolean expected = testCase.get(3).getAsBoolean();
+            JsonObject savedGroups = testCase.size() > 4 ? testCase.get(4).getAsJsonObject() : null;
+
+            if (interpreter.evaluateCondition(attributes, condition, savedGroups) != expected
+                    || ConditionCompiler.compile(condition).matches(attributes, savedGroups) != expected) {
+                failures.add(description);
+            }
+        }
+
+        assertEquals(new ArrayList<>(), failures);
+    }
+
+    @Test
+    void featuresEvaluateTheSameOnTheFlatStore() {
+        JsonArray testCases = TestCasesJsonHelper.getInstance().featureTestCases();
+        FeatureEvaluator evaluator = new FeatureEvaluator();
+        List<String> failures = new ArrayList<>();
+
+        for (int i = 0; i < testCases.size(); i++) {
+            JsonArray testCase = testCases.get(i).getAsJsonArray();
+            JsonObject input = testCase.get(1).getAsJsonObject();
+            String featureKey = testCase.get(2).getAsString();
+
+            JsonElement features = input.get("features");
+            JsonElement attributes = input.get("attributes");
+            JsonObject attributesJson = attributes == null ? new JsonObject() : attributes.getAsJsonObject();
+
+            GlobalContext global = GlobalContext.builder()
+                    .features(TransformationUtil.transformFeatures(features == null ? "{}" : features.toString()))
+                    .savedGroups(input.has("savedGroups") ? input.getAsJsonObject("savedGroups") : null)
+                    .build();
+
+            FeatureResult<Object> fromJson = evaluator.evaluateFeature(featureKey,
+                    context(global, UserContext.builder().attributes(attributesJson).build()), Object.class);
+            FeatureResult<Object> fromStore = evaluator.evaluateFeature(featureKey,
+                    context(global, UserContext.builder().userAttributes(UserAttributes.of(attributesJson)).build()), Object.class);
+
+            if (!Objects.equals(fromJson.getValue(), fromStore.getValue())
+                    || fromJson.getSource() != fromStore.getSource()
+                    || !Objects.equals(fromJson.getRuleId(), fromStore.getRuleId())) {
+                failures.add(testCase.get(0).getAsString());
+            }
+        }
+
+        assertEquals(new ArrayList<>(), failures);
+    }
+
+    @Test
+    void mapAttributesAreFlattenedAndRenderedForHashing() {
+        Map<String, Object> company = new HashMap<>();
+        company.put("plan", "enterprise");
+        company.put("seats", 250);
+
+        Map<String, Object> map = new HashMap<>();
+        map.put("id", 123);
+        map.put("email", "user@example.com");
+        map.put("beta", true);
+        map.put("deviceId", null);
+        map.put("company", company);
+        map.put("tags", Arrays.asList("a", "b"));
+        map.put("dotted.name", "hidden");
+
+        UserAttributes attributes = UserAttributes.of(map);
+
+        assertEquals(new JsonPrimitive("enterprise"), attributes.getPath("company.plan"));
+        assertEquals(250, attributes.getPath("company.seats").getAsInt());
+        assertTrue(attributes.getPath("company").isJsonObject());
+        assertNull(attributes.getPath("dotted.name"));
+        assertEquals("hidden", attributes.getString("dotted.name"));
+        assertEquals("123", attributes.getString("id"));
+        assertNull(attributes.getString("deviceId"));
+        assertSame("company.plan", "company.plan".intern());
+
+        JsonObject json = jsonUtils.gson.toJsonTree(map).getAsJsonObject();
+        for (String[] hashAttributes : new String[][]{{"id", null}, {"deviceId", "email"}, {"missing", null}, {"beta", null}}) {
+            HashAttributeAndHashValue expected = GrowthBookUtils.getHashAttribute(hashAttributes[0], hashAttributes[1], json);
+            assertEquals(expected, GrowthBookUtils.getHashAttribute(hashAttributes[0], hashAttributes[1], attributes));
+        }
+
+        JsonObject condition = jsonUtils.gson.fromJson(
+                "{\"company.plan\": \"enterprise\", \"company.seats\": {\"$gt\": 100}, \"tags\": {\"$elemMatch\": {\"$eq\": \"b\"}}}",
+                JsonObject.class
+        );
+        assertTrue(ConditionCompiler.compile(condition).matches(attributes, null));
+        assertTrue(new ConditionEvaluator().evaluateCondition(attributes, condition, null));
+    }
+
+    @Test
+    void userContextBuildsTheJsonViewOnlyWhenAsked() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("id", "user-1");
+        UserContext user = UserContext.builder().userAttributes(UserAttributes.of(map)).build();
+
+        assertEquals("user-1", user.getUserAttributes().getString("id"));
+        assertEquals("user-1", user.getAttributes().get("id").getAsString());
+        assertSame(user.getAttributes(), user.getAttributes());
+
+        UserContext fromJson = UserContext.builder().attributes(user.getAttributes()).build();
+        assertNull(fromJson.getUserAttributes());
+    }
+
+    @Test
+    void overlayEvaluatesConditionsLikeAMergedCopy() {
+        JsonArray testCases = TestCasesJsonHelper.getInstance().evalConditionTestCases();
+        ConditionEvaluator interpreter = new ConditionEvaluator();
+        List<String> failures = new ArrayList<>();
+
+        for (int i = 0; i < testCases.size(); i++) {
+            JsonArray testCase = testCases.get(i).getAsJsonArray();
+            JsonObject condition = testCase.get(1).getAsJsonObject();
+            JsonObject attributes = testCase.get(2).getAsJsonObject();
+            boolean expected = testCase.get(3).getAsBoolean();
+            JsonObject savedGroups = testCase.size() > 4 ? testCase.get(4).getAsJsonObject() : null;
+
+            // every other attribute is global, the user's attributes hide decoys of the same name
+            JsonObject global = new JsonObject();
+            JsonObject user = new JsonObject();
+            int index = 0;
+            for (Map.Entry<String, JsonElement> entry : attributes.entrySet()) {
+                if (index++ % 2 == 0) {
+                    global.add(entry.getKey(), entry.getValue());
+                } else {
+                    JsonObject decoy = new JsonObject();
+                    decoy.addProperty("decoy", true);
+                    global.add(entry.getKey(), decoy);
+                    user.add(entry.getKey(), entry.getValue());
+                }
+            }
+            UserAttributes layered = UserAttributes.of(global).overlay(UserAttributes.of(user));
+
+            if (interpreter.evaluateCondition(layered, condition, savedGroups) != expected
+                    || ConditionCompiler.compile(condition).matches(layered, savedGroups) != expected
+                    || !attributes.equals(layered.toJsonObject())) {
+                failures.add(testCase.get(0).getAsString());
+            }
+        }
+
+        assertEquals(new ArrayList<>(), failures);
+    }
+
+    @Test
+    void overlayHidesTheBaseAttributesOfTheSameName() {
+        Map<String, Object> company = new HashMap<>();
+        company.put("plan", "enterprise");
+        Map<String, Object> globalMap = new HashMap<>();
+        globalMap.put("region", "eu");
+        globalMap.put("company", company);
+        globalMap.put("build", 42);
+        UserAttributes global = UserAttributes.of(globalMap);
+
+        Map<String, Object> userMap = new HashMap<>();
+        userMap.put("id", "user-1");
+        userMap.put("company", "acme");
+        userMap.put("build", null);
+        UserAttributes layered = global.overlay(UserAttributes.of(userMap));
+
+        assertEquals("eu", layered.getString("region"));
+        assertEquals("user-1", layered.getString("id"));
+        assertEquals("acme", layered.getString("company"));
+        assertNull(layered.getPath("company.plan"));
+        assertNull(layered.getString("build"));
+        assertTrue(layered.get("build").isJsonNull());
+        assertEquals(new HashSet<>(Arrays.asList("region", "company", "build", "id")), layered.names());
+
+        Map<String, Object> requestMap = new HashMap<>();
+        requestMap.put("region", "us");
+        UserAttributes request = layered.overlay(UserAttributes.of(requestMap));
+        assertEquals("us", request.getString("region"));
+        assertEquals("user-1", request.getString("id"));
+        assertEquals("eu", layered.getString("region"));
+
+        assertSame(global, global.overlay(UserAttributes.empty()));
+        assertEquals(new JsonPrimitive("enterprise"), global.getPath("company.plan"));
+    }
+
+    private static EvaluationContext context(GlobalContext global, UserContext user) {
+        Options options = Options.builder().build();
+        return new EvaluationContext(global, user, new EvaluationContext.StackContext(), options);
+    }
+}
@@ -0,0 +1,150 @@
+package growthbook.sdk.java.evaluators;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import growthbook.sdk.java.testhelpers.TestCasesJsonHelper;
+import growthbook.sdk.java.util.GrowthBookJsonUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConditionCompilerTest {
+
+    private final ConditionEvaluator interpreter = new ConditionEvaluator();
+
+    @Test
+    void compiledConditionsMatchTheInterpreterForAllTestCases() {
+        JsonArray testCases = TestCasesJsonHelper.getInstance().evalConditionTestCases();
+        List<String> failures = new ArrayList<>();
+
+        for (int i = 0; i < testCases.size(); i++) {
+            JsonArray testCase = testCases.get(i).getAsJsonArray();
+            String description = testCase.get(0).getAsString();
+            JsonObject condition = testCase.get(1).getAsJsonObject();
+            JsonObject attributes = testCase.get(2).getAsJsonObject();
+            boolean expected = testCase.get(3).getAsBoolean();
+            JsonObject savedGroups = testCase.size() > 4 ? testCase.get(4).getAsJsonObject() : null;
+
+            boolean interpreted = interpreter.evaluateCondition(attributes, condition, savedGroups);
+            boolean compiled = ConditionCompiler.compile(condition).matches(attributes, savedGroups);
+
+            if (compiled != interpreted || compiled != expected) {
+                failures.add(description);
+            }
+        }
+
+        assertEquals(new ArrayList<>(), failures);
+    }
+
+    @Test
+    void irregularConditionsFallBackToTheInterpreter() {
+        JsonObject attributes = parse("{\"id\": \"1\"}");
+
+        // "$or" is not an array: the interpreter fails the condition
+        assertFalse(ConditionCompiler.compile(parse("{\"$or\": 5}")).matches(attributes, null));
+
+        // the first "$or" item matches before the malformed one is reached
+        assertTrue(ConditionCompiler.compile(parse("{\"$or\": [{\"id\": \"1\"}, 5]}")).matches(attributes, null));
+    }
+
+    @Test
+    void failuresInsideNestedConditionsOnlyFailTheNestedCondition() {
+        JsonObject attributes = parse("{\"age\": \"abc\"}");
+
+        // "abc" can't be compared as a number, so the inner condition fails and "$not" passes
+        JsonObject condition = parse("{\"$not\": {\"age\": 5}}");
+
+        assertEquals(
+                interpreter.evaluateCondition(attributes, condition, null),
+                ConditionCompiler.compile(condition).matches(attributes, null)
+        );
+        assertTrue(ConditionCompiler.compile(condition).matches(attributes, null));
+    }
+
+    @Test
+    void regexPatternsAreCompiledOnceAndInvalidPatternsNeverMatch() {
+        assertSame(
+                ConditionEvaluator.compilePattern("^Mozilla/5\\.0", false),
+                ConditionEvaluator.compilePattern("^Mozilla/5\\.0", false)
+        );
+        assertNotSame(
+                ConditionEvaluator.compilePattern("mozilla", false),
+                ConditionEvaluator.compilePattern("mozilla", true)
+        );
+        assertNull(ConditionEvaluator.compilePattern("(?!", false));
+
+        JsonObject attributes = parse("{\"userAgent\": \"Mozilla/5.0 (iPhone)\"}");
+
+        assertTrue(ConditionCompiler.compile(parse("{\"userAgent\": {\"$regexi\": \"iphone\"}}")).matches(attributes, null));
+        assertFalse(ConditionCompiler.compile(parse("{\"userAgent\": {\"$regex\": \"iphone\"}}")).matches(attributes, null));
+        assertFalse(ConditionCompiler.compile(parse("{\"userAgent\": {\"$regex\": \"(?!\"}}")).matches(attributes, null));
+        assertTrue(ConditionCompiler.compile(parse("{\"userAgent\": {\"$notRegex\": \"(?!\"}}")).matches(attributes, null));
+    }
+
+    @Test
+    void versionsArePaddedOnceAndComparedLikeTheInterpreter() {
+        assertEquals("00001-00010-00020-~", ConditionEvaluator.paddedVersion("v1.10.20+build.5"));
+        assertSame(ConditionEvaluator.paddedVersion("2.3.4"), ConditionEvaluator.paddedVersion("2.3.4"));
+
+        JsonObject condition = parse("{\"appVersion\": {\"$vgte\": \"1.9.0\", \"$vlt\": \"2.0.0\"}}");
+        CompiledCondition compiled = ConditionCompiler.compile(condition);
+
+        for (String version : new String[]{"1.8.9", "1.9.0-beta", "1.9.0", "1.10.0", "2.0.0-rc.1", "2.0.0"}) {
+            JsonObject attributes = parse("{\"appVersion\": \"" + version + "\"}");
+            assertEquals(
+                    interpreter.evaluateCondition(attributes, condition, null),
+                    compiled.matches(attributes, null),
+                    version
+            );
+        }
+        assertTrue(compiled.matches(parse("{\"appVersion\": \"1.10.0\"}"), null));
+        assertFalse(compiled.matches(parse("{}"), null));
+    }
+
+    @Test
+    void inOperatorsUseHashedSetsAndMatchTheInterpreter() {
+        StringBuilder countries = new StringBuilder("[1, 2.0, true, null, [\"x\"]");
+        for (int i = 0; i < 500; i++) {
+            countries.append(", \"Country-").append(i).append("\"");
+        }
+        countries.append("]");
+
+        String[] attributeValues = {
+                "\"Country-42\"", "\"country-42\"", "\"COUNTRY-499\"", "\"Country-500\"",
+                "1", "1.0", "2", "\"1\"", "true", "\"true\"", "null", "[\"x\"]",
+                "[]", "[\"nope\", \"country-7\"]", "[\"Country-7\"]", "[[\"x\"]]", "{}"
+        };
+
+        for (String operator : new String[]{"$in", "$nin", "$ini", "$nini"}) {
+            JsonObject condition = parse("{\"country\": {\"" + operator + "\": " + countries + "}}");
+            CompiledCondition compiled = ConditionCompiler.compile(condition);
+
+            for (String value : attributeValues) {
+                JsonObject attributes = parse("{\"country\": " + value + "}");
+                assertEquals(
+                        interpreter.evaluateCondition(attributes, condition, null),
+                        compiled.matches(attributes, null),
+                        operator + " " + value
+                );
+            }
+            assertFalse(compiled.matches(parse("{}"), null), operator);
+        }
+
+        JsonObject attributes = parse("{\"country\": \"country-42\"}");
+        assertFalse(ConditionCompiler.compile(parse("{\"country\": {\"$in\": " + countries + "}}")).matches(attributes, null));
+        assertTrue(ConditionCompiler.compile(parse("{\"country\": {\"$ini\": " + countries + "}}")).matches(attributes, null));
+        assertFalse(ConditionCompiler.compile(parse("{\"country\": {\"$in\": \"country-42\"}}")).matches(attributes, null));
+    }
+
+    private static JsonObject parse(String json) {
+        return GrowthBookJsonUtils.getInstance().gson.fromJson(json, JsonObject.class);
+    }
+}
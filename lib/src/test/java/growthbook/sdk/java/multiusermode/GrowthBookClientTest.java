@@ -1,15 +1,20 @@
 package growthbook.sdk.java.multiusermode;
 
+import com.google.gson.JsonObject;
 import growthbook.sdk.java.callback.ExperimentRunCallback;
 import growthbook.sdk.java.callback.FeatureRefreshCallback;
 import growthbook.sdk.java.exception.FeatureFetchException;
 import growthbook.sdk.java.model.Experiment;
+import growthbook.sdk.java.model.ExperimentResult;
 import growthbook.sdk.java.model.Feature;
 import growthbook.sdk.java.model.FeatureResult;
 import growthbook.sdk.java.model.RequestBodyForRemoteEval;
 import growthbook.sdk.java.multiusermode.configurations.GlobalContext;
 import growthbook.sdk.java.multiusermode.configurations.Options;
 import growthbook.sdk.java.multiusermode.configurations.UserContext;
+import growthbook.sdk.java.multiusermode.usage.FeatureUsageCallbackWithUser;
+import growthbook.sdk.java.multiusermode.usage.TimeWindowExposureDeduplicator;
+import growthbook.sdk.java.multiusermode.usage.TrackingCallbackWithUser;
 import growthbook.sdk.java.multiusermode.util.TransformationUtil;
 import growthbook.sdk.java.repository.FeatureRefreshStrategy;
 import growthbook.sdk.java.repository.GBFeaturesRepository;
@@ -22,9 +27,16 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.MockedStatic;
 
 import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -524,6 +536,251 @@ class GrowthBookClientTest {
         }
     }
 
+    @Test
+    void evalAllFeatures_evaluatesEveryFeatureOnceWithPrerequisitesFirst() {
+        String featuresJson = "{"
+                + "\"child\": {\"defaultValue\": \"off\", \"rules\": [{\"parentConditions\": ["
+                + "  {\"id\": \"parent\", \"condition\": {\"value\": true}, \"gate\": true}], \"force\": \"on\"}]},"
+                + "\"parent\": {\"defaultValue\": false, \"rules\": [{\"condition\": {\"plan\": \"pro\"}, \"force\": true}]},"
+                + "\"price\": {\"defaultValue\": 10.99}"
+                + "}";
+
+        mockRepository = createMockRepository();
+        mockBuilder = createMockBuilder(mockRepository);
+        when(mockRepository.getParsedFeatures()).thenReturn(TransformationUtil.transformFeatures(featuresJson));
+
+        try (MockedStatic<GBFeaturesRepository> mockedStatic = mockStatic(GBFeaturesRepository.class)) {
+            mockedStatic.when(GBFeaturesRepository::builder).thenReturn(mockBuilder);
+
+            List<String> usages = new ArrayList<>();
+            Options options = createDefaultOptions(null);
+            options.setFeatureUsageCallbackWithUser(new FeatureUsageCallbackWithUser() {
+                @Override
+                public <ValueType> void onFeatureUsage(String featureKey, FeatureResult<ValueType> result, UserContext userContext) {
+                    usages.add(featureKey);
+                }
+            });
+            GrowthBookClient client = new GrowthBookClient(options);
+            client.initialize();
+
+            for (String plan : new String[]{"pro", "free"}) {
+                usages.clear();
+                UserContext userContext = UserContext.builder().attributesJson("{\"plan\": \"" + plan + "\"}").build();
+
+                Map<String, FeatureResult<Object>> results = client.evalAllFeatures(userContext);
+
+                assertEquals(3, results.size());
+                assertEquals(3, usages.size());
+                assertTrue(usages.indexOf("parent") < usages.indexOf("child"));
+                for (Map.Entry<String, FeatureResult<Object>> entry : results.entrySet()) {
+                    FeatureResult<Object> single = client.evalFeature(entry.getKey(), Object.class, userContext);
+                    assertEquals(single.getValue(), entry.getValue().getValue(), entry.getKey());
+                    assertEquals(single.getSource(), entry.getValue().getSource(), entry.getKey());
+                }
+            }
+        }
+    }
+
+    @Test
+    void evalFeaturesForUsers_streamsEachUsersResultsFromThePool() {
+        String featuresJson = "{"
+                + "\"banner\": {\"defaultValue\": \"blue\", \"rules\": [{\"variations\": [\"blue\", \"green\", \"red\"]}]},"
+                + "\"pro\": {\"defaultValue\": false, \"rules\": [{\"condition\": {\"id\": {\"$regex\": \"7$\"}}, \"force\": true}]},"
+                + "\"unused\": {\"defaultValue\": 1}"
+                + "}";
+
+        mockRepository = createMockRepository();
+        mockBuilder = createMockBuilder(mockRepository);
+        when(mockRepository.getParsedFeatures()).thenReturn(TransformationUtil.transformFeatures(featuresJson));
+
+        try (MockedStatic<GBFeaturesRepository> mockedStatic = mockStatic(GBFeaturesRepository.class)) {
+            mockedStatic.when(GBFeaturesRepository::builder).thenReturn(mockBuilder);
+
+            GrowthBookClient client = new GrowthBookClient(createDefaultOptions(null));
+            client.initialize();
+
+            List<UserContext> users = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                users.add(UserContext.builder().attributesJson("{\"id\": \"user-" + i + "\"}").build());
+            }
+
+            Map<UserContext, Map<String, FeatureResult<Object>>> streamed = new ConcurrentHashMap<>();
+            ForkJoinPool pool = new ForkJoinPool(4);
+            try {
+                client.evalFeaturesForUsers(users.stream(), Arrays.asList("banner", "pro"), streamed::put, pool);
+            } finally {
+                pool.shutdown();
+            }
+
+            assertEquals(users.size(), streamed.size());
+            for (UserContext user : users) {
+                Map<String, FeatureResult<Object>> results = streamed.get(user);
+                assertEquals(Arrays.asList("banner", "pro"), new ArrayList<>(results.keySet()));
+                for (String key : results.keySet()) {
+                    assertEquals(client.evalFeature(key, Object.class, user).getValue(), results.get(key).getValue());
+                }
+            }
+
+            // the pool may rethrow a copy of the consumer's exception
+            IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> client.evalFeaturesForUsers(
+                    users.stream(), null, (user, results) -> {
+                        throw new IllegalArgumentException("consumer failed");
+                    }));
+            assertTrue(thrown.getMessage().contains("consumer failed"));
+        }
+    }
+
+    @Test
+    void evalFeaturesForUsers_runsOnTheGivenPoolThreads() {
+        mockRepository = createMockRepository();
+        mockBuilder = createMockBuilder(mockRepository);
+        when(mockRepository.getParsedFeatures())
+                .thenReturn(TransformationUtil.transformFeatures("{\"banner\": {\"defaultValue\": \"blue\"}}"));
+
+        try (MockedStatic<GBFeaturesRepository> mockedStatic = mockStatic(GBFeaturesRepository.class)) {
+            mockedStatic.when(GBFeaturesRepository::builder).thenReturn(mockBuilder);
+
+            GrowthBookClient client = new GrowthBookClient(createDefaultOptions(null));
+            client.initialize();
+
+            List<UserContext> users = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                users.add(UserContext.builder().attributesJson("{\"id\": \"user-" + i + "\"}").build());
+            }
+
+            List<ForkJoinPool> pools = Collections.synchronizedList(new ArrayList<>());
+            List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+            ForkJoinPool pool = new ForkJoinPool(3);
+            try {
+                client.evalFeaturesForUsers(users.stream(), null, (user, results) -> {
+                    pools.add(ForkJoinTask.getPool());
+                    threads.add(Thread.currentThread());
+                }, pool);
+            } finally {
+                pool.shutdown();
+            }
+
+            assertEquals(users.size(), pools.size());
+            assertEquals(Collections.singleton(pool), new HashSet<>(pools));
+            assertFalse(threads.contains(Thread.currentThread()));
+        }
+    }
+
+    @Test
+    void typedGetters_convertValuesWithoutGson() {
+        String featuresJson = "{"
+                + "\"flag\": {\"defaultValue\": true},"
+                + "\"limit\": {\"defaultValue\": 25},"
+                + "\"big\": {\"defaultValue\": 3000000000},"
+                + "\"ratio\": {\"defaultValue\": 0.75},"
+                + "\"label\": {\"defaultValue\": \"hello\"},"
+                + "\"object\": {\"defaultValue\": {\"a\": 1}}"
+                + "}";
+
+        mockRepository = createMockRepository();
+        mockBuilder = createMockBuilder(mockRepository);
+        when(mockRepository.getParsedFeatures()).thenReturn(TransformationUtil.transformFeatures(featuresJson));
+
+        try (MockedStatic<GBFeaturesRepository> mockedStatic = mockStatic(GBFeaturesRepository.class)) {
+            mockedStatic.when(GBFeaturesRepository::builder).thenReturn(mockBuilder);
+
+            GrowthBookClient client = new GrowthBookClient(createDefaultOptions(null));
+            client.initialize();
+            UserContext user = UserContext.builder().build();
+
+            assertTrue(client.getBooleanValue("flag", false, user));
+            assertFalse(client.getBooleanValue("limit", false, user));
+            assertEquals(25, client.getIntValue("limit", 0, user));
+            assertEquals(-1, client.getIntValue("big", -1, user));
+            assertEquals(-1, client.getIntValue("ratio", -1, user));
+            assertEquals(3000000000L, client.getLongValue("big", 0L, user));
+            assertEquals(0.75, client.getDoubleValue("ratio", 0.0, user));
+            assertEquals(25.0, client.getDoubleValue("limit", 0.0, user));
+            assertEquals("hello", client.getStringValue("label", "default", user));
+            assertEquals("25", client.getStringValue("limit", "default", user));
+            assertEquals("default", client.getStringValue("object", "default", user));
+            assertEquals("default", client.getStringValue("missing", "default", user));
+            assertEquals(Integer.valueOf(25), client.getFeatureValue("limit", 0, Integer.class, user));
+        }
+    }
+
+    @Test
+    void globalAttributes_areLayeredUnderUserAttributes() {
+        String featuresJson = "{\"greeting\": {\"defaultValue\": \"hello\", \"rules\": ["
+                + "{\"condition\": {\"region\": \"eu\", \"build\": 42}, \"force\": \"hallo\"}"
+                + "]}}";
+
+        mockRepository = createMockRepository();
+        mockBuilder = createMockBuilder(mockRepository);
+        when(mockRepository.getParsedFeatures()).thenReturn(TransformationUtil.transformFeatures(featuresJson));
+
+        try (MockedStatic<GBFeaturesRepository> mockedStatic = mockStatic(GBFeaturesRepository.class)) {
+            mockedStatic.when(GBFeaturesRepository::builder).thenReturn(mockBuilder);
+
+            Options options = createDefaultOptions(null);
+            options.setGlobalAttributes("{\"region\": \"eu\", \"build\": 42}");
+            GrowthBookClient client = new GrowthBookClient(options);
+            client.initialize();
+
+            JsonObject usAttributes = new JsonObject();
+            usAttributes.addProperty("region", "us");
+            UserContext euUser = UserContext.builder().attributes(new JsonObject()).build();
+            UserContext usUser = UserContext.builder().attributes(usAttributes).build();
+
+            assertEquals("hallo", client.getStringValue("greeting", "", euUser));
+            assertEquals("hello", client.getStringValue("greeting", "", usUser));
+            assertEquals("hallo", client.getStringValue("greeting", "", euUser));
+
+            // the parsed layer is replaced when new global attributes are set
+            options.setGlobalAttributes("{\"region\": \"eu\"}");
+            assertEquals("hello", client.getStringValue("greeting", "", euUser));
+
+            // changes made in place apply once the object is set again
+            options.getGlobalAttributes().addProperty("build", 42);
+            assertEquals("hello", client.getStringValue("greeting", "", euUser));
+            options.setGlobalAttributes(options.getGlobalAttributes());
+            assertEquals("hallo", client.getStringValue("greeting", "", euUser));
+        }
+    }
+
+    @Test
+    void exposureDeduplicator_firesTrackingOncePerUserAndVariation() {
+        mockRepository = createMockRepository();
+        mockBuilder = createMockBuilder(mockRepository);
+
+        try (MockedStatic<GBFeaturesRepository> mockedStatic = mockStatic(GBFeaturesRepository.class)) {
+            mockedStatic.when(GBFeaturesRepository::builder).thenReturn(mockBuilder);
+
+            List<String> tracked = new ArrayList<>();
+            Options options = createDefaultOptions(null);
+            options.setExposureDeduplicator(TimeWindowExposureDeduplicator.builder().capacity(100).build());
+            options.setTrackingCallBackWithUser(new TrackingCallbackWithUser() {
+                @Override
+                public <ValueType> void onTrack(Experiment<ValueType> experiment,
+                                                ExperimentResult<ValueType> experimentResult,
+                                                UserContext userContext) {
+                    tracked.add(experimentResult.getHashValue());
+                }
+            });
+            GrowthBookClient client = new GrowthBookClient(options);
+            client.initialize();
+
+            Experiment<String> experiment = Experiment.<String>builder()
+                    .key("checkout")
+                    .variations(new ArrayList<>(Arrays.asList("control", "treatment")))
+                    .build();
+            for (int i = 0; i < 3; i++) {
+                for (String id : Arrays.asList("user-1", "user-2")) {
+                    JsonObject attributes = new JsonObject();
+                    attributes.addProperty("id", id);
+                    client.run(experiment, UserContext.builder().attributes(attributes).build());
+                }
+            }
+
+            assertEquals(Arrays.asList("user-1", "user-2"), tracked);
+        }
+    }
+
     private GBFeaturesRepository createMockRepository() {
         GBFeaturesRepository repository = mock(GBFeaturesRepository.class);
         when(repository.getInitialized()).thenReturn(true);
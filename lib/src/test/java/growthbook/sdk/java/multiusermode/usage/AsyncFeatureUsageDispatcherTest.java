@@ -0,0 +1,243 @@
+package growthbook.sdk.java.multiusermode.usage;
+
+import growthbook.sdk.java.model.FeatureResult;
+import growthbook.sdk.java.model.FeatureResultSource;
+import growthbook.sdk.java.multiusermode.configurations.UserContext;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncFeatureUsageDispatcherTest {
+    private static final FeatureResult<String> RESULT = FeatureResult.<String>builder()
+            .value("on")
+            .source(FeatureResultSource.FORCE)
+            .build();
+    private static final UserContext USER = UserContext.builder().build();
+
+    @Test
+    void ringBufferHandsEveryElementOutOnceAcrossProducers() throws Exception {
+        BoundedRingBuffer<Integer> buffer = new BoundedRingBuffer<>(100);
+        assertEquals(128, buffer.capacity());
+
+        int producers = 4;
+        int perProducer = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                int offset = p * perProducer;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perProducer; i++) {
+                        while (!buffer.offer(offset + i)) {
+                            Thread.yield();
+                        }
+                    }
+                }));
+            }
+
+            Set<Integer> seen = new HashSet<>();
+            while (seen.size() < producers * perProducer) {
+                Integer element = buffer.poll();
+                if (element != null) {
+                    assertTrue(seen.add(element), "polled twice: " + element);
+                }
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertNull(buffer.poll());
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    void usagesAreDeliveredInBatchesBySizeAndOnClose() {
+        List<List<FeatureUsageEvent>> batches = new CopyOnWriteArrayList<>();
+        AsyncFeatureUsageDispatcher dispatcher = AsyncFeatureUsageDispatcher.builder()
+                .batchCallback(batches::add)
+                .maxBatchSize(10)
+                .flushInterval(Duration.ofMinutes(1))
+                .build();
+
+        for (int i = 0; i < 25; i++) {
+            dispatcher.onFeatureUsage("feature-" + i, RESULT, USER);
+        }
+        dispatcher.close();
+
+        List<String> keys = new ArrayList<>();
+        for (List<FeatureUsageEvent> batch : batches) {
+            assertTrue(batch.size() <= 10);
+            for (FeatureUsageEvent event : batch) {
+                keys.add(event.getFeatureKey());
+                assertEquals(RESULT, event.getResult());
+            }
+        }
+        assertEquals(25, keys.size());
+        assertEquals("feature-0", keys.get(0));
+        assertEquals("feature-24", keys.get(24));
+        assertEquals(25, dispatcher.getDeliveredCount());
+        assertEquals(0, dispatcher.getDroppedCount());
+
+        dispatcher.onFeatureUsage("after-close", RESULT, USER);
+        assertEquals(1, dispatcher.getDroppedCount());
+    }
+
+    @Test
+    void partialBatchesAreDeliveredAfterTheFlushInterval() throws Exception {
+        CountDownLatch delivered = new CountDownLatch(1);
+        AsyncFeatureUsageDispatcher dispatcher = AsyncFeatureUsageDispatcher.builder()
+                .batchCallback(events -> delivered.countDown())
+                .maxBatchSize(100)
+                .flushInterval(Duration.ofMillis(20))
+                .build();
+        try {
+            dispatcher.onFeatureUsage("feature", RESULT, USER);
+            assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        } finally {
+            dispatcher.close();
+        }
+    }
+
+    @Test
+    void usagesWaitAboutOneFlushIntervalFromWhenTheyWereSubmitted() throws Exception {
+        CountDownLatch delivered = new CountDownLatch(1);
+        AsyncFeatureUsageDispatcher dispatcher = AsyncFeatureUsageDispatcher.builder()
+                .batchCallback(events -> delivered.countDown())
+                .maxBatchSize(100)
+                .flushInterval(Duration.ofSeconds(1))
+                .build();
+        try {
+            // the background thread is parked on an empty batch by now
+            Thread.sleep(50);
+            long submittedAt = System.nanoTime();
+            dispatcher.onFeatureUsage("feature", RESULT, USER);
+
+            assertTrue(delivered.await(5, TimeUnit.SECONDS));
+            long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - submittedAt);
+            assertTrue(waitedMillis < 1500, "delivered after " + waitedMillis + " ms");
+        } finally {
+            dispatcher.close();
+        }
+    }
+
+    @Test
+    void fullBufferDropsOrBlocksByPolicy() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<FeatureUsageEvent> received = Collections.synchronizedList(new ArrayList<>());
+        FeatureUsageBatchCallback slowCallback = events -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            received.addAll(events);
+        };
+
+        AsyncFeatureUsageDispatcher dropping = AsyncFeatureUsageDispatcher.builder()
+                .batchCallback(slowCallback)
+                .capacity(4)
+                .maxBatchSize(1)
+                .build();
+        for (int i = 0; i < 100; i++) {
+            dropping.onFeatureUsage("feature", RESULT, USER);
+        }
+        // one usage is held by the blocked callback and four wait in the buffer
+        assertTrue(dropping.getDroppedCount() >= 95);
+        release.countDown();
+        dropping.close();
+        assertEquals(100, dropping.getDroppedCount() + dropping.getDeliveredCount());
+
+        received.clear();
+        AsyncFeatureUsageDispatcher blocking = AsyncFeatureUsageDispatcher.builder()
+                .batchCallback(received::addAll)
+                .capacity(4)
+                .maxBatchSize(2)
+                .overflowPolicy(DispatchOverflowPolicy.BLOCK)
+                .build();
+        for (int i = 0; i < 1000; i++) {
+            blocking.onFeatureUsage("feature", RESULT, USER);
+        }
+        blocking.close();
+        assertEquals(0, blocking.getDroppedCount());
+        assertEquals(1000, blocking.getDeliveredCount());
+        assertEquals(1000, received.size());
+    }
+
+    @Test
+    void usagesSubmittedWhileClosingAreDeliveredOrCountedAsDropped() throws Exception {
+        int producers = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        try {
+            for (int round = 0; round < 20; round++) {
+                AsyncFeatureUsageDispatcher dispatcher = AsyncFeatureUsageDispatcher.builder()
+                        .batchCallback(events -> {
+                        })
+                        .build();
+                CountDownLatch started = new CountDownLatch(producers);
+                List<Future<Integer>> futures = new ArrayList<>();
+                for (int p = 0; p < producers; p++) {
+                    futures.add(executor.submit(() -> {
+                        started.countDown();
+                        int submitted = 0;
+                        do {
+                            dispatcher.onFeatureUsage("feature", RESULT, USER);
+                            submitted++;
+                        } while (dispatcher.getDroppedCount() == 0);
+                        return submitted;
+                    }));
+                }
+                started.await();
+                dispatcher.close();
+
+                long submitted = 0;
+                for (Future<Integer> future : futures) {
+                    submitted += future.get(10, TimeUnit.SECONDS);
+                }
+                assertEquals(submitted, dispatcher.getDeliveredCount() + dispatcher.getDroppedCount());
+                assertEquals(0, dispatcher.getPendingCount());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void failingBatchesAreCountedAndDeliveryGoesOn() {
+        List<FeatureUsageEvent> received = new CopyOnWriteArrayList<>();
+        AsyncFeatureUsageDispatcher dispatcher = AsyncFeatureUsageDispatcher.builder()
+                .batchCallback(events -> {
+                    if (events.get(0).getFeatureKey().equals("bad")) {
+                        throw new IllegalStateException("sink failed");
+                    }
+                    received.addAll(events);
+                })
+                .maxBatchSize(1)
+                .build();
+
+        dispatcher.onFeatureUsage("bad", RESULT, USER);
+        dispatcher.onFeatureUsage("good", RESULT, USER);
+        dispatcher.close();
+
+        assertEquals(1, dispatcher.getFailedBatchCount());
+        assertEquals(1, received.size());
+        assertThrows(IllegalArgumentException.class, () -> AsyncFeatureUsageDispatcher.builder().build());
+    }
+}
@@ -0,0 +1,137 @@
+package growthbook.sdk.java.multiusermode.usage;
+
+import growthbook.sdk.java.model.Experiment;
+import growthbook.sdk.java.model.ExperimentResult;
+import growthbook.sdk.java.multiusermode.configurations.UserContext;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncTrackingDispatcherTest {
+    private static final UserContext USER = UserContext.builder().build();
+
+    private static Experiment<String> experiment(String key) {
+        return Experiment.<String>builder().key(key).build();
+    }
+
+    private static ExperimentResult<String> result(String key) {
+        return ExperimentResult.<String>builder().key(key).value("on").inExperiment(true).build();
+    }
+
+    @Test
+    void exposuresAreFlushedInBatchesAndCounted() {
+        List<List<TrackingEvent>> batches = new CopyOnWriteArrayList<>();
+        AsyncTrackingDispatcher dispatcher = AsyncTrackingDispatcher.builder()
+                .batchCallback(batches::add)
+                .maxBatchSize(4)
+                .flushInterval(Duration.ofMinutes(1))
+                .build();
+
+        for (int i = 0; i < 10; i++) {
+            dispatcher.onTrack(experiment("exp-" + i), result("exp-" + i), USER);
+        }
+        dispatcher.close();
+
+        List<String> keys = new ArrayList<>();
+        for (List<TrackingEvent> batch : batches) {
+            assertTrue(batch.size() <= 4);
+            for (TrackingEvent event : batch) {
+                keys.add(event.getExperiment().getKey());
+                assertEquals(event.getExperiment().getKey(), event.getExperimentResult().getKey());
+                assertSame(USER, event.getUserContext());
+            }
+        }
+        assertEquals(10, keys.size());
+        assertEquals("exp-0", keys.get(0));
+        assertEquals("exp-9", keys.get(9));
+        assertEquals(10, dispatcher.getQueuedCount());
+        assertEquals(10, dispatcher.getDeliveredCount());
+        assertEquals(0, dispatcher.getDroppedCount());
+        assertEquals(0, dispatcher.getPendingCount());
+    }
+
+    @Test
+    void fullBufferDropsTheOldestExposures() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> received = Collections.synchronizedList(new ArrayList<>());
+        AsyncTrackingDispatcher dispatcher = AsyncTrackingDispatcher.builder()
+                .batchCallback(events -> {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    for (TrackingEvent event : events) {
+                        received.add(event.getExperiment().getKey());
+                    }
+                })
+                .capacity(4)
+                .maxBatchSize(1)
+                .build();
+
+        // the first exposure is held by the blocked callback
+        dispatcher.onTrack(experiment("first"), result("first"), USER);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 100; i++) {
+            dispatcher.onTrack(experiment("exp-" + i), result("exp-" + i), USER);
+        }
+        assertEquals(96, dispatcher.getDroppedCount());
+        release.countDown();
+        dispatcher.close();
+
+        assertEquals(101, dispatcher.getQueuedCount());
+        assertEquals(5, dispatcher.getDeliveredCount());
+        assertEquals(Arrays.asList("first", "exp-96", "exp-97", "exp-98", "exp-99"), received);
+    }
+
+    @Test
+    void callerRunsDeliversOnTheTrackingThreadWhenTheBufferIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread caller = Thread.currentThread();
+        List<TrackingEvent> onCaller = new CopyOnWriteArrayList<>();
+        AsyncTrackingDispatcher dispatcher = AsyncTrackingDispatcher.builder()
+                .batchCallback(events -> {
+                    if (Thread.currentThread() == caller) {
+                        onCaller.addAll(events);
+                        return;
+                    }
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                })
+                .capacity(2)
+                .maxBatchSize(1)
+                .overflowPolicy(DispatchOverflowPolicy.CALLER_RUNS)
+                .build();
+
+        dispatcher.onTrack(experiment("first"), result("first"), USER);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 10; i++) {
+            dispatcher.onTrack(experiment("exp-" + i), result("exp-" + i), USER);
+        }
+        release.countDown();
+        dispatcher.close();
+
+        assertEquals(8, onCaller.size());
+        assertEquals("exp-2", onCaller.get(0).getExperiment().getKey());
+        assertEquals(0, dispatcher.getDroppedCount());
+        assertEquals(11, dispatcher.getDeliveredCount());
+    }
+}
@@ -0,0 +1,154 @@
+package growthbook.sdk.java.multiusermode.usage;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExposureDeduplicatorTest {
+
+    @Test
+    void timeWindowForgetsExposuresAfterTheWindow() {
+        AtomicLong now = new AtomicLong();
+        TimeWindowExposureDeduplicator deduplicator =
+                new TimeWindowExposureDeduplicator(100, Duration.ofNanos(1000), 4, now::get);
+
+        assertTrue(deduplicator.markTracked("user-1|exp|1"));
+        assertFalse(deduplicator.markTracked("user-1|exp|1"));
+        assertTrue(deduplicator.isTracked("user-1|exp|1"));
+        assertTrue(deduplicator.markTracked("user-2|exp|1"));
+
+        now.set(999);
+        assertFalse(deduplicator.markTracked("user-1|exp|1"));
+        now.set(1000);
+        assertFalse(deduplicator.isTracked("user-1|exp|1"));
+        assertTrue(deduplicator.markTracked("user-1|exp|1"));
+
+        deduplicator.clear();
+        assertFalse(deduplicator.isTracked("user-1|exp|1"));
+    }
+
+    @Test
+    void timeWindowForgetsTheOldestExposuresWhenFull() {
+        TimeWindowExposureDeduplicator deduplicator = TimeWindowExposureDeduplicator.builder()
+                .capacity(10)
+                .concurrencyLevel(1)
+                .build();
+
+        for (int i = 0; i < 15; i++) {
+            assertTrue(deduplicator.markTracked("user-" + i));
+        }
+        for (int i = 0; i < 5; i++) {
+            assertFalse(deduplicator.isTracked("user-" + i));
+        }
+        for (int i = 5; i < 15; i++) {
+            assertTrue(deduplicator.isTracked("user-" + i));
+        }
+        assertThrows(IllegalArgumentException.class, () -> TimeWindowExposureDeduplicator.builder().capacity(0).build());
+    }
+
+    @Test
+    void bloomFilterRemembersTheLastGenerationsWithinTheFalsePositiveRate() {
+        BloomFilterExposureDeduplicator deduplicator = BloomFilterExposureDeduplicator.builder()
+                .capacity(10_000)
+                .falsePositiveRate(0.01)
+                .build();
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (!deduplicator.markTracked("user-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 100, "false positives: " + falsePositives);
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(deduplicator.isTracked("user-" + i));
+        }
+
+        // two more generations push the first one out
+        for (int i = 10_000; i < 30_000; i++) {
+            deduplicator.markTracked("user-" + i);
+        }
+        int remembered = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (deduplicator.isTracked("user-" + i)) {
+                remembered++;
+            }
+        }
+        assertTrue(remembered < 100, "remembered: " + remembered);
+        assertTrue(deduplicator.isTracked("user-29999"));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> BloomFilterExposureDeduplicator.builder().falsePositiveRate(1.0).build());
+    }
+
+    @Test
+    void bloomFilterRotatesAfterTheRotationInterval() {
+        AtomicLong now = new AtomicLong();
+        BloomFilterExposureDeduplicator deduplicator =
+                new BloomFilterExposureDeduplicator(1000, 0.001, Duration.ofNanos(100), now::get);
+
+        assertTrue(deduplicator.markTracked("user-1"));
+        now.set(100);
+        // found in the previous generation and copied to the current one
+        assertFalse(deduplicator.markTracked("user-1"));
+        now.set(200);
+        assertFalse(deduplicator.markTracked("user-1"));
+
+        // forgotten after two rotations without being seen
+        now.set(300);
+        assertTrue(deduplicator.markTracked("user-2"));
+        now.set(400);
+        assertFalse(deduplicator.markTracked("user-2"));
+        assertFalse(deduplicator.isTracked("user-1"));
+        assertTrue(deduplicator.markTracked("user-1"));
+    }
+
+    @Test
+    void timeWindowMarksEachExposureOnceAcrossThreads() throws Exception {
+        assertEquals(5_000, markConcurrently(TimeWindowExposureDeduplicator.builder().build()));
+    }
+
+    @Test
+    void bloomFilterMarksExposuresAboutOnceAcrossThreads() throws Exception {
+        // threads racing on a new exposure may each see it as new
+        int marked = markConcurrently(
+                BloomFilterExposureDeduplicator.builder().capacity(100_000).falsePositiveRate(0.0001).build());
+        assertTrue(marked > 4_990 && marked < 5_250, "marked " + marked);
+    }
+
+    private static int markConcurrently(ExposureDeduplicator deduplicator) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            AtomicInteger first = new AtomicInteger();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 5_000; i++) {
+                        if (deduplicator.markTracked("user-" + i)) {
+                            first.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+            return first.get();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package growthbook.sdk.java.multiusermode.util;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import growthbook.sdk.java.model.Feature;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IncrementalFeatureParserTest {
+
+    @Test
+    void reusesTheFeaturesWhoseJsonIsUnchanged() {
+        IncrementalFeatureParser parser = new IncrementalFeatureParser();
+        IncrementalFeatureParser.Result first = parser.parse("{"
+                + "\"banner\": {\"defaultValue\": \"blue\", \"rules\": [{\"force\": \"red\"}]},"
+                + "\"price\": {\"defaultValue\": 10},"
+                + "\"legacy\": {\"defaultValue\": true}"
+                + "}");
+        assertEquals(new HashSet<>(Arrays.asList("banner", "price", "legacy")), first.getChangedKeys());
+
+        IncrementalFeatureParser.Result second = parser.parse(JsonParser.parseString("{"
+                + "\"banner\": {\"defaultValue\": \"blue\", \"rules\": [{\"force\": \"red\"}]},"
+                + "\"price\": {\"defaultValue\": 12},"
+                + "\"checkout\": {\"defaultValue\": \"v2\"}"
+                + "}"));
+
+        Map<String, Feature<?>> features = second.getFeatures();
+        assertSame(first.getFeatures().get("banner"), features.get("banner"));
+        assertNotSame(first.getFeatures().get("price"), features.get("price"));
+        assertEquals(12, ((Number) features.get("price").getDefaultValue()).intValue());
+        assertEquals("v2", features.get("checkout").getDefaultValue());
+        assertEquals(new HashSet<>(Arrays.asList("price", "checkout", "legacy")), second.getChangedKeys());
+    }
+
+    @Test
+    void serializesEachFeatureOnceLikeToString() {
+        JsonElement features = JsonParser.parseString("{"
+                + "\"caf\\u00e9 \\\"quoted\\\"\": {\"defaultValue\": \"<b>&</b>\", \"rules\": [{\"force\": null}]},"
+                + "\"price\": {\"defaultValue\": 10.5}"
+                + "}");
+        IncrementalFeatureParser parser = new IncrementalFeatureParser();
+
+        IncrementalFeatureParser.Result parsed = parser.parse(features);
+        assertEquals(features.toString(), parsed.getFeaturesJson());
+
+        // the decrypted string path fingerprints the same JSON the same way
+        IncrementalFeatureParser.Result reparsed = parser.parse(parsed.getFeaturesJson());
+        assertTrue(reparsed.getChangedKeys().isEmpty());
+        assertEquals(parsed.getFeaturesJson(), reparsed.getFeaturesJson());
+    }
+
+    @Test
+    void changesToTheResultAreNotReused() {
+        IncrementalFeatureParser parser = new IncrementalFeatureParser();
+        String json = "{\"banner\": {\"defaultValue\": \"blue\"}}";
+        Map<String, Feature<?>> features = parser.parse(json).getFeatures();
+        features.remove("banner");
+
+        IncrementalFeatureParser.Result next = parser.parse(json);
+
+        assertEquals("blue", next.getFeatures().get("banner").getDefaultValue());
+        assertTrue(next.getChangedKeys().isEmpty());
+    }
+
+    @Test
+    void unreadableFeaturesEmptyTheResultLikeAFullParse() {
+        IncrementalFeatureParser parser = new IncrementalFeatureParser();
+        parser.parse("{\"banner\": {\"defaultValue\": \"blue\"}}");
+
+        IncrementalFeatureParser.Result invalid = parser.parse("{\"banner\": {\"rules\": \"not a list\"}}");
+        assertTrue(invalid.getFeatures().isEmpty());
+        assertEquals(Collections.singleton("banner"), invalid.getChangedKeys());
+
+        IncrementalFeatureParser.Result restored = parser.parse("{\"banner\": {\"defaultValue\": \"blue\"}}");
+        assertEquals(Collections.singleton("banner"), restored.getChangedKeys());
+        assertTrue(parser.parse("[]").getFeatures().isEmpty());
+    }
+}
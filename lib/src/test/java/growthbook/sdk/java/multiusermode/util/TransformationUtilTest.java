@@ -0,0 +1,70 @@
+package growthbook.sdk.java.multiusermode.util;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSyntaxException;
+import growthbook.sdk.java.model.Feature;
+import growthbook.sdk.java.model.FeatureResponseKey;
+import growthbook.sdk.java.util.GrowthBookJsonUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransformationUtilTest {
+
+    @Test
+    void readMembersKeepsOnlyTheNamedMembers() {
+        String payload = "{"
+                + "\"status\": 200,"
+                + "\"experiments\": [{\"key\": \"skipped\", \"nested\": {\"a\": [1, 2, {\"b\": null}]}}],"
+                + "\"features\": {\"banner\": {\"defaultValue\": \"blue\", \"rules\": [{\"force\": \"red\"}]}},"
+                + "\"savedGroups\": {\"beta\": [\"user-1\", \"user-2\"]},"
+                + "\"dateUpdated\": \"2024-01-01T00:00:00Z\""
+                + "}";
+
+        JsonObject members = TransformationUtil.readMembers(payload, FeatureResponseKey.allKeys());
+
+        assertEquals(2, members.size());
+        assertFalse(members.has("experiments"));
+
+        Map<String, Feature<?>> streamed = TransformationUtil.transformFeatures(members.get("features"));
+        Map<String, Feature<?>> reparsed = TransformationUtil.transformFeatures(members.get("features").toString());
+        Gson gson = GrowthBookJsonUtils.getInstance().gson;
+        assertEquals(gson.toJson(reparsed), gson.toJson(streamed));
+        assertEquals(1, streamed.get("banner").getRules().size());
+
+        JsonObject savedGroups = TransformationUtil.transformSavedGroups(members.get("savedGroups"));
+        assertTrue(savedGroups.has("beta"));
+    }
+
+    @Test
+    void readMembersReadsLikeGson() {
+        assertNull(TransformationUtil.readMembers("", FeatureResponseKey.allKeys()));
+        assertNull(TransformationUtil.readMembers("[1, 2]", FeatureResponseKey.allKeys()));
+        // lenient, and the last duplicate wins
+        JsonObject members = TransformationUtil.readMembers(
+                "{features: {}, 'features': {\"a\": {}}}", FeatureResponseKey.allKeys());
+        assertTrue(members.getAsJsonObject("features").has("a"));
+
+        assertThrows(JsonSyntaxException.class,
+                () -> TransformationUtil.readMembers("{\"features\": {", FeatureResponseKey.allKeys()));
+        assertThrows(JsonSyntaxException.class,
+                () -> TransformationUtil.readMembers("{} {}", FeatureResponseKey.allKeys()));
+    }
+
+    @Test
+    void parsedMembersThatAreNotObjectsAreEmpty() {
+        assertTrue(TransformationUtil.transformFeatures((JsonElement) null).isEmpty());
+        assertTrue(TransformationUtil.transformSavedGroups(new JsonArray()).entrySet().isEmpty());
+        assertTrue(TransformationUtil.transformFeatures(new JsonPrimitive("x")).isEmpty());
+    }
+}
@@ -0,0 +1,88 @@
+package growthbook.sdk.java.plan;
+
+import com.google.gson.JsonArray;
+import com.google.gson.reflect.TypeToken;
+import growthbook.sdk.java.model.BucketRange;
+import growthbook.sdk.java.model.Experiment;
+import growthbook.sdk.java.testhelpers.TestCasesJsonHelper;
+import growthbook.sdk.java.util.GrowthBookJsonUtils;
+import growthbook.sdk.java.util.GrowthBookUtils;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BucketRangesTest {
+
+    @Test
+    void choosesVariationsLikeTheLinearScan() {
+        JsonArray testCases = TestCasesJsonHelper.getInstance().getChooseVariationTestCases();
+        Type bucketRangeListType = new TypeToken<ArrayList<BucketRange>>() {}.getType();
+
+        testCases.forEach(jsonElement -> {
+            JsonArray testCase = jsonElement.getAsJsonArray();
+            ArrayList<BucketRange> ranges = GrowthBookJsonUtils.getInstance().gson.fromJson(testCase.get(2), bucketRangeListType);
+
+            assertEquals(
+                    testCase.get(3).getAsInt(),
+                    BucketRanges.of(ranges).chooseVariation(testCase.get(1).getAsFloat()),
+                    testCase.get(0).getAsString()
+            );
+        });
+    }
+
+    @Test
+    void matchesTheLinearScanForWeightsCoverageAndIrregularRanges() {
+        List<ArrayList<BucketRange>> cases = new ArrayList<>();
+        cases.add(GrowthBookUtils.getBucketRanges(3, 1.0f, GrowthBookUtils.getEqualWeights(3)));
+        cases.add(GrowthBookUtils.getBucketRanges(4, 0.35f, new ArrayList<>(Arrays.asList(0.1f, 0f, 0.6f, 0.3f))));
+        cases.add(GrowthBookUtils.getBucketRanges(2, 0f, new ArrayList<>(Arrays.asList(0.5f, 0.5f))));
+        cases.add(ranges(0.5f, 1f, 0f, 0.5f));
+        cases.add(ranges(0f, 0.6f, 0.4f, 1f));
+        cases.add(ranges(0.2f, 0.2f, 0.2f, 0.7f, 0.9f, 0.95f));
+        cases.add(ranges(0f, 0.3f, Float.NaN, 0.5f, 0.3f, 1f));
+
+        Random random = new Random(42);
+        for (ArrayList<BucketRange> ranges : cases) {
+            BucketRanges precomputed = BucketRanges.of(ranges);
+            for (int i = 0; i < 2000; i++) {
+                float n = i < 4 ? new float[]{0f, 0.2f, 0.5f, 1f}[i] : random.nextFloat();
+                assertEquals(GrowthBookUtils.chooseVariation(n, ranges), precomputed.chooseVariation(n), ranges + " at " + n);
+            }
+        }
+    }
+
+    @Test
+    void buildsRangesFromTheExperimentDefaults() {
+        Experiment<String> experiment = Experiment.<String>builder()
+                .key("exp")
+                .variations(new ArrayList<>(Arrays.asList("a", "b", "c", "d")))
+                .build();
+        BucketRanges ranges = BucketRanges.forExperiment(experiment);
+
+        assertEquals(0, ranges.chooseVariation(0.1f));
+        assertEquals(1, ranges.chooseVariation(0.3f));
+        assertEquals(3, ranges.chooseVariation(0.99f));
+
+        experiment.setCoverage(0.5f);
+        experiment.setWeights(new ArrayList<>(Arrays.asList(0.7f, 0.1f, 0.1f, 0.1f)));
+        ranges = BucketRanges.forExperiment(experiment);
+
+        assertEquals(0, ranges.chooseVariation(0.3f));
+        assertEquals(-1, ranges.chooseVariation(0.4f));
+        assertEquals(1, ranges.chooseVariation(0.72f));
+    }
+
+    private static ArrayList<BucketRange> ranges(float... boundaries) {
+        ArrayList<BucketRange> ranges = new ArrayList<>();
+        for (int i = 0; i < boundaries.length; i += 2) {
+            ranges.add(new BucketRange(boundaries[i], boundaries[i + 1]));
+        }
+        return ranges;
+    }
+}
@@ -0,0 +1,332 @@
+package growthbook.sdk.java.plan;
+
+import com.google.gson.JsonObject;
+import growthbook.sdk.java.evaluators.FeatureEvaluator;
+import growthbook.sdk.java.model.Experiment;
+import growthbook.sdk.java.model.ExperimentResult;
+import growthbook.sdk.java.model.Feature;
+import growthbook.sdk.java.model.FeatureResult;
+import growthbook.sdk.java.model.FeatureResultSource;
+import growthbook.sdk.java.multiusermode.configurations.EvaluationContext;
+import growthbook.sdk.java.multiusermode.configurations.GlobalContext;
+import growthbook.sdk.java.multiusermode.configurations.Options;
+import growthbook.sdk.java.multiusermode.configurations.UserContext;
+import growthbook.sdk.java.multiusermode.usage.TrackingCallbackWithUser;
+import growthbook.sdk.java.multiusermode.util.IncrementalFeatureParser;
+import growthbook.sdk.java.multiusermode.util.TransformationUtil;
+import growthbook.sdk.java.util.GrowthBookJsonUtils;
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FeaturePlanTest {
+
+    private static final String FEATURES_JSON = "{"
+            + "\"banner\": {\"defaultValue\": \"blue\", \"rules\": ["
+            + "  {\"id\": \"fr_1\", \"condition\": {\"country\": \"US\"}, \"force\": \"red\"},"
+            + "  {\"id\": \"fr_2\", \"key\": \"banner-exp\", \"variations\": [\"blue\", \"green\"], \"hashAttribute\": \"deviceId\","
+            + "   \"meta\": [{\"key\": \"control\"}, {\"key\": \"treatment\"}]},"
+            + "  {\"id\": \"fr_3\", \"variations\": [\"blue\", \"green\"], \"seed\": \"custom-seed\"},"
+            + "  {\"id\": \"fr_4\"}"
+            + "]},"
+            + "\"empty\": null,"
+            + "\"simple\": {\"defaultValue\": \"a\"}"
+            + "}";
+
+    @Test
+    void resolvesRuleDefaultsAtCompileTime() {
+        FeaturePlan plan = FeaturePlan.compile(TransformationUtil.transformFeatures(FEATURES_JSON));
+
+        CompiledFeature<?> banner = plan.getFeature("banner");
+        assertNotNull(banner);
+        assertEquals("blue", banner.getDefaultValue());
+        assertEquals(4, banner.getRules().size());
+
+        CompiledRule<?> force = banner.getRules().get(0);
+        assertTrue(force.isForce());
+        assertEquals("red", force.getForceValue());
+        assertEquals("id", force.getHashAttribute());
+        assertEquals("banner", force.getSeed());
+        assertNull(force.getExperiment());
+
+        CompiledRule<?> experiment = banner.getRules().get(1);
+        assertFalse(experiment.isForce());
+        assertNotNull(experiment.getExperiment());
+        assertEquals("banner-exp", experiment.getExperiment().getKey());
+        assertEquals("deviceId", experiment.getExperiment().getHashAttribute());
+
+        CompiledRule<?> seeded = banner.getRules().get(2);
+        assertEquals("banner", seeded.getExperiment().getKey());
+        assertEquals("custom-seed", seeded.getSeed());
+
+        assertNull(banner.getRules().get(3).getExperiment());
+    }
+
+    @Test
+    void distinguishesUnknownKeysFromEmptyDefinitions() {
+        FeaturePlan plan = FeaturePlan.compile(TransformationUtil.transformFeatures(FEATURES_JSON));
+
+        assertNull(plan.getFeature("missing"));
+
+        CompiledFeature<?> empty = plan.getFeature("empty");
+        assertNotNull(empty);
+        assertNull(empty.getSource());
+        assertTrue(empty.getRules().isEmpty());
+    }
+
+    @Test
+    void reusesCompiledFeaturesUntilTheSourceMapChanges() {
+        Map<String, Feature<?>> features = TransformationUtil.transformFeatures(FEATURES_JSON);
+        FeaturePlan plan = FeaturePlan.compile(features);
+
+        assertTrue(plan.isCompiledFrom(features));
+        assertSame(plan.getFeature("simple"), plan.getFeature("simple"));
+
+        Map<String, Feature<?>> replacement = TransformationUtil.transformFeatures("{\"simple\": {\"defaultValue\": \"b\"}}");
+        features.put("simple", replacement.get("simple"));
+
+        CompiledFeature<?> recompiled = plan.getFeature("simple");
+        assertNotNull(recompiled);
+        assertSame(replacement.get("simple"), recompiled.getSource());
+        assertEquals("b", recompiled.getDefaultValue());
+        assertNotSame(recompiled, plan.getFeature("simple"));
+    }
+
+    @Test
+    void recompilesOnlyTheFeaturesThatChangedSinceThePreviousPlan() {
+        IncrementalFeatureParser parser = new IncrementalFeatureParser();
+        FeaturePlan plan = FeaturePlan.compile(parser.parse(FEATURES_JSON).getFeatures());
+        Object defaultValue = plan.getFeature("banner").getDefaultValue();
+        String decoded = plan.decodeValue("banner", defaultValue, String.class, false);
+
+        String changed = FEATURES_JSON.replace("\"defaultValue\": \"a\"", "\"defaultValue\": \"b\"");
+        FeaturePlan next = FeaturePlan.compile(parser.parse(changed).getFeatures(), plan);
+
+        assertSame(plan.getFeature("banner"), next.getFeature("banner"));
+        assertSame(decoded, next.decodeValue("banner", defaultValue, String.class, false));
+        assertNotSame(plan.getFeature("simple"), next.getFeature("simple"));
+        assertEquals("b", next.getFeature("simple").getDefaultValue());
+        assertEquals(next.getFeatures().size(), next.getEvaluationOrder().size());
+    }
+
+    @Test
+    void experimentRulesShareTheCompiledExperimentAcrossEvaluations() {
+        Map<String, Feature<?>> features = TransformationUtil.transformFeatures(FEATURES_JSON);
+        GlobalContext global = GlobalContext.builder().features(features).build();
+        CompiledRule<?> rule = global.getFeaturePlan().getFeature("banner").getRules().get(1);
+        FeatureEvaluator evaluator = new FeatureEvaluator();
+
+        for (String deviceId : new String[]{"device-1", "device-2", "device-3"}) {
+            JsonObject attributes = new JsonObject();
+            attributes.addProperty("deviceId", deviceId);
+            FeatureResult<String> result = evaluator.evaluateFeatureShared("banner", context(global, attributes), String.class);
+
+            assertEquals(FeatureResultSource.EXPERIMENT, result.getSource());
+            assertSame(rule.getExperiment(), result.getExperiment());
+            assertEquals("deviceId", result.getExperimentResult().getHashAttribute());
+            assertEquals(deviceId, result.getExperimentResult().getHashValue());
+        }
+    }
+
+    @Test
+    void experimentsHandedToCallersAreCopiesOfTheCompiledExperiment() {
+        GlobalContext global = GlobalContext.builder()
+                .features(TransformationUtil.transformFeatures(FEATURES_JSON))
+                .build();
+        CompiledRule<?> rule = global.getFeaturePlan().getFeature("banner").getRules().get(1);
+        Experiment<?> compiled = rule.getExperiment();
+        List<Experiment<?>> tracked = new ArrayList<>();
+        TrackingCallbackWithUser trackingCallback = new TrackingCallbackWithUser() {
+            @Override
+            public <ValueType> void onTrack(Experiment<ValueType> experiment,
+                                            ExperimentResult<ValueType> experimentResult,
+                                            @Nullable UserContext userContext) {
+                tracked.add(experiment);
+            }
+        };
+        JsonObject attributes = new JsonObject();
+        attributes.addProperty("deviceId", "device-1");
+        EvaluationContext context = new EvaluationContext(
+                global,
+                UserContext.builder().attributes(attributes).build(),
+                new EvaluationContext.StackContext(),
+                Options.builder().trackingCallBackWithUser(trackingCallback).build()
+        );
+
+        FeatureResult<String> result = new FeatureEvaluator().evaluateFeature("banner", context, String.class);
+
+        assertEquals(1, tracked.size());
+        for (Experiment<?> experiment : new Experiment<?>[]{result.getExperiment(), tracked.get(0)}) {
+            assertNotSame(compiled, experiment);
+            assertEquals(compiled, experiment);
+            assertNotSame(compiled.getVariations(), experiment.getVariations());
+        }
+
+        result.getExperiment().getVariations().clear();
+        tracked.get(0).getMeta().get(0).setKey("changed");
+        assertEquals(2, compiled.getVariations().size());
+        assertEquals("control", compiled.getMeta().get(0).getKey());
+    }
+
+    @Test
+    void constantOutcomesShareOneImmutableResult() {
+        GlobalContext global = GlobalContext.builder()
+                .features(TransformationUtil.transformFeatures(FEATURES_JSON))
+                .build();
+        FeatureEvaluator evaluator = new FeatureEvaluator();
+
+        JsonObject us = new JsonObject();
+        us.addProperty("country", "US");
+        FeatureResult<String> forced = evaluator.evaluateFeatureShared("banner", context(global, us), String.class);
+        assertEquals(FeatureResultSource.FORCE, forced.getSource());
+        assertEquals("red", forced.getValue());
+        assertEquals("fr_1", forced.getRuleId());
+        assertSame(forced, evaluator.evaluateFeatureShared("banner", context(global, us), String.class));
+
+        FeatureResult<String> simple = evaluator.evaluateFeatureShared("simple", context(global, new JsonObject()), String.class);
+        assertEquals(FeatureResultSource.DEFAULT_VALUE, simple.getSource());
+        assertEquals("a", simple.getValue());
+        assertSame(simple, evaluator.evaluateFeatureShared("simple", context(global, us), String.class));
+
+        FeatureResult<String> unknown = evaluator.evaluateFeatureShared("missing", context(global, us), String.class);
+        assertEquals(FeatureResultSource.UNKNOWN_FEATURE, unknown.getSource());
+        assertSame(unknown, evaluator.evaluateFeatureShared("also-missing", context(global, us), String.class));
+
+        assertThrows(UnsupportedOperationException.class, () -> forced.setValue("blue"));
+
+        // results returned to callers are their own copies
+        FeatureResult<String> copy = evaluator.evaluateFeature("banner", context(global, us), String.class);
+        assertNotSame(forced, copy);
+        assertEquals(forced, copy);
+        copy.setValue("blue");
+        assertEquals("red", evaluator.evaluateFeatureShared("banner", context(global, us), String.class).getValue());
+        assertEquals("{\"on\":true,\"off\":false,\"value\":\"red\",\"source\":\"force\"}",
+                GrowthBookJsonUtils.getInstance().gson.toJson(forced));
+    }
+
+    @Test
+    void prerequisiteCyclesAreFoundWhenThePlanIsCompiled() {
+        StringBuilder json = new StringBuilder("{"
+                + "\"a\": " + withParent("b") + ","
+                + "\"b\": " + withParent("a") + ","
+                + "\"self\": " + withParent("self") + ","
+                + "\"dependent\": " + withParent("a") + ","
+                + "\"gate\": {\"defaultValue\": true}");
+        // a chain long enough to overflow a recursive search
+        for (int i = 0; i < 5000; i++) {
+            json.append(",\"chain").append(i).append("\": ").append(withParent(i == 0 ? "gate" : "chain" + (i - 1)));
+        }
+        Map<String, Feature<?>> features = TransformationUtil.transformFeatures(json.append("}").toString());
+        FeaturePlan plan = FeaturePlan.compile(features);
+
+        assertTrue(plan.mayBeOnPrerequisiteCycle("a"));
+        assertTrue(plan.mayBeOnPrerequisiteCycle("b"));
+        assertTrue(plan.mayBeOnPrerequisiteCycle("self"));
+        assertFalse(plan.mayBeOnPrerequisiteCycle("dependent"));
+        assertFalse(plan.mayBeOnPrerequisiteCycle("gate"));
+        assertFalse(plan.mayBeOnPrerequisiteCycle("chain4999"));
+        assertFalse(plan.mayBeOnPrerequisiteCycle("missing"));
+
+        List<String> order = plan.getEvaluationOrder();
+        assertEquals(features.size(), order.size());
+        assertTrue(order.indexOf("gate") < order.indexOf("chain0"));
+        assertTrue(order.indexOf("chain0") < order.indexOf("chain1"));
+        assertTrue(order.indexOf("chain4998") < order.indexOf("chain4999"));
+
+        GlobalContext global = GlobalContext.builder().features(features).build();
+        FeatureEvaluator evaluator = new FeatureEvaluator();
+        for (String key : new String[]{"a", "self", "dependent"}) {
+            FeatureResult<Object> result = evaluator.evaluateFeature(key, context(global, new JsonObject()), Object.class);
+            assertEquals(FeatureResultSource.CYCLIC_PREREQUISITE, result.getSource(), key);
+        }
+
+        EvaluationContext context = context(global, new JsonObject());
+        assertEquals("on", evaluator.evaluateFeature("chain10", context, String.class).getValue());
+        assertTrue(context.getStack().getEvaluatedFeatures().isEmpty());
+
+        // a cycle introduced by changing the features in place is still detected
+        features.put("gate", TransformationUtil.transformFeatures("{\"gate\": " + withParent("chain3") + "}").get("gate"));
+        assertTrue(plan.mayBeOnPrerequisiteCycle("gate"));
+        assertEquals(FeatureResultSource.CYCLIC_PREREQUISITE,
+                evaluator.evaluateFeature("chain3", context(global, new JsonObject()), String.class).getSource());
+    }
+
+    @Test
+    void complexValuesAreDeserializedOncePerSlotAndClass() {
+        GlobalContext global = GlobalContext.builder()
+                .features(TransformationUtil.transformFeatures("{\"pricing\": {"
+                        + "\"defaultValue\": {\"tier\": \"basic\", \"price\": 10},"
+                        + "\"rules\": [{\"condition\": {\"country\": \"US\"}, \"force\": {\"tier\": \"pro\", \"price\": 20}}]"
+                        + "}}"))
+                .build();
+        FeaturePlan plan = global.getFeaturePlan();
+        FeatureEvaluator evaluator = new FeatureEvaluator();
+        JsonObject us = new JsonObject();
+        us.addProperty("country", "US");
+
+        Object defaultValue = evaluator.evaluateFeature("pricing", context(global, new JsonObject()), Object.class).getValue();
+        Object forcedValue = evaluator.evaluateFeature("pricing", context(global, us), Object.class).getValue();
+
+        Pricing basic = plan.decodeValue("pricing", defaultValue, Pricing.class, false);
+        assertEquals("basic", basic.tier);
+        assertEquals(10, basic.price);
+        assertSame(basic, plan.decodeValue("pricing", defaultValue, Pricing.class, false));
+
+        Pricing pro = plan.decodeValue("pricing", forcedValue, Pricing.class, false);
+        assertEquals("pro", pro.tier);
+        assertSame(pro, plan.decodeValue("pricing", forcedValue, Pricing.class, false));
+
+        // per class, and copies on request
+        Map<?, ?> asMap = plan.decodeValue("pricing", defaultValue, Map.class, false);
+        assertEquals("basic", asMap.get("tier"));
+        Pricing copy = plan.decodeValue("pricing", defaultValue, Pricing.class, true);
+        assertNotSame(basic, copy);
+        assertEquals("basic", copy.tier);
+
+        // values that aren't in the snapshot, e.g. forced overrides, aren't cached
+        JsonObject override = GrowthBookJsonUtils.getInstance().gson.fromJson("{\"tier\": \"free\"}", JsonObject.class);
+        Pricing free = plan.decodeValue("pricing", override, Pricing.class, false);
+        assertEquals("free", free.tier);
+        assertNotSame(free, plan.decodeValue("pricing", override, Pricing.class, false));
+        assertNull(plan.decodeValue("pricing", null, Pricing.class, false));
+
+        // a new snapshot deserializes again
+        FeaturePlan next = FeaturePlan.compile(TransformationUtil.transformFeatures(
+                "{\"pricing\": {\"defaultValue\": {\"tier\": \"basic\", \"price\": 10}}}"));
+        Object nextDefault = next.getFeature("pricing").getDefaultValue();
+        Pricing nextBasic = next.decodeValue("pricing", nextDefault, Pricing.class, false);
+        assertNotSame(basic, nextBasic);
+        assertSame(nextBasic, next.decodeValue("pricing", nextDefault, Pricing.class, false));
+    }
+
+    private static class Pricing {
+        String tier;
+        int price;
+    }
+
+    private static String withParent(String parent) {
+        return "{\"defaultValue\": \"off\", \"rules\": [{\"parentConditions\": [{\"id\": \"" + parent
+                + "\", \"condition\": {\"value\": {\"$exists\": true}}, \"gate\": true}], \"force\": \"on\"}]}";
+    }
+
+    private static EvaluationContext context(GlobalContext global, JsonObject attributes) {
+        return new EvaluationContext(
+                global,
+                UserContext.builder().attributes(attributes).build(),
+                new EvaluationContext.StackContext(),
+                Options.builder().build()
+        );
+    }
+}
@@ -0,0 +1,49 @@
+package growthbook.sdk.java.util;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FeatureValueConverterTest {
+    private final Gson gson = GrowthBookJsonUtils.getInstance().gson;
+
+    @Test
+    void convertsLikeAGsonRoundTrip() {
+        JsonObject object = new JsonObject();
+        object.addProperty("a", 1);
+        List<Object> values = Arrays.asList(
+                true, false, "true", "TRUE", "yes", "", "5", " 5 ", "5.0", "5.5", "-7", "1e3", "abc",
+                "NaN", "Infinity", "3000000000", "9223372036854775807",
+                5L, -3L, 0L, 3000000000L, Long.MAX_VALUE,
+                5.0, 5.5, -0.0, 1e20, 0.1,
+                object, Collections.singletonList(1), Collections.singletonMap("a", 1)
+        );
+        List<Class<?>> types = Arrays.asList(Boolean.class, String.class, Integer.class, Long.class, Double.class, Float.class);
+
+        List<String> mismatches = new ArrayList<>();
+        for (Object value : values) {
+            for (Class<?> type : types) {
+                Object expected;
+                try {
+                    expected = gson.fromJson(gson.toJson(value), type);
+                } catch (RuntimeException e) {
+                    expected = null;
+                }
+                Object actual = FeatureValueConverter.convert(value, type);
+                if (!Objects.equals(expected, actual)) {
+                    mismatches.add(value + " as " + type.getSimpleName() + ": " + expected + " != " + actual);
+                }
+            }
+        }
+
+        assertEquals(new ArrayList<>(), mismatches);
+    }
+}
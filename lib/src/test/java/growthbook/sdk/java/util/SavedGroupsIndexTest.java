@@ -0,0 +1,57 @@
+package growthbook.sdk.java.util;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SavedGroupsIndexTest {
+
+    @Test
+    void membersAreFoundLikeJsonArrayContains() {
+        JsonObject savedGroups = parse("{\"group\": [\"a\", 1, 2.5, -0.0, true, null, [1, 2], {\"x\": 1}]}");
+        JsonArray group = savedGroups.getAsJsonArray("group");
+        JsonValueSet members = SavedGroupsIndex.getGroup(savedGroups, "group");
+
+        JsonArray candidates = parse("{\"c\": [\"a\", \"A\", 1, 1.0, 2.5, 0, 0.0, 3, true, false, null, [1, 2], [2, 1], {\"x\": 1}, \"1\"]}")
+                .getAsJsonArray("c");
+        candidates.add(new JsonPrimitive(1L));
+        candidates.add(new JsonPrimitive(2.5f));
+        candidates.add(JsonNull.INSTANCE);
+
+        for (int i = 0; i < candidates.size(); i++) {
+            assertSame(group.contains(candidates.get(i)), members.contains(candidates.get(i)), candidates.get(i).toString());
+        }
+        assertFalse(members.contains(null));
+    }
+
+    @Test
+    void indexesAreSharedAndFollowInPlaceChanges() {
+        JsonObject savedGroups = parse("{\"group\": [\"a\"], \"other\": \"not a group\"}");
+
+        assertSame(SavedGroupsIndex.index(savedGroups), SavedGroupsIndex.index(savedGroups));
+        assertSame(SavedGroupsIndex.getGroup(savedGroups, "group"), SavedGroupsIndex.getGroup(savedGroups, "group"));
+        assertNull(SavedGroupsIndex.getGroup(savedGroups, "missing"));
+        assertThrows(IllegalStateException.class, () -> SavedGroupsIndex.getGroup(savedGroups, "other"));
+
+        savedGroups.getAsJsonArray("group").add("b");
+        assertTrue(SavedGroupsIndex.getGroup(savedGroups, "group").contains(new JsonPrimitive("b")));
+
+        JsonArray replaced = new JsonArray();
+        replaced.add("c");
+        savedGroups.add("group", replaced);
+        assertTrue(SavedGroupsIndex.getGroup(savedGroups, "group").contains(new JsonPrimitive("c")));
+        assertFalse(SavedGroupsIndex.getGroup(savedGroups, "group").contains(new JsonPrimitive("a")));
+    }
+
+    private static JsonObject parse(String json) {
+        return GrowthBookJsonUtils.getInstance().gson.fromJson(json, JsonObject.class);
+    }
+}
@@ -0,0 +1,81 @@
+package growthbook.sdk.java.util;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import growthbook.sdk.java.testhelpers.TestCasesJsonHelper;
+import org.junit.jupiter.api.Test;
+
+import java.net.URL;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UrlOverridesTest {
+    private final Gson gson = GrowthBookJsonUtils.getInstance().gson;
+
+    @Test
+    void variationOverridesMatchTheQueryStringOverrideCases() {
+        JsonArray testCases = TestCasesJsonHelper.getInstance().getQueryStringOverrideTestCases();
+
+        for (JsonElement element : testCases) {
+            JsonArray testCase = element.getAsJsonArray();
+            String id = testCase.get(1).getAsString();
+            String urlString = testCase.get(2).getAsString();
+            int numberOfVariations = testCase.get(3).getAsInt();
+            Integer expected = testCase.get(4).isJsonNull() ? null : testCase.get(4).getAsInt();
+
+            assertEquals(expected, UrlOverrides.parse(urlString).getVariationOverride(id, numberOfVariations),
+                    testCase.get(0).getAsString());
+        }
+    }
+
+    @Test
+    void forcedFeatureValuesAreReadLikeTheUrlHelpers() throws Exception {
+        String urlString = "http://localhost/?gb~flag=on&gb~count=42&gb~ratio=0.5&gb~name=hello%20world"
+                + "&gb~config=%7B%22a%22%3A1%7D&gb~bad=nope&exp=1#gb~hash=ignored";
+        URL url = new URL(urlString);
+        UrlOverrides overrides = UrlOverrides.parse(urlString);
+
+        assertTrue(overrides.hasForcedFeatureValues());
+        List<String> keys = Arrays.asList("flag", "count", "ratio", "name", "config", "bad", "hash", "missing", "exp");
+        for (String key : keys) {
+            assertEquals(GrowthBookUtils.getForcedBooleanValueFromUrl(key, url),
+                    overrides.getForcedFeatureValue(key, Boolean.class, gson), key);
+            assertEquals(GrowthBookUtils.getForcedStringValueFromUrl(key, url),
+                    overrides.getForcedFeatureValue(key, String.class, gson), key);
+            assertEquals(GrowthBookUtils.getForcedIntegerValueFromUrl(key, url),
+                    overrides.getForcedFeatureValue(key, Integer.class, gson), key);
+            assertEquals(GrowthBookUtils.getForcedFloatValueFromUrl(key, url),
+                    overrides.getForcedFeatureValue(key, Float.class, gson), key);
+            assertEquals(GrowthBookUtils.getForcedDoubleValueFromUrl(key, url),
+                    overrides.getForcedFeatureValue(key, Double.class, gson), key);
+            assertEquals(GrowthBookUtils.getForcedSerializableValueFromUrl(key, url, Map.class, gson),
+                    overrides.getForcedFeatureValue(key, Map.class, gson), key);
+        }
+        assertEquals(Integer.valueOf(1), overrides.getVariationOverride("exp", 2));
+    }
+
+    @Test
+    void urlsWithoutOverridesAreNotParsed() {
+        assertSame(UrlOverrides.none(), UrlOverrides.parse(null));
+        assertSame(UrlOverrides.none(), UrlOverrides.parse("https://example.com/page"));
+        assertTrue(UrlOverrides.none().isEmpty());
+        assertFalse(UrlOverrides.none().hasForcedFeatureValues());
+
+        UrlOverrides experimentsOnly = UrlOverrides.parse("https://example.com/page?exp=1");
+        assertFalse(experimentsOnly.isEmpty());
+        assertFalse(experimentsOnly.hasForcedFeatureValues());
+        assertNull(experimentsOnly.getForcedFeatureValue("exp"));
+
+        // the same URL is parsed once
+        assertSame(experimentsOnly, UrlOverrides.parse("https://example.com/page?exp=1"));
+        assertTrue(UrlOverrides.parse("not a url?exp=1").isEmpty());
+    }
+}